@@ -18,8 +18,22 @@ android {
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
     }
 
+    buildFeatures {
+        buildConfig = true
+    }
+
+    androidResources {
+        // El nomenclátor se mapea en memoria directamente desde el APK
+        noCompress += "bin"
+    }
+
     buildTypes {
+        debug {
+            // Trazas de red: NONE, BASIC (solo buffer en memoria) o VERBOSE (buffer + Logcat)
+            buildConfigField("String", "NETWORK_TRACE_LEVEL", "\"VERBOSE\"")
+        }
         release {
+            buildConfigField("String", "NETWORK_TRACE_LEVEL", "\"BASIC\"")
             isMinifyEnabled = false
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
@@ -34,6 +48,7 @@ android {
 }
 
 dependencies {
+    implementation(project(":weather-core"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.activity)
@@ -44,7 +59,6 @@ dependencies {
     implementation(libs.retrofit.gson)
     implementation(libs.gson)
     implementation(libs.okhttp)
-    implementation(libs.logging.interceptor)
     
     // ViewModel y LiveData
     implementation(libs.lifecycle.viewmodel)
@@ -55,8 +69,8 @@ dependencies {
     implementation(libs.recyclerview)
     implementation(libs.cardview)
     
-    // Glide para imágenes
-    implementation(libs.glide)
+    // WorkManager para la precarga en segundo plano
+    implementation(libs.work.runtime)
     
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
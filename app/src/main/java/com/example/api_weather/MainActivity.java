@@ -1,7 +1,9 @@
 package com.example.api_weather;
 
 import android.os.Bundle;
+import android.text.Editable;
 import android.text.TextUtils;
+import android.text.TextWatcher;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.ProgressBar;
@@ -14,18 +16,32 @@ import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
+import com.example.api_weather.api.ProjectionRegistry;
+import com.example.api_weather.format.WeatherFormatter;
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.ForecastSeries;
+import com.example.api_weather.model.UnitProfile;
+import com.example.api_weather.model.WeatherCode;
 import com.example.api_weather.model.WeatherResponse;
+import com.example.api_weather.outlook.DailyAdapter;
+import com.example.api_weather.outlook.ForecastRow;
+import com.example.api_weather.outlook.HourlyAdapter;
+import com.example.api_weather.search.SuggestionAdapter;
 import com.example.api_weather.viewmodel.WeatherViewModel;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.card.MaterialCardView;
-import com.google.android.material.textfield.TextInputEditText;
+import com.google.android.material.textfield.MaterialAutoCompleteTextView;
+
+import java.util.Locale;
 
 public class MainActivity extends AppCompatActivity {
 
-    private TextInputEditText etCityName;
+    private MaterialAutoCompleteTextView etCityName;
+    private SuggestionAdapter suggestionAdapter;
     private MaterialButton btnSearch;
+    private MaterialButton btnUnits;
     private ProgressBar progressBar;
     private TextView tvError;
     private MaterialCardView cardWeather;
@@ -42,6 +58,20 @@ public class MainActivity extends AppCompatActivity {
     private TextView tvPressure;
     private TextView tvWind;
     private TextView tvVisibility;
+    private MaterialCardView cardOutlook;
+    private HourlyAdapter hourlyAdapter;
+    // Formateo sin asignaciones: un buffer por TextView, que se queda con la referencia
+    private WeatherFormatter formatter = WeatherFormatter.metric(Locale.getDefault());
+    private UnitProfile formatterUnits;
+    private final char[] temperatureText = new char[WeatherFormatter.MAX_LENGTH];
+    private final char[] feelsLikeText = new char[2 * WeatherFormatter.MAX_LENGTH];
+    private final char[] tempMinText = new char[WeatherFormatter.MAX_LENGTH];
+    private final char[] tempMaxText = new char[WeatherFormatter.MAX_LENGTH];
+    private final char[] humidityText = new char[WeatherFormatter.MAX_LENGTH];
+    private final char[] pressureText = new char[WeatherFormatter.MAX_LENGTH];
+    private final char[] windText = new char[WeatherFormatter.MAX_LENGTH];
+    private final char[] visibilityText = new char[WeatherFormatter.MAX_LENGTH];
+    private DailyAdapter dailyAdapter;
     
     private WeatherViewModel weatherViewModel;
 
@@ -65,6 +95,7 @@ public class MainActivity extends AppCompatActivity {
     private void initViews() {
         etCityName = findViewById(R.id.etCityName);
         btnSearch = findViewById(R.id.btnSearch);
+        btnUnits = findViewById(R.id.btnUnits);
         progressBar = findViewById(R.id.progressBar);
         tvError = findViewById(R.id.tvError);
         cardWeather = findViewById(R.id.cardWeather);
@@ -81,6 +112,20 @@ public class MainActivity extends AppCompatActivity {
         tvPressure = findViewById(R.id.tvPressure);
         tvWind = findViewById(R.id.tvWind);
         tvVisibility = findViewById(R.id.tvVisibility);
+        cardOutlook = findViewById(R.id.cardOutlook);
+        
+        // Horas y días: el tamaño de las listas no depende de su contenido
+        RecyclerView rvHourly = findViewById(R.id.rvHourly);
+        rvHourly.setHasFixedSize(true);
+        hourlyAdapter = new HourlyAdapter();
+        rvHourly.setAdapter(hourlyAdapter);
+        RecyclerView rvDaily = findViewById(R.id.rvDaily);
+        rvDaily.setHasFixedSize(true);
+        dailyAdapter = new DailyAdapter();
+        rvDaily.setAdapter(dailyAdapter);
+        
+        suggestionAdapter = new SuggestionAdapter(this);
+        etCityName.setAdapter(suggestionAdapter);
         
         // Ocultar tarjeta y error al inicio
         cardWeather.setVisibility(View.GONE);
@@ -89,6 +134,9 @@ public class MainActivity extends AppCompatActivity {
 
     private void setupViewModel() {
         weatherViewModel = new ViewModelProvider(this).get(WeatherViewModel.class);
+        // Las listas declaran qué variables muestran; la tarjeta usa las de WeatherResponse
+        weatherViewModel.requireVariables(ProjectionRegistry.Slot.OUTLOOK, "hourly", HourlyAdapter.PROJECTION);
+        weatherViewModel.requireVariables(ProjectionRegistry.Slot.OUTLOOK, "daily", DailyAdapter.PROJECTION);
         
         // Observar datos del clima
         weatherViewModel.getWeatherData().observe(this, weatherResponse -> {
@@ -97,6 +145,23 @@ public class MainActivity extends AppCompatActivity {
             }
         });
         
+        // Observar unidades: símbolos del formateador y de las listas
+        weatherViewModel.getUnitProfile().observe(this, units -> {
+            WeatherFormatter unitsFormatter = formatterFor(units);
+            hourlyAdapter.setFormatter(unitsFormatter);
+            dailyAdapter.setFormatter(unitsFormatter);
+            btnUnits.setText(units.getTemperature().getSymbol());
+        });
+        
+        // Observar horas y días
+        weatherViewModel.getOutlook().observe(this, forecast -> {
+            if (forecast != null) {
+                displayOutlook(forecast);
+            } else {
+                cardOutlook.setVisibility(View.GONE);
+            }
+        });
+        
         // Observar errores
         weatherViewModel.getErrorMessage().observe(this, errorMessage -> {
             if (errorMessage != null && !errorMessage.isEmpty()) {
@@ -104,6 +169,16 @@ public class MainActivity extends AppCompatActivity {
             }
         });
         
+        // Observar sugerencias de autocompletado
+        weatherViewModel.getSuggestions().observe(this, locations -> {
+            if (locations != null) {
+                suggestionAdapter.setLocations(locations);
+                if (!locations.isEmpty() && etCityName.hasFocus()) {
+                    etCityName.showDropDown();
+                }
+            }
+        });
+        
         // Observar estado de carga
         weatherViewModel.getIsLoading().observe(this, isLoading -> {
             if (isLoading != null) {
@@ -114,6 +189,13 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void setupListeners() {
+        btnUnits.setOnClickListener(v -> {
+            UnitProfile current = weatherViewModel.getUnitProfile().getValue();
+            String language = Locale.getDefault().getLanguage();
+            weatherViewModel.setUnitProfile(current != null && current.isFahrenheit()
+                    ? UnitProfile.metric(language) : UnitProfile.imperial(language));
+        });
+        
         btnSearch.setOnClickListener(v -> {
             String cityName = etCityName.getText().toString().trim();
             if (TextUtils.isEmpty(cityName)) {
@@ -121,8 +203,33 @@ public class MainActivity extends AppCompatActivity {
                 return;
             }
             hideError();
+            etCityName.dismissDropDown();
             weatherViewModel.fetchWeatherByCity(cityName);
         });
+        
+        // Autocompletado: cada pulsación se envía al ViewModel, que aplica el debounce
+        etCityName.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                // Elegir una sugerencia también cambia el texto: eso no es una nueva búsqueda
+                if (!etCityName.isPerformingCompletion()) {
+                    weatherViewModel.onSearchQueryChanged(s.toString());
+                }
+            }
+        });
+        
+        etCityName.setOnItemClickListener((parent, view, position, id) -> {
+            hideError();
+            weatherViewModel.selectSuggestion(suggestionAdapter.getItem(position));
+        });
     }
 
     private void displayWeatherData(WeatherResponse weatherResponse) {
@@ -130,58 +237,46 @@ public class MainActivity extends AppCompatActivity {
         
         // Ciudad y país
         tvCityName.setText(weatherResponse.getName());
-        if (weatherResponse.getSys() != null && weatherResponse.getSys().getCountry() != null) {
-            tvCountry.setText(weatherResponse.getSys().getCountry());
+        if (weatherResponse.getCountry() != null) {
+            tvCountry.setText(weatherResponse.getCountry());
         }
         
-        // Icono del clima
-        if (weatherResponse.getWeather() != null && !weatherResponse.getWeather().isEmpty()) {
-            String icon = weatherResponse.getWeather().get(0).getIcon();
-            String iconUrl = "https://openweathermap.org/img/wn/" + icon + "@4x.png";
-            Glide.with(this)
-                    .load(iconUrl)
-                    .into(ivWeatherIcon);
-            
-            // Descripción
-            String description = weatherResponse.getWeather().get(0).getDescription();
-            if (description != null) {
-                description = capitalizeFirstLetter(description);
-                tvDescription.setText(description);
-            }
+        // Icono del clima; se lee de la fila 0 sin construir la lista Weather
+        if (weatherResponse.getWeatherCode() != ForecastSeries.MISSING_SHORT) {
+            // Icono local según el código WMO y si es de día o de noche
+            WeatherCode weatherCode = WeatherCode.of(weatherResponse.getWeatherCode());
+            ivWeatherIcon.setImageDrawable(
+                    WeatherIconCache.get(this, weatherCode.getIcon(), weatherResponse.isDay()));
+
+            // Descripción localizada según el código WMO
+            tvDescription.setText(capitalizeFirstLetter(getString(WeatherResources.description(weatherCode))));
         }
         
-        // Temperatura
-        if (weatherResponse.getMain() != null) {
-            double temp = weatherResponse.getMain().getTemp();
-            tvTemperature.setText(String.format("%.0f°C", temp));
-            
-            double feelsLike = weatherResponse.getMain().getFeelsLike();
-            tvFeelsLike.setText(String.format("Sensación: %.0f°C", feelsLike));
-            
-            double tempMin = weatherResponse.getMain().getTempMin();
-            tvTempMin.setText(String.format("%.0f°C", tempMin));
-            
-            double tempMax = weatherResponse.getMain().getTempMax();
-            tvTempMax.setText(String.format("%.0f°C", tempMax));
-            
-            int humidity = weatherResponse.getMain().getHumidity();
-            tvHumidity.setText(String.format("%d%%", humidity));
-            
-            int pressure = weatherResponse.getMain().getPressure();
-            tvPressure.setText(String.format("%d hPa", pressure));
-        }
+        // Valores en las unidades en que se pidió esta respuesta
+        WeatherFormatter formatter = weatherResponse.getUnits() != null
+                ? formatterFor(weatherResponse.getUnits()) : this.formatter;
+        
+        // Temperatura (leída directamente de la fila 0 del pronóstico)
+        tvTemperature.setText(temperatureText, 0,
+                formatter.temperature(temperatureText, 0, weatherResponse.getTemperature()));
+        
+        // Sensación térmica: se calcula aquí, al mostrarla
+        int length = WeatherFormatter.append(feelsLikeText, 0, "Sensación: ");
+        length = formatter.temperature(feelsLikeText, length, weatherResponse.getFeelsLike());
+        tvFeelsLike.setText(feelsLikeText, 0, length);
+        
+        tvTempMin.setText(tempMinText, 0, formatter.temperature(tempMinText, 0, weatherResponse.getTemperatureMin()));
+        tvTempMax.setText(tempMaxText, 0, formatter.temperature(tempMaxText, 0, weatherResponse.getTemperatureMax()));
+        tvHumidity.setText(humidityText, 0, formatter.percent(humidityText, 0, weatherResponse.getHumidity()));
+        tvPressure.setText(pressureText, 0, formatter.pressure(pressureText, 0, weatherResponse.getPressure()));
         
         // Viento
-        if (weatherResponse.getWind() != null) {
-            double windSpeed = weatherResponse.getWind().getSpeed();
-            tvWind.setText(String.format("%.1f m/s", windSpeed));
-        }
+        tvWind.setText(windText, 0, formatter.speed(windText, 0, weatherResponse.getWindSpeed()));
         
         // Visibilidad
         int visibility = weatherResponse.getVisibility();
         if (visibility > 0) {
-            double visibilityKm = visibility / 1000.0;
-            tvVisibility.setText(String.format("%.1f km", visibilityKm));
+            tvVisibility.setText(visibilityText, 0, formatter.distance(visibilityText, 0, visibility / 1000.0));
         } else {
             tvVisibility.setText("N/A");
         }
@@ -198,6 +293,27 @@ public class MainActivity extends AppCompatActivity {
         tvError.setText("");
     }
 
+    /** Formateador de las unidades dadas; se reutiliza mientras no cambien. */
+    private WeatherFormatter formatterFor(UnitProfile units) {
+        if (!units.equals(formatterUnits)) {
+            formatter = WeatherFormatter.forUnits(Locale.getDefault(), units);
+            formatterUnits = units;
+        }
+        return formatter;
+    }
+
+    private void displayOutlook(Forecast forecast) {
+        int utcOffset = forecast.getUtcOffsetSeconds();
+        long now = System.currentTimeMillis() / 1000;
+        // Desde la hora en curso y desde el día local de hoy
+        long currentHour = now - Math.floorMod(now, 3600L);
+        long today = Math.floorDiv(now + utcOffset, 86400L) * 86400L - utcOffset;
+        hourlyAdapter.submitList(ForecastRow.from(forecast.getHourly(), utcOffset, currentHour));
+        dailyAdapter.submitList(ForecastRow.from(forecast.getDaily(), utcOffset, today));
+        cardOutlook.setVisibility(forecast.getHourly().size() > 0 || forecast.getDaily().size() > 0
+                ? View.VISIBLE : View.GONE);
+    }
+
     private String capitalizeFirstLetter(String str) {
         if (str == null || str.isEmpty()) {
             return str;
@@ -0,0 +1,18 @@
+package com.example.api_weather;
+
+import android.app.Application;
+
+import com.example.api_weather.prefetch.PrefetchWorker;
+
+/**
+ * Inicialización de una vez por proceso: lo que no debe repetirse con cada ViewModel o
+ * cada rotación de pantalla.
+ */
+public class WeatherApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        PrefetchWorker.schedule(this);
+    }
+}
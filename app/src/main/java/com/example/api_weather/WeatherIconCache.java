@@ -0,0 +1,40 @@
+package com.example.api_weather;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+
+import androidx.appcompat.content.res.AppCompatResources;
+
+import com.example.api_weather.model.WeatherIcon;
+
+/**
+ * Iconos del clima cargados de los recursos una sola vez. Se guarda el ConstantState de cada
+ * variante (icono × día/noche) y cada vista recibe un Drawable nuevo que comparte ese estado,
+ * así que refrescar la pantalla no vuelve a inflar el vector ni a pedir nada a la red.
+ *
+ * Solo debe usarse desde el hilo principal.
+ */
+public final class WeatherIconCache {
+    private static final Drawable.ConstantState[] STATES = new Drawable.ConstantState[WeatherIcon.values().length * 2];
+
+    private WeatherIconCache() {
+    }
+
+    public static Drawable get(Context context, WeatherIcon icon, boolean isDay) {
+        int slot = icon.ordinal() * 2 + (isDay ? 0 : 1);
+        Drawable.ConstantState state = STATES[slot];
+        if (state == null) {
+            Drawable drawable = AppCompatResources.getDrawable(context,
+                    WeatherResources.drawable(icon, isDay));
+            if (drawable == null) {
+                return null;
+            }
+            state = drawable.getConstantState();
+            if (state == null) {
+                return drawable;
+            }
+            STATES[slot] = state;
+        }
+        return state.newDrawable(context.getResources());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.api_weather;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.StringRes;
+
+import com.example.api_weather.model.WeatherCode;
+import com.example.api_weather.model.WeatherIcon;
+
+import java.util.Arrays;
+
+/**
+ * Recursos de la app para los códigos WMO y los iconos de weather-core, que no conoce R:
+ * la descripción localizada de cada código y el vector (res/drawable/ic_weather_*) de cada
+ * icono de día o de noche. Tablas fijas; las consultas son accesos a array o a switch.
+ */
+public final class WeatherResources {
+    private static final int[] DESCRIPTIONS = new int[WeatherCode.MAX_CODE + 1];
+
+    static {
+        // Los códigos sin descripción propia usan la genérica, como en WeatherCode
+        Arrays.fill(DESCRIPTIONS, R.string.weather_code_unknown);
+        DESCRIPTIONS[0] = R.string.weather_code_0;
+        DESCRIPTIONS[1] = R.string.weather_code_1;
+        DESCRIPTIONS[2] = R.string.weather_code_2;
+        DESCRIPTIONS[3] = R.string.weather_code_3;
+        DESCRIPTIONS[45] = R.string.weather_code_45;
+        DESCRIPTIONS[48] = R.string.weather_code_48;
+        DESCRIPTIONS[51] = R.string.weather_code_51;
+        DESCRIPTIONS[53] = R.string.weather_code_53;
+        DESCRIPTIONS[55] = R.string.weather_code_55;
+        DESCRIPTIONS[56] = R.string.weather_code_56;
+        DESCRIPTIONS[57] = R.string.weather_code_57;
+        DESCRIPTIONS[61] = R.string.weather_code_61;
+        DESCRIPTIONS[63] = R.string.weather_code_63;
+        DESCRIPTIONS[65] = R.string.weather_code_65;
+        DESCRIPTIONS[66] = R.string.weather_code_66;
+        DESCRIPTIONS[67] = R.string.weather_code_67;
+        DESCRIPTIONS[71] = R.string.weather_code_71;
+        DESCRIPTIONS[73] = R.string.weather_code_73;
+        DESCRIPTIONS[75] = R.string.weather_code_75;
+        DESCRIPTIONS[77] = R.string.weather_code_77;
+        DESCRIPTIONS[80] = R.string.weather_code_80;
+        DESCRIPTIONS[81] = R.string.weather_code_81;
+        DESCRIPTIONS[82] = R.string.weather_code_82;
+        DESCRIPTIONS[85] = R.string.weather_code_85;
+        DESCRIPTIONS[86] = R.string.weather_code_86;
+        DESCRIPTIONS[95] = R.string.weather_code_95;
+        DESCRIPTIONS[96] = R.string.weather_code_96;
+        DESCRIPTIONS[99] = R.string.weather_code_99;
+    }
+
+    private WeatherResources() {
+    }
+
+    @StringRes
+    public static int description(WeatherCode code) {
+        int value = code.getCode();
+        return value >= 0 && value <= WeatherCode.MAX_CODE ? DESCRIPTIONS[value] : R.string.weather_code_unknown;
+    }
+
+    @DrawableRes
+    public static int drawable(WeatherIcon icon, boolean isDay) {
+        switch (icon) {
+            case CLEAR:
+                return isDay ? R.drawable.ic_weather_clear_day : R.drawable.ic_weather_clear_night;
+            case FEW_CLOUDS:
+                return isDay ? R.drawable.ic_weather_few_clouds_day : R.drawable.ic_weather_few_clouds_night;
+            case CLOUDS:
+                return R.drawable.ic_weather_clouds;
+            case DRIZZLE:
+                return R.drawable.ic_weather_drizzle;
+            case RAIN:
+                return R.drawable.ic_weather_rain;
+            case THUNDERSTORM:
+                return R.drawable.ic_weather_thunderstorm;
+            case SNOW:
+                return R.drawable.ic_weather_snow;
+            case FOG:
+            default:
+                return R.drawable.ic_weather_fog;
+        }
+    }
+}
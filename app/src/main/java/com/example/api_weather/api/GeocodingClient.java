@@ -0,0 +1,32 @@
+package com.example.api_weather.api;
+
+import android.content.Context;
+
+import com.example.api_weather.model.GeocodingResponse;
+
+public class GeocodingClient {
+    private static GeocodingClient instance;
+    private GeocodingApi geocodingApi;
+    // Compartido por todos los ViewModel y widgets del proceso
+    private final SingleFlight<GeocodingResponse> geocodingFlights = new SingleFlight<>();
+
+    private GeocodingClient(Context context) {
+        // Cliente compartido: misma caché, pool de conexiones, dispatcher y trazas
+        geocodingApi = OpenMeteo.geocodingApi(HttpClientProvider.getInstance(context).getClient());
+    }
+
+    public static synchronized GeocodingClient getInstance(Context context) {
+        if (instance == null) {
+            instance = new GeocodingClient(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public GeocodingApi getGeocodingApi() {
+        return geocodingApi;
+    }
+
+    public SingleFlight<GeocodingResponse> getGeocodingFlights() {
+        return geocodingFlights;
+    }
+}
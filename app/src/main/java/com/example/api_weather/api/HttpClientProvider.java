@@ -0,0 +1,60 @@
+package com.example.api_weather.api;
+
+import android.content.Context;
+
+import com.example.api_weather.BuildConfig;
+
+import java.io.File;
+
+import okhttp3.Cache;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * OkHttpClient compartido por RetrofitClient y GeocodingClient, de modo que ambos usan
+ * la misma caché en disco, pool de conexiones, dispatcher y trazador de red en lugar de
+ * crear cada uno los suyos. Las peticiones pasan por ResilienceInterceptor (plazo,
+ * reintentos, cobertura y cortocircuito por host).
+ */
+public class HttpClientProvider {
+    private static final String CACHE_DIR = "http_cache";
+    private static final long CACHE_SIZE_BYTES = 10L * 1024 * 1024;
+    private static final int TRACE_BUFFER_SIZE = 50;
+
+    private static HttpClientProvider instance;
+    private final OkHttpClient client;
+    // Sin lector en la app: se consulta con el depurador o en un volcado de memoria
+    private final NetworkTraceBuffer traceBuffer = new NetworkTraceBuffer(TRACE_BUFFER_SIZE);
+
+    private HttpClientProvider(Context context) {
+        Cache cache = new Cache(new File(context.getCacheDir(), CACHE_DIR), CACHE_SIZE_BYTES);
+        // Transporte de cada intento individual: se traza cada intento, reintento o cobertura
+        OkHttpClient transport = new OkHttpClient.Builder()
+                .cache(cache)
+                .addNetworkInterceptor(new CachePolicyInterceptor())
+                .eventListenerFactory(new NetworkTracer(
+                        NetworkTracer.parseLevel(BuildConfig.NETWORK_TRACE_LEVEL), traceBuffer))
+                .build();
+        // Cliente que ven Retrofit: misma caché y conexiones, dispatcher propio (ver
+        // ResilienceInterceptor) y sin trazas para no duplicar las de sus intentos; su único
+        // EventListener despierta al interceptor cuando se cancela una llamada
+        ResilienceInterceptor resilience = new ResilienceInterceptor(transport);
+        client = transport.newBuilder()
+                .dispatcher(new Dispatcher())
+                .eventListenerFactory(resilience.cancellationListener())
+                .addInterceptor(new OfflineCacheInterceptor(context))
+                .addInterceptor(resilience)
+                .build();
+    }
+
+    public static synchronized HttpClientProvider getInstance(Context context) {
+        if (instance == null) {
+            instance = new HttpClientProvider(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public OkHttpClient getClient() {
+        return client;
+    }
+}
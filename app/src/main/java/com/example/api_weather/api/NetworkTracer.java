@@ -0,0 +1,193 @@
+package com.example.api_weather.api;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+/**
+ * Trazador de red basado en EventListener de OkHttp. Mide cada fase de la llamada con
+ * marcas de tiempo y cuenta bytes a partir de los eventos, sin leer ni copiar los cuerpos.
+ * El nivel se configura por tipo de build (BuildConfig.NETWORK_TRACE_LEVEL).
+ */
+public class NetworkTracer implements EventListener.Factory {
+    private static final String TAG = "NetworkTracer";
+
+    public enum Level {
+        /** Sin trazas. */
+        NONE,
+        /** Solo el buffer circular en memoria. */
+        BASIC,
+        /** Buffer circular y una línea de log por llamada. */
+        VERBOSE
+    }
+
+    private final Level level;
+    private final NetworkTraceBuffer buffer;
+
+    public NetworkTracer(Level level, NetworkTraceBuffer buffer) {
+        this.level = level;
+        this.buffer = buffer;
+    }
+
+    public static Level parseLevel(String value) {
+        try {
+            return Level.valueOf(value);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return Level.NONE;
+        }
+    }
+
+    @Override
+    public EventListener create(Call call) {
+        if (level == Level.NONE) {
+            return EventListener.NONE;
+        }
+        return new CallListener();
+    }
+
+    private static long elapsedMs(long start, long end) {
+        return start == 0 || end == 0 ? -1 : (end - start) / 1_000_000;
+    }
+
+    private class CallListener extends EventListener {
+        private long startedAtMillis;
+        private long callStart;
+        private long dnsStart;
+        private long dnsEnd;
+        private long connectStart;
+        private long connectEnd;
+        private long tlsStart;
+        private long tlsEnd;
+        private long requestStart;
+        private long responseHeadersStart;
+        private long responseBodyStart;
+        private long responseBodyEnd;
+        private long bytesSent;
+        private long bytesReceived;
+        private int status;
+        private String cache = "network";
+
+        @Override
+        public void callStart(Call call) {
+            startedAtMillis = System.currentTimeMillis();
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            dnsEnd = System.nanoTime();
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            tlsStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            tlsEnd = System.nanoTime();
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            connectEnd = System.nanoTime();
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            if (requestStart == 0) {
+                requestStart = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            bytesSent += byteCount;
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            responseHeadersStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            status = response.code();
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            responseBodyStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            responseBodyEnd = System.nanoTime();
+            bytesReceived += byteCount;
+        }
+
+        @Override
+        public void cacheHit(Call call, Response response) {
+            cache = "hit";
+            status = response.code();
+        }
+
+        @Override
+        public void cacheConditionalHit(Call call, Response cachedResponse) {
+            cache = "conditional";
+        }
+
+        @Override
+        public void cacheMiss(Call call) {
+            cache = "miss";
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            record(call, null);
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            record(call, ioe.getClass().getSimpleName() + ": " + ioe.getMessage());
+        }
+
+        private void record(Call call, String error) {
+            long end = System.nanoTime();
+            // La URL sin query: los parámetros no aportan al diagnóstico y alargan cada traza
+            String url = call.request().url().host() + call.request().url().encodedPath();
+            CallTrace trace = new CallTrace(startedAtMillis, call.request().method(), url, status, cache,
+                    elapsedMs(dnsStart, dnsEnd),
+                    elapsedMs(connectStart, connectEnd),
+                    elapsedMs(tlsStart, tlsEnd),
+                    elapsedMs(requestStart, responseHeadersStart),
+                    elapsedMs(responseBodyStart, responseBodyEnd),
+                    elapsedMs(callStart, end),
+                    bytesSent, bytesReceived, error);
+            buffer.add(trace);
+            if (level == Level.VERBOSE) {
+                Log.d(TAG, trace.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.api_weather.api;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Interceptor de aplicación que sirve la copia en caché aunque esté obsoleta cuando no
+ * hay conexión, o cuando la petición de red falla por un error de E/S.
+ */
+public class OfflineCacheInterceptor implements Interceptor {
+    private static final int MAX_STALE_DAYS = 7;
+    private static final CacheControl OFFLINE = new CacheControl.Builder()
+            .onlyIfCached()
+            .maxStale(MAX_STALE_DAYS, TimeUnit.DAYS)
+            .build();
+
+    private final Context context;
+
+    public OfflineCacheInterceptor(Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method())) {
+            return chain.proceed(request);
+        }
+        if (!isOnline()) {
+            return chain.proceed(request.newBuilder().cacheControl(OFFLINE).build());
+        }
+        try {
+            return chain.proceed(request);
+        } catch (IOException e) {
+            // Sin copia en caché OkHttp responde 504: en ese caso propagar el error original
+            Response cached = chain.proceed(request.newBuilder().cacheControl(OFFLINE).build());
+            if (cached.code() == 504) {
+                cached.close();
+                throw e;
+            }
+            return cached;
+        }
+    }
+
+    private boolean isOnline() {
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) {
+            return true;
+        }
+        Network network = connectivityManager.getActiveNetwork();
+        if (network == null) {
+            return false;
+        }
+        NetworkCapabilities capabilities = connectivityManager.getNetworkCapabilities(network);
+        return capabilities != null
+                && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+    }
+}
@@ -1,36 +1,23 @@
 package com.example.api_weather.api;
 
-import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
+import android.content.Context;
+
+import com.example.api_weather.model.Forecast;
 
 public class RetrofitClient {
-    private static final String BASE_URL = "https://api.open-meteo.com/v1/";
     private static RetrofitClient instance;
-    private Retrofit retrofit;
     private WeatherApi weatherApi;
+    // Compartido por todos los ViewModel y widgets del proceso
+    private final SingleFlight<Forecast> forecastFlights = new SingleFlight<>();
 
-    private RetrofitClient() {
-        // Configurar logging interceptor para debug
-        HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-        loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-        
-        OkHttpClient client = new OkHttpClient.Builder()
-                .addInterceptor(loggingInterceptor)
-                .build();
-        
-        retrofit = new Retrofit.Builder()
-                .baseUrl(BASE_URL)
-                .client(client)
-                .addConverterFactory(GsonConverterFactory.create())
-                .build();
-        weatherApi = retrofit.create(WeatherApi.class);
+    private RetrofitClient(Context context) {
+        // Cliente compartido: misma caché, pool de conexiones, dispatcher y trazas
+        weatherApi = OpenMeteo.weatherApi(HttpClientProvider.getInstance(context).getClient());
     }
 
-    public static synchronized RetrofitClient getInstance() {
+    public static synchronized RetrofitClient getInstance(Context context) {
         if (instance == null) {
-            instance = new RetrofitClient();
+            instance = new RetrofitClient(context.getApplicationContext());
         }
         return instance;
     }
@@ -38,12 +25,8 @@ public class RetrofitClient {
     public WeatherApi getWeatherApi() {
         return weatherApi;
     }
-}
-
-
-
-
-
-
-
 
+    public SingleFlight<Forecast> getForecastFlights() {
+        return forecastFlights;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.api_weather.api;
+
+import android.content.Context;
+
+import com.example.api_weather.cache.ForecastCache;
+import com.example.api_weather.cache.ForecastStore;
+import com.example.api_weather.cache.GeocodingCache;
+import com.example.api_weather.core.ForecastPipeline;
+import com.example.api_weather.core.WeatherEngine;
+
+public class WeatherEngineProvider {
+    private static WeatherEngineProvider instance;
+    private final WeatherEngine engine;
+
+    private WeatherEngineProvider(Context context) {
+        RetrofitClient forecastClient = RetrofitClient.getInstance(context);
+        GeocodingClient geocodingClient = GeocodingClient.getInstance(context);
+        // Un solo motor en el proceso: los ViewModel comparten peticiones en curso, cachés y pipeline
+        engine = new WeatherEngine(forecastClient.getWeatherApi(), geocodingClient.getGeocodingApi(),
+                forecastClient.getForecastFlights(), geocodingClient.getGeocodingFlights(),
+                ForecastCache.getInstance(), ForecastStore.getInstance(context.getFilesDir()),
+                GeocodingCache.getInstance(context.getCacheDir()), ForecastPipeline.create());
+    }
+
+    public static synchronized WeatherEngineProvider getInstance(Context context) {
+        if (instance == null) {
+            instance = new WeatherEngineProvider(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public WeatherEngine getEngine() {
+        return engine;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.api_weather.format;
+
+import com.example.api_weather.model.UnitProfile;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Formatea magnitudes del clima escribiendo en un char[] del llamante, para pasarlo a
+ * TextView.setText(char[], int, int) sin Formatter, sin boxing y sin Strings intermedios.
+ *
+ * Cada método recibe la posición donde empezar a escribir y devuelve la posición siguiente,
+ * de modo que se pueden encadenar ("Sensación: " + temperatura). El separador decimal y el
+ * signo menos salen del Locale; las unidades, del constructor. Los valores ausentes (NaN)
+ * se escriben como "–". Sin estado mutable: una instancia puede compartirse entre vistas,
+ * pero cada TextView necesita su propio char[] porque se queda con la referencia.
+ */
+public final class WeatherFormatter {
+    public static final char MISSING = '–';
+    // Lo más largo que se escribe: signo, 10 dígitos, separador, decimal, espacio y unidad
+    public static final int MAX_LENGTH = 24;
+
+    private final char decimalSeparator;
+    private final char minusSign;
+    private final String temperatureUnit;
+    private final String speedUnit;
+    private final String pressureUnit;
+    private final String distanceUnit;
+
+    public WeatherFormatter(Locale locale, String temperatureUnit, String speedUnit,
+                            String pressureUnit, String distanceUnit) {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.minusSign = symbols.getMinusSign();
+        this.temperatureUnit = temperatureUnit;
+        this.speedUnit = speedUnit;
+        this.pressureUnit = pressureUnit;
+        this.distanceUnit = distanceUnit;
+    }
+
+    /** Unidades métricas de Open-Meteo por defecto: °C, m/s, hPa y km. */
+    public static WeatherFormatter metric(Locale locale) {
+        return new WeatherFormatter(locale, "°C", "m/s", "hPa", "km");
+    }
+
+    /** Símbolos de las unidades del perfil; la presión es siempre hPa. */
+    public static WeatherFormatter forUnits(Locale locale, UnitProfile units) {
+        return new WeatherFormatter(locale, units.getTemperature().getSymbol(),
+                units.getWindSpeed().getSymbol(), "hPa", "km");
+    }
+
+    /** Temperatura redondeada con su unidad: "23°C". */
+    public int temperature(char[] out, int position, double value) {
+        position = integer(out, position, value);
+        return Double.isNaN(value) ? position : append(out, position, temperatureUnit);
+    }
+
+    /** Temperatura redondeada solo con "°", para listas: "23°". */
+    public int degrees(char[] out, int position, double value) {
+        position = integer(out, position, value);
+        if (!Double.isNaN(value)) {
+            out[position++] = '°';
+        }
+        return position;
+    }
+
+    /** Porcentaje entero: "40%"; un valor negativo (dato ausente) no escribe nada. */
+    public int percent(char[] out, int position, int value) {
+        if (value < 0) {
+            return position;
+        }
+        position = appendInt(out, position, value);
+        out[position] = '%';
+        return position + 1;
+    }
+
+    /** Presión redondeada: "1013 hPa". */
+    public int pressure(char[] out, int position, double value) {
+        return withUnit(out, integer(out, position, value), value, pressureUnit);
+    }
+
+    /** Velocidad con un decimal: "5,2 m/s". */
+    public int speed(char[] out, int position, double value) {
+        return withUnit(out, oneDecimal(out, position, value), value, speedUnit);
+    }
+
+    /** Distancia con un decimal: "10,0 km". */
+    public int distance(char[] out, int position, double value) {
+        return withUnit(out, oneDecimal(out, position, value), value, distanceUnit);
+    }
+
+    /** Valor redondeado a entero, o "–". */
+    public int integer(char[] out, int position, double value) {
+        if (Double.isNaN(value)) {
+            out[position] = MISSING;
+            return position + 1;
+        }
+        // Mitades lejos de cero, como String.format; sin "-0"
+        long rounded = Math.round(Math.abs(value));
+        if (value < 0 && rounded != 0) {
+            out[position++] = minusSign;
+        }
+        return appendLong(out, position, rounded);
+    }
+
+    /** Valor con un decimal y el separador del Locale, o "–". */
+    public int oneDecimal(char[] out, int position, double value) {
+        if (Double.isNaN(value)) {
+            out[position] = MISSING;
+            return position + 1;
+        }
+        long tenths = Math.round(Math.abs(value) * 10.0);
+        if (value < 0 && tenths != 0) {
+            out[position++] = minusSign;
+        }
+        position = appendLong(out, position, tenths / 10);
+        out[position++] = decimalSeparator;
+        out[position++] = (char) ('0' + tenths % 10);
+        return position;
+    }
+
+    /** Copia el texto (un rótulo o una unidad) sin crear objetos. */
+    public static int append(char[] out, int position, String text) {
+        int length = text.length();
+        text.getChars(0, length, out, position);
+        return position + length;
+    }
+
+    /** Entero no negativo o negativo con '-' ASCII, sin separador de miles. */
+    public static int appendInt(char[] out, int position, int value) {
+        if (value < 0) {
+            out[position++] = '-';
+            return appendLong(out, position, -(long) value);
+        }
+        return appendLong(out, position, value);
+    }
+
+    private int withUnit(char[] out, int position, double value, String unit) {
+        if (Double.isNaN(value)) {
+            return position;
+        }
+        out[position++] = ' ';
+        return append(out, position, unit);
+    }
+
+    private static int appendLong(char[] out, int position, long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.api_weather.outlook;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.api_weather.R;
+import com.example.api_weather.WeatherIconCache;
+import com.example.api_weather.format.WeatherFormatter;
+import com.example.api_weather.model.ForecastSeries;
+import com.example.api_weather.model.Projection;
+import com.example.api_weather.model.WeatherCode;
+import com.example.api_weather.model.WeatherIcon;
+
+import java.text.DateFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Lista de los próximos días: icono, probabilidad de precipitación y temperaturas mínima y
+ * máxima. Mismo esquema que HourlyAdapter: diff en segundo plano, IDs estables por fecha y
+ * enlace sin asignaciones.
+ */
+public class DailyAdapter extends ListAdapter<ForecastRow, DailyAdapter.ViewHolder> {
+    // Variables que muestra cada fila: se piden (PROJECTION) y se comparan al calcular el diff
+    private static final ForecastSeries.Variable[] SHOWN = {
+            ForecastSeries.Variable.WEATHER_CODE,
+            ForecastSeries.Variable.TEMPERATURE_2M_MIN,
+            ForecastSeries.Variable.TEMPERATURE_2M_MAX,
+            ForecastSeries.Variable.PRECIPITATION_PROBABILITY_MAX
+    };
+    /** Lo que esta lista necesita del pronóstico; se registra en WeatherViewModel.requireVariables. */
+    public static final Projection PROJECTION = Projection.builder().daily(SHOWN).build();
+    private static final AsyncDifferConfig<ForecastRow> DIFF_CONFIG =
+            new AsyncDifferConfig.Builder<>(ForecastRow.diffOn(SHOWN)).build();
+
+    // Nombres cortos de los días en el idioma del dispositivo, indexados como Calendar.DAY_OF_WEEK
+    private final String[] shortWeekdays = DateFormatSymbols.getInstance().getShortWeekdays();
+
+    private WeatherFormatter formatter = WeatherFormatter.metric(Locale.getDefault());
+
+    public DailyAdapter() {
+        super(DIFF_CONFIG);
+        setHasStableIds(true);
+    }
+
+    /** Cambia las unidades mostradas; las filas visibles se vuelven a enlazar. */
+    public void setFormatter(WeatherFormatter formatter) {
+        if (formatter != this.formatter) {
+            this.formatter = formatter;
+            notifyItemRangeChanged(0, getItemCount());
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getTime();
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_daily, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.bind(getItem(position), shortWeekdays, formatter);
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        private final TextView tvDay;
+        private final ImageView ivIcon;
+        private final TextView tvPrecipitation;
+        private final TextView tvMin;
+        private final TextView tvMax;
+        private final char[] dayText = new char[24];
+        private final char[] precipitationText = new char[WeatherFormatter.MAX_LENGTH];
+        private final char[] minText = new char[WeatherFormatter.MAX_LENGTH];
+        private final char[] maxText = new char[WeatherFormatter.MAX_LENGTH];
+        private WeatherIcon boundIcon;
+
+        ViewHolder(View itemView) {
+            super(itemView);
+            tvDay = itemView.findViewById(R.id.tvDay);
+            ivIcon = itemView.findViewById(R.id.ivDayIcon);
+            tvPrecipitation = itemView.findViewById(R.id.tvDayPrecipitation);
+            tvMin = itemView.findViewById(R.id.tvDayMin);
+            tvMax = itemView.findViewById(R.id.tvDayMax);
+        }
+
+        void bind(ForecastRow item, String[] shortWeekdays, WeatherFormatter formatter) {
+            ForecastSeries series = item.series;
+            int row = item.row;
+            tvDay.setText(dayText, 0,
+                    RowText.day(dayText, shortWeekdays, series.getTime(row), item.utcOffsetSeconds));
+            tvPrecipitation.setText(precipitationText, 0, formatter.percent(precipitationText, 0,
+                    series.getShort(ForecastSeries.Variable.PRECIPITATION_PROBABILITY_MAX, row)));
+            tvMin.setText(minText, 0, formatter.degrees(minText, 0,
+                    series.getFloat(ForecastSeries.Variable.TEMPERATURE_2M_MIN, row)));
+            tvMax.setText(maxText, 0, formatter.degrees(maxText, 0,
+                    series.getFloat(ForecastSeries.Variable.TEMPERATURE_2M_MAX, row)));
+
+            WeatherIcon icon = WeatherCode.of(series.getShort(ForecastSeries.Variable.WEATHER_CODE, row)).getIcon();
+            if (icon != boundIcon) {
+                ivIcon.setImageDrawable(WeatherIconCache.get(itemView.getContext(), icon, true));
+                boundIcon = icon;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.api_weather.outlook;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.api_weather.model.ForecastSeries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Elemento de las listas de horas y días: una referencia a una fila de un ForecastSeries,
+ * sin copiar sus valores. El adaptador lee las columnas al enlazar la vista.
+ */
+public final class ForecastRow {
+    final ForecastSeries series;
+    final int row;
+    final int utcOffsetSeconds;
+
+    private ForecastRow(ForecastSeries series, int row, int utcOffsetSeconds) {
+        this.series = series;
+        this.row = row;
+        this.utcOffsetSeconds = utcOffsetSeconds;
+    }
+
+    /** Instante de la fila en segundos epoch; identifica la fila de forma estable. */
+    public long getTime() {
+        return series.getTime(row);
+    }
+
+    /** Filas de la serie desde fromTime (segundos epoch, incluido) en adelante. */
+    public static List<ForecastRow> from(ForecastSeries series, int utcOffsetSeconds, long fromTime) {
+        int size = series.size();
+        int first = 0;
+        while (first < size && series.getTime(first) < fromTime) {
+            first++;
+        }
+        if (first == size) {
+            return Collections.emptyList();
+        }
+        List<ForecastRow> rows = new ArrayList<>(size - first);
+        for (int row = first; row < size; row++) {
+            rows.add(new ForecastRow(series, row, utcOffsetSeconds));
+        }
+        return rows;
+    }
+
+    /**
+     * Diferencias por instante (mismo elemento) y por los valores de las variables que
+     * muestra la vista (mismo contenido). Lo usa AsyncListDiffer en su hilo de fondo.
+     */
+    static DiffUtil.ItemCallback<ForecastRow> diffOn(ForecastSeries.Variable... shown) {
+        return new DiffUtil.ItemCallback<ForecastRow>() {
+            @Override
+            public boolean areItemsTheSame(@NonNull ForecastRow oldItem, @NonNull ForecastRow newItem) {
+                return oldItem.getTime() == newItem.getTime();
+            }
+
+            @Override
+            public boolean areContentsTheSame(@NonNull ForecastRow oldItem, @NonNull ForecastRow newItem) {
+                if (oldItem.utcOffsetSeconds != newItem.utcOffsetSeconds) {
+                    return false;
+                }
+                for (ForecastSeries.Variable variable : shown) {
+                    if (variable.isIntegral()) {
+                        if (oldItem.series.getShort(variable, oldItem.row)
+                                != newItem.series.getShort(variable, newItem.row)) {
+                            return false;
+                        }
+                    } else if (Float.floatToIntBits(oldItem.series.getFloat(variable, oldItem.row))
+                            != Float.floatToIntBits(newItem.series.getFloat(variable, newItem.row))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.api_weather.outlook;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.api_weather.R;
+import com.example.api_weather.WeatherIconCache;
+import com.example.api_weather.format.WeatherFormatter;
+import com.example.api_weather.model.ForecastSeries;
+import com.example.api_weather.model.Projection;
+import com.example.api_weather.model.WeatherCode;
+import com.example.api_weather.model.WeatherIcon;
+
+import java.util.Locale;
+
+/**
+ * Tira horizontal de las próximas horas (hasta 16 días × 24 filas). Las diferencias entre
+ * listas se calculan en segundo plano (AsyncDifferConfig) y el enlace de cada fila escribe
+ * en buffers del ViewHolder, sin String.format ni Strings nuevos.
+ */
+public class HourlyAdapter extends ListAdapter<ForecastRow, HourlyAdapter.ViewHolder> {
+    // Variables que muestra cada fila: se piden (PROJECTION) y se comparan al calcular el diff
+    private static final ForecastSeries.Variable[] SHOWN = {
+            ForecastSeries.Variable.TEMPERATURE_2M,
+            ForecastSeries.Variable.WEATHER_CODE,
+            ForecastSeries.Variable.PRECIPITATION_PROBABILITY,
+            ForecastSeries.Variable.IS_DAY
+    };
+    /** Lo que esta lista necesita del pronóstico; se registra en WeatherViewModel.requireVariables. */
+    public static final Projection PROJECTION = Projection.builder().hourly(SHOWN).build();
+    private static final AsyncDifferConfig<ForecastRow> DIFF_CONFIG =
+            new AsyncDifferConfig.Builder<>(ForecastRow.diffOn(SHOWN)).build();
+
+    private WeatherFormatter formatter = WeatherFormatter.metric(Locale.getDefault());
+
+    public HourlyAdapter() {
+        super(DIFF_CONFIG);
+        setHasStableIds(true);
+    }
+
+    /** Cambia las unidades mostradas; las filas visibles se vuelven a enlazar. */
+    public void setFormatter(WeatherFormatter formatter) {
+        if (formatter != this.formatter) {
+            this.formatter = formatter;
+            notifyItemRangeChanged(0, getItemCount());
+        }
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getTime();
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_hourly, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.bind(getItem(position), formatter);
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        private final TextView tvHour;
+        private final ImageView ivIcon;
+        private final TextView tvTemperature;
+        private final TextView tvPrecipitation;
+        // Un buffer por TextView: el texto enlazado sigue apuntando a él
+        private final char[] hourText = new char[5];
+        private final char[] temperatureText = new char[WeatherFormatter.MAX_LENGTH];
+        private final char[] precipitationText = new char[WeatherFormatter.MAX_LENGTH];
+        private int iconSlot = -1;
+
+        ViewHolder(View itemView) {
+            super(itemView);
+            tvHour = itemView.findViewById(R.id.tvHour);
+            ivIcon = itemView.findViewById(R.id.ivHourIcon);
+            tvTemperature = itemView.findViewById(R.id.tvHourTemperature);
+            tvPrecipitation = itemView.findViewById(R.id.tvHourPrecipitation);
+        }
+
+        void bind(ForecastRow item, WeatherFormatter formatter) {
+            ForecastSeries series = item.series;
+            int row = item.row;
+            tvHour.setText(hourText, 0, RowText.hour(hourText, series.getTime(row), item.utcOffsetSeconds));
+            tvTemperature.setText(temperatureText, 0, formatter.degrees(temperatureText, 0,
+                    series.getFloat(ForecastSeries.Variable.TEMPERATURE_2M, row)));
+            tvPrecipitation.setText(precipitationText, 0, formatter.percent(precipitationText, 0,
+                    series.getShort(ForecastSeries.Variable.PRECIPITATION_PROBABILITY, row)));
+
+            WeatherIcon icon = WeatherCode.of(series.getShort(ForecastSeries.Variable.WEATHER_CODE, row)).getIcon();
+            boolean isDay = series.getShort(ForecastSeries.Variable.IS_DAY, row) != 0;
+            int slot = icon.ordinal() * 2 + (isDay ? 0 : 1);
+            if (slot != iconSlot) {
+                // Solo se pide un Drawable cuando cambia el icono de este ViewHolder
+                ivIcon.setImageDrawable(WeatherIconCache.get(itemView.getContext(), icon, isDay));
+                iconSlot = slot;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.api_weather.outlook;
+
+import com.example.api_weather.format.WeatherFormatter;
+
+/**
+ * Horas y fechas de las filas escritas en un char[] del ViewHolder, como hace
+ * WeatherFormatter con los valores. Cada método devuelve la longitud escrita.
+ */
+final class RowText {
+    private static final int SECONDS_PER_DAY = 86400;
+
+    private RowText() {
+    }
+
+    /** "HH:00" en hora local. */
+    static int hour(char[] out, long epochSeconds, int utcOffsetSeconds) {
+        int hour = (int) Math.floorMod(Math.floorDiv(epochSeconds + utcOffsetSeconds, 3600L), 24L);
+        out[0] = (char) ('0' + hour / 10);
+        out[1] = (char) ('0' + hour % 10);
+        out[2] = ':';
+        out[3] = '0';
+        out[4] = '0';
+        return 5;
+    }
+
+    /** Día de la semana abreviado y día del mes en hora local, p. ej. "lun. 14". */
+    static int day(char[] out, String[] shortWeekdays, long epochSeconds, int utcOffsetSeconds) {
+        long localDay = Math.floorDiv(epochSeconds + utcOffsetSeconds, SECONDS_PER_DAY);
+        // El día 0 de epoch fue jueves; Calendar numera de SUNDAY = 1 a SATURDAY = 7
+        String weekday = shortWeekdays[(int) Math.floorMod(localDay + 4, 7L) + 1];
+        int length = Math.min(weekday.length(), out.length - 4);
+        weekday.getChars(0, length, out, 0);
+        out[length++] = ' ';
+        return WeatherFormatter.appendInt(out, length, dayOfMonth(localDay));
+    }
+
+    /** Día del mes de un día contado desde 1970-01-01 (algoritmo civil_from_days). */
+    static int dayOfMonth(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        return (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+    }
+}
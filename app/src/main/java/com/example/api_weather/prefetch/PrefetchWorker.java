@@ -0,0 +1,125 @@
+package com.example.api_weather.prefetch;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.os.BatteryManager;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.api_weather.api.ForecastParams;
+import com.example.api_weather.api.ProjectionRegistry;
+import com.example.api_weather.api.RetrofitClient;
+import com.example.api_weather.cache.ForecastCache;
+import com.example.api_weather.cache.ForecastStore;
+import com.example.api_weather.core.WeatherResponseMapper;
+import com.example.api_weather.model.UnitProfile;
+import com.example.api_weather.settings.UnitPreferences;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker de WorkManager que ejecuta PrefetchScheduler y se vuelve a encolar para la fecha
+ * que este indique (intervalo normal o retroceso tras un fallo). WorkManager solo lo lanza
+ * con red no medida y batería no baja; el planificador lo vuelve a comprobar al ejecutar.
+ */
+public class PrefetchWorker extends Worker {
+    private static final String WORK_NAME = "forecast_prefetch";
+    private static final String STATE_PREFS = "prefetch_state";
+    private static final String KEY_NEXT_RUN_AT = "next_run_at";
+    private static final String KEY_FAILURES = "consecutive_failures";
+    private static final int LOW_BATTERY_PERCENT = 20;
+
+    public PrefetchWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Arranca la cadena de precarga si no existe ya. La llama WeatherApplication una vez por
+     * proceso; repetirla no hace daño, pero no hace falta.
+     */
+    public static void schedule(Context context) {
+        enqueue(context, 0, ExistingWorkPolicy.KEEP);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        SharedPreferences state = context.getSharedPreferences(STATE_PREFS, Context.MODE_PRIVATE);
+        ForecastCache forecastCache = ForecastCache.getInstance();
+        ForecastStore forecastStore = ForecastStore.getInstance(context.getFilesDir());
+        // Las mismas unidades que la pantalla, para que las claves coincidan
+        UnitProfile units = UnitPreferences.getInstance(context).get();
+        PrefetchScheduler scheduler = new PrefetchScheduler(
+                RetrofitClient.getInstance(context).getWeatherApi(),
+                units,
+                RecentLocations.getInstance(context)::getAll,
+                (location, forecast) -> {
+                    String key = ForecastCache.key(location.getLatitude(), location.getLongitude(),
+                            ProjectionRegistry.Slot.CONDITIONS.name(), ForecastParams.TIMEZONE,
+                            units.getKey());
+                    forecastCache.put(key, WeatherResponseMapper.toWeatherResponse(
+                            forecast, location.getName(), location.getCountryCode(), units),
+                            ForecastParams.CONDITIONS);
+                    forecastStore.merge(key, forecast, null);
+                },
+                new AndroidDeviceConditions(context),
+                System::currentTimeMillis);
+        scheduler.restore(state.getLong(KEY_NEXT_RUN_AT, 0), state.getInt(KEY_FAILURES, 0));
+        scheduler.runIfDue();
+        state.edit()
+                .putLong(KEY_NEXT_RUN_AT, scheduler.getNextRunAt())
+                .putInt(KEY_FAILURES, scheduler.getConsecutiveFailures())
+                .apply();
+        // APPEND_OR_REPLACE: la siguiente ejecución espera a que termine esta sin cancelarla
+        enqueue(context, scheduler.delayUntilNextRun(), ExistingWorkPolicy.APPEND_OR_REPLACE);
+        return Result.success();
+    }
+
+    private static void enqueue(Context context, long delayMs, ExistingWorkPolicy policy) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(PrefetchWorker.class)
+                .setInitialDelay(delayMs, TimeUnit.MILLISECONDS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, policy, request);
+    }
+
+    private static class AndroidDeviceConditions implements DeviceConditions {
+        private final ConnectivityManager connectivityManager;
+        private final BatteryManager batteryManager;
+
+        AndroidDeviceConditions(Context context) {
+            connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+            batteryManager = (BatteryManager) context.getSystemService(Context.BATTERY_SERVICE);
+        }
+
+        @Override
+        public boolean isUnmetered() {
+            return connectivityManager != null && connectivityManager.getActiveNetwork() != null
+                    && !connectivityManager.isActiveNetworkMetered();
+        }
+
+        @Override
+        public boolean isBatteryLow() {
+            return batteryManager != null
+                    && batteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CAPACITY) <= LOW_BATTERY_PERCENT;
+        }
+
+        @Override
+        public boolean isCharging() {
+            return batteryManager != null && batteryManager.isCharging();
+        }
+    }
+}
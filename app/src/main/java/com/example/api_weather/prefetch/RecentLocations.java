@@ -0,0 +1,81 @@
+package com.example.api_weather.prefetch;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.example.api_weather.model.GeocodingResponse;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Últimas ubicaciones consultadas, la más reciente primero. Son las que la precarga en
+ * segundo plano mantiene actualizadas.
+ */
+public class RecentLocations {
+    private static final String PREFS_NAME = "recent_locations";
+    private static final String KEY_LOCATIONS = "locations";
+    static final int MAX_LOCATIONS = 8;
+    // Dos ubicaciones a menos de ~1 km son la misma a efectos del pronóstico
+    private static final double SAME_PLACE_DEGREES = 0.01;
+
+    private static RecentLocations instance;
+
+    private final SharedPreferences preferences;
+    private final Gson gson = new Gson();
+    private List<GeocodingResponse.Location> locations;
+
+    RecentLocations(SharedPreferences preferences) {
+        this.preferences = preferences;
+    }
+
+    public static synchronized RecentLocations getInstance(Context context) {
+        if (instance == null) {
+            instance = new RecentLocations(context.getApplicationContext()
+                    .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE));
+        }
+        return instance;
+    }
+
+    public synchronized List<GeocodingResponse.Location> getAll() {
+        return new ArrayList<>(locations());
+    }
+
+    public synchronized void add(GeocodingResponse.Location location) {
+        List<GeocodingResponse.Location> current = locations();
+        for (int i = current.size() - 1; i >= 0; i--) {
+            GeocodingResponse.Location existing = current.get(i);
+            if (Math.abs(existing.getLatitude() - location.getLatitude()) < SAME_PLACE_DEGREES
+                    && Math.abs(existing.getLongitude() - location.getLongitude()) < SAME_PLACE_DEGREES) {
+                current.remove(i);
+            }
+        }
+        current.add(0, location);
+        while (current.size() > MAX_LOCATIONS) {
+            current.remove(current.size() - 1);
+        }
+        preferences.edit().putString(KEY_LOCATIONS, gson.toJson(current)).apply();
+    }
+
+    private List<GeocodingResponse.Location> locations() {
+        if (locations == null) {
+            locations = new ArrayList<>();
+            String json = preferences.getString(KEY_LOCATIONS, null);
+            if (json != null) {
+                try {
+                    List<GeocodingResponse.Location> saved = gson.fromJson(json,
+                            new TypeToken<List<GeocodingResponse.Location>>() {}.getType());
+                    if (saved != null) {
+                        locations.addAll(saved);
+                    }
+                } catch (JsonParseException e) {
+                    // Preferencia corrupta: se empieza de cero
+                }
+            }
+        }
+        return locations;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.api_weather.search;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Nomenclátor empaquetado en assets/gazetteer.bin, mapeado en memoria. El archivo se genera
+ * con ./gradlew :gazetteer-tool:run y es opcional: sin él la búsqueda usa solo la red.
+ */
+public final class GazetteerAsset {
+    public static final String ASSET_NAME = "gazetteer.bin";
+
+    private static Gazetteer instance;
+    private static boolean loaded;
+
+    private GazetteerAsset() {
+    }
+
+    /**
+     * Nomenclátor incluido en la app, o null si el build no lo empaqueta.
+     * El asset debe ir sin comprimir para poder mapearlo (noCompress en build.gradle.kts).
+     */
+    public static synchronized Gazetteer getInstance(Context context) {
+        if (!loaded) {
+            loaded = true;
+            try (AssetFileDescriptor descriptor = context.getAssets().openFd(ASSET_NAME);
+                 FileInputStream stream = descriptor.createInputStream()) {
+                ByteBuffer mapped = stream.getChannel().map(FileChannel.MapMode.READ_ONLY,
+                        descriptor.getStartOffset(), descriptor.getLength());
+                instance = new Gazetteer(mapped);
+            } catch (IOException | IllegalArgumentException e) {
+                instance = null;
+            }
+        }
+        return instance;
+    }
+}
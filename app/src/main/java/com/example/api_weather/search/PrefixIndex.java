@@ -0,0 +1,120 @@
+package com.example.api_weather.search;
+
+import com.example.api_weather.cache.GeocodingCache;
+import com.example.api_weather.model.GeocodingResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Índice local de candidatos de geocodificación ordenado por nombre normalizado. Permite
+ * responder en memoria cuando el usuario estrecha una búsqueda ya hecha ("mad" → "madr"):
+ * los candidatos de "madr" son los de "mad" cuyo nombre empieza por "madr". Solo vale si
+ * la respuesta de "mad" estaba completa: el servicio devuelve como mucho las filas pedidas,
+ * y una respuesta llena puede haber dejado fuera ciudades de "madr".
+ */
+public class PrefixIndex {
+    private static final int MAX_ENTRIES = 2000;
+
+    // Ordenadas por nombre normalizado; búsqueda por prefijo con búsqueda binaria
+    private final List<IndexEntry> entries = new ArrayList<>();
+    private final Set<Long> ids = new HashSet<>();
+    private final Set<String> fetchedPrefixes = new HashSet<>();
+
+    /**
+     * Registra los candidatos devueltos por el servicio para la consulta.
+     *
+     * @param requested filas que se pidieron: si llegan todas la lista puede estar truncada y
+     *                  la consulta no sirve para responder a las que la estrechan
+     */
+    public synchronized void addResults(String query, List<GeocodingResponse.Location> results, int requested) {
+        if (results.size() < requested) {
+            fetchedPrefixes.add(GeocodingCache.normalize(query));
+        }
+        for (GeocodingResponse.Location location : results) {
+            if (location.getName() == null || !ids.add(location.getId())) {
+                continue;
+            }
+            IndexEntry entry = new IndexEntry(GeocodingCache.normalize(location.getName()), location);
+            int position = Collections.binarySearch(entries, entry);
+            entries.add(position < 0 ? -position - 1 : position, entry);
+        }
+        if (entries.size() > MAX_ENTRIES) {
+            clear();
+        }
+    }
+
+    /**
+     * Candidatos en memoria para la consulta, o null si ningún prefijo de ella tiene una
+     * respuesta completa del servicio y por tanto hace falta una petición de red.
+     */
+    public synchronized List<GeocodingResponse.Location> lookup(String query, int limit) {
+        String normalized = GeocodingCache.normalize(query);
+        if (!isCovered(normalized)) {
+            return null;
+        }
+        List<GeocodingResponse.Location> matches = new ArrayList<>();
+        int position = lowerBound(normalized);
+        for (int i = position; i < entries.size() && matches.size() < limit; i++) {
+            IndexEntry entry = entries.get(i);
+            if (!entry.name.startsWith(normalized)) {
+                break;
+            }
+            matches.add(entry.location);
+        }
+        // Sin coincidencias locales se deja decidir a la red (búsqueda difusa del servicio)
+        if (matches.isEmpty()) {
+            return null;
+        }
+        // Las ciudades más pobladas primero, como las ordena el servicio
+        Collections.sort(matches, (a, b) -> Long.compare(b.getPopulation(), a.getPopulation()));
+        return matches;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        ids.clear();
+        fetchedPrefixes.clear();
+    }
+
+    private boolean isCovered(String normalized) {
+        for (int length = normalized.length(); length > 0; length--) {
+            if (fetchedPrefixes.contains(normalized.substring(0, length))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int lowerBound(String name) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries.get(mid).name.compareTo(name) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static class IndexEntry implements Comparable<IndexEntry> {
+        final String name;
+        final GeocodingResponse.Location location;
+
+        IndexEntry(String name, GeocodingResponse.Location location) {
+            this.name = name;
+            this.location = location;
+        }
+
+        @Override
+        public int compareTo(IndexEntry other) {
+            return name.compareTo(other.name);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.api_weather.search;
+
+import com.example.api_weather.cache.GeocodingCache;
+import com.example.api_weather.model.GeocodingResponse;
+import com.example.api_weather.model.WeatherResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Estado de una búsqueda cuyo pronóstico se pidió antes de validar las coordenadas, y la
+ * decisión de aceptarlo o descartarlo cuando responde la geocodificación. No depende de
+ * Android salvo al registrar las métricas.
+ */
+public class Speculation {
+    /** Distancia máxima para aceptar un pronóstico adelantado; del orden de la rejilla del modelo. */
+    public static final double TOLERANCE_KM = 10;
+
+    private final String query;
+    private final GeocodingResponse.Location guess;
+    private final LongSupplier nanoClock;
+    private final long startedAt;
+    private long geocodedAt;
+    private long forecastAt;
+    private SpeculationMetrics.Outcome outcome;
+    private GeocodingResponse.Location validated;
+    private WeatherResponse pendingResponse;
+    private String pendingError;
+
+    public Speculation(String query, GeocodingResponse.Location guess) {
+        this(query, guess, System::nanoTime);
+    }
+
+    Speculation(String query, GeocodingResponse.Location guess, LongSupplier nanoClock) {
+        this.query = query;
+        this.guess = guess;
+        this.nanoClock = nanoClock;
+        this.startedAt = nanoClock.getAsLong();
+    }
+
+    /**
+     * Coordenadas probables para la búsqueda, de la fuente más fiable a la menos: una ubicación
+     * consultada hace poco con el mismo nombre, una geocodificación caducada y el nomenclátor.
+     *
+     * @param stale     LocationCache.getStale para la búsqueda, o null
+     * @param gazetteer nomenclátor empaquetado, o null si el build no lo incluye
+     */
+    public static GeocodingResponse.Location guess(String query, List<GeocodingResponse.Location> recent,
+                                                   GeocodingResponse.Location stale, Gazetteer gazetteer) {
+        String normalized = GeocodingCache.normalize(query);
+        for (GeocodingResponse.Location location : recent) {
+            if (location.getName() != null && normalized.equals(GeocodingCache.normalize(location.getName()))) {
+                return location;
+            }
+        }
+        if (stale != null) {
+            return stale;
+        }
+        return gazetteer != null ? gazetteer.find(query) : null;
+    }
+
+    public GeocodingResponse.Location getGuess() {
+        return guess;
+    }
+
+    /**
+     * Decide con la respuesta de la geocodificación: ACCEPTED si confirma la ubicación,
+     * REJECTED si es otra y UNVALIDATED si no hubo respuesta (sin red, plazo agotado o sin
+     * resultados), en cuyo caso el pronóstico adelantado es lo mejor que hay.
+     */
+    public SpeculationMetrics.Outcome validate(GeocodingResponse.Location location) {
+        geocodedAt = nanoClock.getAsLong();
+        validated = location;
+        if (location == null) {
+            outcome = SpeculationMetrics.Outcome.UNVALIDATED;
+        } else if (agreesWith(location)) {
+            outcome = SpeculationMetrics.Outcome.ACCEPTED;
+        } else {
+            outcome = SpeculationMetrics.Outcome.REJECTED;
+        }
+        return outcome;
+    }
+
+    /** Mismo id de GeoNames o a menos de TOLERANCE_KM de las coordenadas adelantadas. */
+    boolean agreesWith(GeocodingResponse.Location location) {
+        if (guess.getId() != 0 && guess.getId() == location.getId()) {
+            return true;
+        }
+        return distanceKm(guess.getLatitude(), guess.getLongitude(),
+                location.getLatitude(), location.getLongitude()) <= TOLERANCE_KM;
+    }
+
+    /** Decisión tomada en validate, o null si la geocodificación aún no ha respondido. */
+    public SpeculationMetrics.Outcome getOutcome() {
+        return outcome;
+    }
+
+    public GeocodingResponse.Location getValidated() {
+        return validated;
+    }
+
+    /** Anota la llegada del pronóstico (o de su error); solo cuenta la primera. */
+    public void forecastArrived() {
+        if (forecastAt == 0) {
+            forecastAt = nanoClock.getAsLong();
+        }
+    }
+
+    public boolean hasForecast() {
+        return forecastAt != 0;
+    }
+
+    /** Retiene el pronóstico hasta que validate decida. */
+    public void hold(WeatherResponse response) {
+        pendingResponse = response;
+        pendingError = null;
+    }
+
+    public void holdError(String message) {
+        pendingError = message;
+    }
+
+    public WeatherResponse getPendingResponse() {
+        return pendingResponse;
+    }
+
+    public String getPendingError() {
+        return pendingError;
+    }
+
+    long geocodingMs() {
+        return elapsedMs(geocodedAt);
+    }
+
+    long forecastMs() {
+        return elapsedMs(forecastAt);
+    }
+
+    /** Registra el resultado en SpeculationMetrics; las latencias aún sin medir cuentan hasta ahora. */
+    public void record() {
+        SpeculationMetrics.getInstance().record(query, outcome, geocodingMs(), forecastMs());
+    }
+
+    private long elapsedMs(long at) {
+        return TimeUnit.NANOSECONDS.toMillis((at != 0 ? at : nanoClock.getAsLong()) - startedAt);
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 6371.0 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.api_weather.search;
+
+import android.util.Log;
+
+import java.util.Locale;
+
+/**
+ * Métricas de las búsquedas especulativas: cuando ya se conocen unas coordenadas probables
+ * para la ciudad, el pronóstico se pide en paralelo con la geocodificación en lugar de
+ * después. El tiempo ahorrado de una búsqueda aceptada es lo que la cadena secuencial
+ * (geocodificación + pronóstico) habría tardado de más: min(geocodificación, pronóstico).
+ */
+public class SpeculationMetrics {
+    private static final String TAG = "SpeculativeSearch";
+
+    public enum Outcome {
+        /** La geocodificación confirmó las coordenadas: se usó el pronóstico adelantado. */
+        ACCEPTED,
+        /** Las coordenadas no coincidían: se descartó y se pidió el pronóstico correcto. */
+        REJECTED,
+        /** La geocodificación no respondió (sin red o sin resultados): se usó el adelantado. */
+        UNVALIDATED
+    }
+
+    private static SpeculationMetrics instance;
+
+    private int accepted;
+    private int rejected;
+    private int unvalidated;
+    private long totalSavedMs;
+
+    public static synchronized SpeculationMetrics getInstance() {
+        if (instance == null) {
+            instance = new SpeculationMetrics();
+        }
+        return instance;
+    }
+
+    /**
+     * Registra una búsqueda especulativa terminada. Las latencias se miden desde el inicio
+     * de la búsqueda; en una rechazada el ahorro es 0 y el pronóstico adelantado se desperdicia.
+     */
+    public void record(String query, Outcome outcome, long geocodingMs, long forecastMs) {
+        long savedMs = outcome == Outcome.ACCEPTED ? Math.min(geocodingMs, forecastMs) : 0;
+        String summary;
+        synchronized (this) {
+            switch (outcome) {
+                case ACCEPTED:
+                    accepted++;
+                    break;
+                case REJECTED:
+                    rejected++;
+                    break;
+                default:
+                    unvalidated++;
+                    break;
+            }
+            totalSavedMs += savedMs;
+            summary = String.format(Locale.ROOT,
+                    "'%s' %s: geocoding=%dms forecast=%dms saved=%dms (total %dms, %d/%d accepted)",
+                    query, outcome, geocodingMs, forecastMs, savedMs, totalSavedMs,
+                    accepted, accepted + rejected + unvalidated);
+        }
+        Log.d(TAG, summary);
+    }
+
+    public synchronized int getAccepted() {
+        return accepted;
+    }
+
+    public synchronized int getRejected() {
+        return rejected;
+    }
+
+    public synchronized int getUnvalidated() {
+        return unvalidated;
+    }
+
+    /** Tiempo total ahorrado por las búsquedas aceptadas. */
+    public synchronized long getTotalSavedMs() {
+        return totalSavedMs;
+    }
+
+    /** Tiempo medio ahorrado por búsqueda especulativa, contando las rechazadas. */
+    public synchronized long getAverageSavedMs() {
+        int total = accepted + rejected + unvalidated;
+        return total == 0 ? 0 : totalSavedMs / total;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.api_weather.search;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ArrayAdapter;
+import android.widget.Filter;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+
+import com.example.api_weather.model.GeocodingResponse;
+
+import java.util.List;
+
+/**
+ * Adaptador del desplegable de autocompletado. El filtrado ya lo hacen el servicio y el
+ * PrefixIndex, así que el filtro del adaptador deja pasar todo (el de ArrayAdapter
+ * descartaría "Málaga" al escribir "malaga").
+ */
+public class SuggestionAdapter extends ArrayAdapter<GeocodingResponse.Location> {
+
+    private final Filter passThroughFilter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            return null;
+        }
+
+        @Override
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            notifyDataSetChanged();
+        }
+
+        @Override
+        public CharSequence convertResultToString(Object resultValue) {
+            return ((GeocodingResponse.Location) resultValue).getName();
+        }
+    };
+
+    public SuggestionAdapter(@NonNull Context context) {
+        super(context, android.R.layout.simple_dropdown_item_1line);
+    }
+
+    public void setLocations(List<GeocodingResponse.Location> locations) {
+        setNotifyOnChange(false);
+        clear();
+        addAll(locations);
+        notifyDataSetChanged();
+    }
+
+    @NonNull
+    @Override
+    public View getView(int position, View convertView, @NonNull ViewGroup parent) {
+        TextView view = (TextView) super.getView(position, convertView, parent);
+        view.setText(label(getItem(position)));
+        return view;
+    }
+
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        return passThroughFilter;
+    }
+
+    private static String label(GeocodingResponse.Location location) {
+        StringBuilder label = new StringBuilder(location.getName());
+        if (location.getAdmin1() != null && !location.getAdmin1().equals(location.getName())) {
+            label.append(", ").append(location.getAdmin1());
+        }
+        if (location.getCountryCode() != null) {
+            label.append(" (").append(location.getCountryCode()).append(')');
+        }
+        return label.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.api_weather.settings;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.example.api_weather.model.UnitProfile;
+
+import java.util.Locale;
+
+/**
+ * Perfil de unidades elegido por el usuario. Sin elección guardada se usa el del Locale
+ * del dispositivo; el idioma siempre es el del dispositivo.
+ */
+public class UnitPreferences {
+    private static final String PREFS_NAME = "unit_profile";
+    private static final String KEY_TEMPERATURE = "temperature";
+    private static final String KEY_WIND_SPEED = "wind_speed";
+    private static final String KEY_PRECIPITATION = "precipitation";
+
+    private static UnitPreferences instance;
+
+    private final SharedPreferences preferences;
+    private UnitProfile profile;
+
+    UnitPreferences(SharedPreferences preferences) {
+        this.preferences = preferences;
+    }
+
+    public static synchronized UnitPreferences getInstance(Context context) {
+        if (instance == null) {
+            instance = new UnitPreferences(context.getApplicationContext()
+                    .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE));
+        }
+        return instance;
+    }
+
+    public synchronized UnitProfile get() {
+        if (profile == null) {
+            Locale locale = Locale.getDefault();
+            UnitProfile fallback = UnitProfile.defaultFor(locale);
+            try {
+                profile = new UnitProfile(
+                        UnitProfile.Temperature.valueOf(preferences.getString(KEY_TEMPERATURE,
+                                fallback.getTemperature().name())),
+                        UnitProfile.WindSpeed.valueOf(preferences.getString(KEY_WIND_SPEED,
+                                fallback.getWindSpeed().name())),
+                        UnitProfile.Precipitation.valueOf(preferences.getString(KEY_PRECIPITATION,
+                                fallback.getPrecipitation().name())),
+                        locale.getLanguage());
+            } catch (IllegalArgumentException e) {
+                // Valor de una versión anterior que ya no existe
+                profile = fallback;
+            }
+        }
+        return profile;
+    }
+
+    public synchronized void set(UnitProfile profile) {
+        this.profile = profile;
+        preferences.edit()
+                .putString(KEY_TEMPERATURE, profile.getTemperature().name())
+                .putString(KEY_WIND_SPEED, profile.getWindSpeed().name())
+                .putString(KEY_PRECIPITATION, profile.getPrecipitation().name())
+                .apply();
+    }
+}
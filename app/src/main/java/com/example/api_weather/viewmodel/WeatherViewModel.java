@@ -1,39 +1,169 @@
 package com.example.api_weather.viewmodel;
 
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
 
-import com.example.api_weather.api.GeocodingClient;
-import com.example.api_weather.api.GeocodingApi;
-import com.example.api_weather.api.RetrofitClient;
-import com.example.api_weather.api.WeatherApi;
+import com.example.api_weather.api.ForecastParams;
+import com.example.api_weather.api.ProjectionRegistry;
+import com.example.api_weather.api.WeatherEngineProvider;
+import com.example.api_weather.cache.ForecastStore;
+import com.example.api_weather.cache.GeocodingCache;
+import com.example.api_weather.core.ApiException;
+import com.example.api_weather.core.WeatherEngine;
 import com.example.api_weather.model.GeocodingResponse;
-import com.example.api_weather.model.OpenMeteoResponse;
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.Projection;
+import com.example.api_weather.model.UnitProfile;
 import com.example.api_weather.model.WeatherResponse;
+import com.example.api_weather.prefetch.RecentLocations;
+import com.example.api_weather.search.Gazetteer;
+import com.example.api_weather.search.GazetteerAsset;
+import com.example.api_weather.search.PrefixIndex;
+import com.example.api_weather.search.Speculation;
+import com.example.api_weather.search.SpeculationMetrics;
+import com.example.api_weather.settings.UnitPreferences;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+/**
+ * Adaptador de WeatherEngine para la interfaz: LiveData, qué búsqueda es la actual, la
+ * búsqueda especulativa, el autocompletado y los mensajes de error. Las peticiones, cachés
+ * y conversiones son del motor; sus resultados vuelven al hilo principal.
+ */
+public class WeatherViewModel extends AndroidViewModel {
+    private static final int SUGGESTION_COUNT = 10;
+    private static final int SUGGESTION_MIN_LENGTH = 2;
+    private static final long SUGGESTION_DEBOUNCE_MS = 300;
 
-public class WeatherViewModel extends ViewModel {
     private MutableLiveData<WeatherResponse> weatherData = new MutableLiveData<>();
+    private MutableLiveData<Forecast> outlook = new MutableLiveData<>();
+    private MutableLiveData<UnitProfile> unitProfile = new MutableLiveData<>();
     private MutableLiveData<String> errorMessage = new MutableLiveData<>();
     private MutableLiveData<Boolean> isLoading = new MutableLiveData<>();
-    private WeatherApi weatherApi;
-    private GeocodingApi geocodingApi;
+    private MutableLiveData<List<GeocodingResponse.Location>> suggestions = new MutableLiveData<>();
+    private WeatherEngine engine;
+    // Nomenclátor empaquetado; null si el build no lo incluye
+    private Gazetteer gazetteer;
+    private ForecastStore forecastStore;
+    private RecentLocations recentLocations;
+    private UnitPreferences unitPreferences;
+    // Unidades e idioma de las peticiones; forman parte de las claves de caché
+    private UnitProfile units;
+    // Última ubicación pedida, para repetirla si cambian las unidades
+    private GeocodingResponse.Location shownLocation;
+    private String currentForecastKey;
+    private String currentQueryKey;
+    private String currentOutlookKey;
+    private CompletableFuture<GeocodingResponse.Location> geocodingRequest;
+    private CompletableFuture<WeatherResponse> forecastRequest;
+    private String forecastFlightKey;
+    // La petición actual ya mostró datos (caché obsoleta o almacén): sus errores no se muestran
+    private boolean forecastPreviewed;
+    private CompletableFuture<Forecast> outlookRequest;
+    // Variables que piden los consumidores de cada petición; se pide su unión
+    private final ProjectionRegistry projections = new ProjectionRegistry();
+    private final Map<String, MutableLiveData<WeatherResponse>> locationData = new HashMap<>();
+    private final Map<String, MutableLiveData<String>> locationErrors = new HashMap<>();
+    private final PrefixIndex suggestionIndex = new PrefixIndex();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Los futures del motor se completan en sus hilos; la publicación vuelve a este
+    private final Executor mainThread = mainHandler::post;
+    private Runnable pendingSuggestionSearch;
+    private Speculation speculation;
+    private CompletableFuture<List<GeocodingResponse.Location>> suggestionRequest;
 
-    public WeatherViewModel() {
-        weatherApi = RetrofitClient.getInstance().getWeatherApi();
-        geocodingApi = GeocodingClient.getInstance().getGeocodingApi();
+    public WeatherViewModel(@NonNull Application application) {
+        super(application);
+        engine = WeatherEngineProvider.getInstance(application).getEngine();
+        gazetteer = GazetteerAsset.getInstance(application);
+        forecastStore = ForecastStore.getInstance(application.getFilesDir());
+        recentLocations = RecentLocations.getInstance(application);
+        unitPreferences = UnitPreferences.getInstance(application);
+        units = unitPreferences.get();
+        unitProfile.setValue(units);
+        // getWeatherData y getWeatherForLocation publican WeatherResponse completos
+        projections.register(ProjectionRegistry.Slot.CONDITIONS, WeatherResponse.class.getSimpleName(),
+                ForecastParams.CONDITIONS);
+        // Al arrancar, pintar la última ubicación desde el almacén local y actualizarla
+        forecastStore.loadLastLocation(last -> mainHandler.post(() -> {
+            if (last != null && currentForecastKey == null && currentQueryKey == null) {
+                isLoading.setValue(true);
+                fetchWeatherByCoordinates(last.getLatitude(), last.getLongitude(),
+                        last.getName(), last.getCountryCode());
+            }
+        }));
     }
 
     public LiveData<WeatherResponse> getWeatherData() {
         return weatherData;
     }
 
+    /** Serie horaria y diaria (OUTLOOK_DAYS días) de la ubicación mostrada. */
+    public LiveData<Forecast> getOutlook() {
+        return outlook;
+    }
+
+    /**
+     * Declara las variables que necesita un consumidor de getWeatherData (Slot.CONDITIONS) o
+     * de getOutlook (Slot.OUTLOOK); volver a registrarlo reemplaza su proyección. Si amplía
+     * lo que ya se pedía, la ubicación mostrada se vuelve a pedir con la unión.
+     */
+    public void requireVariables(ProjectionRegistry.Slot slot, String consumer, Projection projection) {
+        GeocodingResponse.Location location = shownLocation;
+        if (!projections.register(slot, consumer, projection) || location == null) {
+            return;
+        }
+        if (slot == ProjectionRegistry.Slot.OUTLOOK) {
+            requestOutlook(location.getLatitude(), location.getLongitude(), units);
+        } else {
+            fetchWeatherByCoordinates(location.getLatitude(), location.getLongitude(),
+                    location.getName(), location.getCountryCode());
+        }
+    }
+
+    /** El consumidor ya no muestra datos; las próximas peticiones dejan de incluir lo suyo. */
+    public void releaseVariables(ProjectionRegistry.Slot slot, String consumer) {
+        projections.unregister(slot, consumer);
+    }
+
+    public LiveData<UnitProfile> getUnitProfile() {
+        return unitProfile;
+    }
+
+    /**
+     * Cambia las unidades. Como Open-Meteo hace la conversión, la ubicación mostrada se vuelve
+     * a pedir (o se lee de la caché de esas unidades si ya estaba).
+     */
+    public void setUnitProfile(UnitProfile profile) {
+        if (profile.equals(units)) {
+            return;
+        }
+        unitPreferences.set(profile);
+        units = profile;
+        unitProfile.setValue(profile);
+        // Las listas en las unidades anteriores no deben mezclarse con la tarjeta nueva
+        outlook.setValue(null);
+        GeocodingResponse.Location location = shownLocation;
+        if (location != null) {
+            cancelPendingRequests();
+            isLoading.setValue(true);
+            fetchWeatherByCoordinates(location.getLatitude(), location.getLongitude(),
+                    location.getName(), location.getCountryCode());
+        }
+    }
+
     public LiveData<String> getErrorMessage() {
         return errorMessage;
     }
@@ -42,322 +172,410 @@ public class WeatherViewModel extends ViewModel {
         return isLoading;
     }
 
-    public void fetchWeatherByCity(String cityName) {
-        isLoading.setValue(true);
-        // Primero buscar las coordenadas de la ciudad
-        geocodingApi.searchLocation(cityName, 1, "es", "json")
-                .enqueue(new Callback<GeocodingResponse>() {
-                    @Override
-                    public void onResponse(Call<GeocodingResponse> call, Response<GeocodingResponse> response) {
-                        if (response.isSuccessful() && response.body() != null && 
-                            response.body().getResults() != null && !response.body().getResults().isEmpty()) {
-                            GeocodingResponse.Location location = response.body().getResults().get(0);
-                            // Ahora obtener el clima usando las coordenadas
-                            fetchWeatherByCoordinates(location.getLatitude(), location.getLongitude(), 
-                                    location.getName(), location.getCountryCode());
-                        } else {
-                            isLoading.setValue(false);
-                            errorMessage.setValue("Ciudad no encontrada. Verifica el nombre.");
-                        }
-                    }
+    public LiveData<List<GeocodingResponse.Location>> getSuggestions() {
+        return suggestions;
+    }
 
-                    @Override
-                    public void onFailure(Call<GeocodingResponse> call, Throwable t) {
-                        isLoading.setValue(false);
-                        errorMessage.setValue("Error de conexión: " + t.getMessage());
-                    }
-                });
+    /**
+     * Autocompletado mientras se escribe. Si la consulta estrecha una ya resuelta se responde
+     * desde el índice local; si no, se espera SUGGESTION_DEBOUNCE_MS sin nuevas pulsaciones
+     * antes de consultar el servicio, cancelando la petición anterior que siga en curso.
+     */
+    public void onSearchQueryChanged(String query) {
+        cancelSuggestionSearch();
+        String trimmed = query.trim();
+        if (trimmed.length() < SUGGESTION_MIN_LENGTH) {
+            suggestions.setValue(Collections.emptyList());
+            return;
+        }
+        List<GeocodingResponse.Location> local = suggestionIndex.lookup(trimmed, SUGGESTION_COUNT);
+        if (local != null) {
+            suggestions.setValue(local);
+            return;
+        }
+        pendingSuggestionSearch = () -> requestSuggestions(trimmed);
+        mainHandler.postDelayed(pendingSuggestionSearch, SUGGESTION_DEBOUNCE_MS);
     }
 
-    private void fetchWeatherByCoordinates(double lat, double lon, String cityName, String countryCode) {
-        String currentParams = "temperature_2m,relative_humidity_2m,weather_code,wind_speed_10m,pressure_msl,uv_index";
-        String dailyParams = "temperature_2m_max,temperature_2m_min";
-        weatherApi.getCurrentWeather(lat, lon, currentParams, dailyParams, "auto")
-                .enqueue(new Callback<OpenMeteoResponse>() {
-                    @Override
-                    public void onResponse(Call<OpenMeteoResponse> call, Response<OpenMeteoResponse> response) {
-                        isLoading.setValue(false);
-                        if (response.isSuccessful() && response.body() != null) {
-                            // Convertir OpenMeteoResponse a WeatherResponse para mantener compatibilidad
-                            WeatherResponse weatherResponse = convertToWeatherResponse(response.body(), cityName, countryCode);
-                            weatherData.setValue(weatherResponse);
-                            errorMessage.setValue(null);
-                        } else {
-                            String errorMsg = "Error al obtener datos del clima";
-                            try {
-                                if (response.errorBody() != null) {
-                                    String errorBody = response.errorBody().string();
-                                    errorMsg = "Error: " + errorBody.substring(0, Math.min(100, errorBody.length()));
-                                } else if (response.message() != null) {
-                                    errorMsg = "Error " + response.code() + ": " + response.message();
-                                }
-                            } catch (IOException e) {
-                                errorMsg = "Error " + response.code() + ": " + response.message();
-                            }
-                            errorMessage.setValue(errorMsg);
-                        }
-                    }
+    /** Muestra el clima de una sugerencia elegida, sin volver a geocodificar. */
+    public void selectSuggestion(GeocodingResponse.Location location) {
+        cancelSuggestionSearch();
+        currentQueryKey = GeocodingCache.key(location.getName(), units.getLanguage());
+        engine.rememberLocation(location.getName(), units.getLanguage(), location);
+        cancelPendingRequests();
+        isLoading.setValue(true);
+        fetchWeatherByCoordinates(location.getLatitude(), location.getLongitude(),
+                location.getName(), location.getCountryCode());
+    }
 
-                    @Override
-                    public void onFailure(Call<OpenMeteoResponse> call, Throwable t) {
-                        isLoading.setValue(false);
-                        errorMessage.setValue("Error de conexión: " + t.getMessage());
-                    }
-                });
+    private void requestSuggestions(String query) {
+        pendingSuggestionSearch = null;
+        CompletableFuture<List<GeocodingResponse.Location>> request =
+                engine.suggest(query, SUGGESTION_COUNT, units.getLanguage());
+        suggestionRequest = request;
+        request.whenCompleteAsync((results, error) -> {
+            if (request != suggestionRequest) {
+                // Cancelada o reemplazada por una pulsación posterior
+                return;
+            }
+            suggestionRequest = null;
+            if (error != null) {
+                // Sin red: el autocompletado es opcional
+                return;
+            }
+            suggestionIndex.addResults(query, results, SUGGESTION_COUNT);
+            suggestions.setValue(results);
+        }, mainThread);
     }
 
-    public void fetchWeatherByCoordinates(double lat, double lon) {
-        fetchWeatherByCoordinates(lat, lon, null, null);
+    private void cancelSuggestionSearch() {
+        if (pendingSuggestionSearch != null) {
+            mainHandler.removeCallbacks(pendingSuggestionSearch);
+            pendingSuggestionSearch = null;
+        }
+        if (suggestionRequest != null) {
+            suggestionRequest.cancel(false);
+            suggestionRequest = null;
+        }
     }
 
-    private WeatherResponse convertToWeatherResponse(OpenMeteoResponse openMeteoResponse, String cityName, String countryCode) {
-        WeatherResponse weatherResponse = new WeatherResponse();
-        
-        // Coordenadas
-        com.example.api_weather.model.Coord coord = new com.example.api_weather.model.Coord();
-        coord.setLat(openMeteoResponse.getLatitude());
-        coord.setLon(openMeteoResponse.getLongitude());
-        weatherResponse.setCoord(coord);
-        
-        // Weather (convertir weather_code a descripción)
-        java.util.List<com.example.api_weather.model.Weather> weatherList = new java.util.ArrayList<>();
-        com.example.api_weather.model.Weather weather = new com.example.api_weather.model.Weather();
-        if (openMeteoResponse.getCurrent() != null) {
-            int weatherCode = openMeteoResponse.getCurrent().getWeatherCode();
-            weather.setId(weatherCode);
-            weather.setMain(getWeatherMain(weatherCode));
-            weather.setDescription(getWeatherDescription(weatherCode));
-            weather.setIcon(getWeatherIcon(weatherCode));
+    public void fetchWeatherByCity(String cityName) {
+        String geocodingKey = GeocodingCache.key(cityName, units.getLanguage());
+        if (geocodingKey.equals(currentQueryKey) && isRequestPending()) {
+            // La misma búsqueda ya está en curso (toques repetidos): no lanzar otra
+            return;
+        }
+        // Una búsqueda distinta reemplaza a la anterior
+        currentQueryKey = geocodingKey;
+        cancelPendingRequests();
+        isLoading.setValue(true);
+        // Si la ciudad ya fue geocodificada, saltar directamente al pronóstico
+        GeocodingResponse.Location cached = engine.cachedLocation(cityName, units.getLanguage());
+        if (cached != null) {
+            fetchWeatherByCoordinates(cached.getLatitude(), cached.getLongitude(),
+                    cached.getName(), cached.getCountryCode());
+            return;
+        }
+        // Coordenadas probables (historial reciente, geocodificación caducada o nomenclátor): el
+        // pronóstico se pide ya, en paralelo con la geocodificación, y solo se muestra si el
+        // servicio confirma la ubicación
+        GeocodingResponse.Location guess = Speculation.guess(cityName, recentLocations.getAll(),
+                engine.staleLocation(cityName, units.getLanguage()), gazetteer);
+        if (guess != null) {
+            speculation = new Speculation(cityName, guess);
+            fetchWeatherByCoordinates(guess.getLatitude(), guess.getLongitude(),
+                    guess.getName(), guess.getCountryCode());
         }
-        weatherList.add(weather);
-        weatherResponse.setWeather(weatherList);
-        
-        // Main (temperatura, humedad, presión)
-        com.example.api_weather.model.Main main = new com.example.api_weather.model.Main();
-        if (openMeteoResponse.getCurrent() != null) {
-            double temp = openMeteoResponse.getCurrent().getTemperature2m();
-            main.setTemp(temp);
-            
-            // Calcular sensación térmica basada en temperatura, humedad, viento y UV index
-            double feelsLike = calculateFeelsLike(
-                temp,
-                openMeteoResponse.getCurrent().getRelativeHumidity2m(),
-                openMeteoResponse.getCurrent().getWindSpeed10m(),
-                openMeteoResponse.getCurrent().getUvIndex()
-            );
-            main.setFeelsLike(feelsLike);
-            
-            // Obtener temperatura máxima y mínima del día actual
-            double tempMin = openMeteoResponse.getCurrent().getTemperature2m();
-            double tempMax = openMeteoResponse.getCurrent().getTemperature2m();
-            
-            if (openMeteoResponse.getDaily() != null) {
-                if (openMeteoResponse.getDaily().getTemperature2mMin() != null && 
-                    !openMeteoResponse.getDaily().getTemperature2mMin().isEmpty()) {
-                    tempMin = openMeteoResponse.getDaily().getTemperature2mMin().get(0);
+        requestGeocoding(cityName);
+    }
+
+    private void requestGeocoding(String cityName) {
+        CompletableFuture<GeocodingResponse.Location> request = engine.geocode(cityName, units.getLanguage());
+        geocodingRequest = request;
+        request.whenCompleteAsync((location, error) -> {
+            if (request.isCancelled()) {
+                return;
+            }
+            if (error != null) {
+                if (speculation != null) {
+                    // Sin red el pronóstico adelantado es lo mejor que hay
+                    resolveSpeculation(null);
+                    return;
                 }
-                if (openMeteoResponse.getDaily().getTemperature2mMax() != null && 
-                    !openMeteoResponse.getDaily().getTemperature2mMax().isEmpty()) {
-                    tempMax = openMeteoResponse.getDaily().getTemperature2mMax().get(0);
+                isLoading.setValue(false);
+                errorMessage.setValue("Error de conexión: " + WeatherEngine.unwrap(error).getMessage());
+            } else if (location != null) {
+                if (speculation != null) {
+                    resolveSpeculation(location);
+                    return;
                 }
+                // Ahora obtener el clima usando las coordenadas
+                fetchWeatherByCoordinates(location.getLatitude(), location.getLongitude(),
+                        location.getName(), location.getCountryCode());
+            } else if (speculation != null) {
+                // El servicio no la conoce: se confía en las coordenadas adelantadas
+                resolveSpeculation(null);
+            } else {
+                isLoading.setValue(false);
+                errorMessage.setValue("Ciudad no encontrada. Verifica el nombre.");
             }
-            
-            main.setTempMin(tempMin);
-            main.setTempMax(tempMax);
-            main.setHumidity(openMeteoResponse.getCurrent().getRelativeHumidity2m());
-            main.setPressure((int) Math.round(openMeteoResponse.getCurrent().getPressureMsl()));
+        }, mainThread);
+    }
+
+    /**
+     * Decide qué hacer con el pronóstico adelantado cuando responde la geocodificación.
+     * validated es null si el servicio no pudo confirmar la ubicación.
+     */
+    private void resolveSpeculation(GeocodingResponse.Location validated) {
+        Speculation current = speculation;
+        if (current.validate(validated) == SpeculationMetrics.Outcome.REJECTED) {
+            // Otra ciudad: se descarta lo adelantado y se pide el pronóstico correcto
+            speculation = null;
+            current.record();
+            fetchWeatherByCoordinates(validated.getLatitude(), validated.getLongitude(),
+                    validated.getName(), validated.getCountryCode());
+            return;
         }
-        weatherResponse.setMain(main);
-        
-        // Wind
-        com.example.api_weather.model.Wind wind = new com.example.api_weather.model.Wind();
-        if (openMeteoResponse.getCurrent() != null) {
-            wind.setSpeed(openMeteoResponse.getCurrent().getWindSpeed10m());
+        if (!current.hasForecast()) {
+            // El pronóstico aún no ha llegado: se publicará en cuanto llegue
+            return;
         }
-        weatherResponse.setWind(wind);
-        
-        // Clouds (Open-Meteo no proporciona datos de nubes directamente)
-        com.example.api_weather.model.Clouds clouds = new com.example.api_weather.model.Clouds();
-        clouds.setAll(0);
-        weatherResponse.setClouds(clouds);
-        
-        // Sys
-        com.example.api_weather.model.Sys sys = new com.example.api_weather.model.Sys();
-        if (countryCode != null) {
-            sys.setCountry(countryCode);
+        speculation = null;
+        current.record();
+        if (current.getPendingResponse() != null) {
+            showWeather(current.getPendingResponse(), current.getValidated());
+        } else {
+            isLoading.setValue(false);
+            errorMessage.setValue(current.getPendingError());
         }
-        weatherResponse.setSys(sys);
-        
-        // Otros campos
-        weatherResponse.setName(cityName != null ? cityName : "Ubicación");
-        weatherResponse.setTimezone(openMeteoResponse.getUtcOffsetSeconds());
-        weatherResponse.setCod(200);
-        
-        return weatherResponse;
-    }
-
-    private String getWeatherMain(int weatherCode) {
-        // Códigos WMO Weather interpretation codes
-        if (weatherCode == 0) return "Clear";
-        if (weatherCode <= 3) return "Clouds";
-        if (weatherCode <= 49) return "Fog";
-        if (weatherCode <= 59) return "Drizzle";
-        if (weatherCode <= 69) return "Rain";
-        if (weatherCode <= 79) return "Snow";
-        if (weatherCode <= 84) return "Rain";
-        if (weatherCode <= 86) return "Snow";
-        if (weatherCode <= 99) return "Thunderstorm";
-        return "Unknown";
-    }
-
-    private String getWeatherDescription(int weatherCode) {
-        // Descripciones en español basadas en códigos WMO
-        switch (weatherCode) {
-            case 0: return "cielo despejado";
-            case 1: return "mayormente despejado";
-            case 2: return "parcialmente nublado";
-            case 3: return "nublado";
-            case 45: return "niebla";
-            case 48: return "niebla con escarcha";
-            case 51: return "llovizna ligera";
-            case 53: return "llovizna moderada";
-            case 55: return "llovizna densa";
-            case 56: return "llovizna helada ligera";
-            case 57: return "llovizna helada densa";
-            case 61: return "lluvia ligera";
-            case 63: return "lluvia moderada";
-            case 65: return "lluvia intensa";
-            case 66: return "lluvia helada ligera";
-            case 67: return "lluvia helada intensa";
-            case 71: return "nieve ligera";
-            case 73: return "nieve moderada";
-            case 75: return "nieve intensa";
-            case 77: return "granos de nieve";
-            case 80: return "chubascos ligeros";
-            case 81: return "chubascos moderados";
-            case 82: return "chubascos intensos";
-            case 85: return "chubascos de nieve ligeros";
-            case 86: return "chubascos de nieve intensos";
-            case 95: return "tormenta";
-            case 96: return "tormenta con granizo";
-            case 99: return "tormenta intensa con granizo";
-            default: return "desconocido";
+    }
+
+    /** Publica un pronóstico, o lo retiene si la búsqueda especulativa aún no está validada. */
+    private void publishWeather(WeatherResponse response) {
+        Speculation current = speculation;
+        if (current != null) {
+            current.forecastArrived();
+            if (current.getOutcome() == null) {
+                current.hold(response);
+                return;
+            }
+            speculation = null;
+            current.record();
+            showWeather(response, current.getValidated());
+            return;
         }
+        showWeather(response, null);
     }
 
-    private String getWeatherIcon(int weatherCode) {
-        // Mapear códigos a iconos similares a OpenWeatherMap
-        if (weatherCode == 0) return "01d";
-        if (weatherCode <= 2) return "02d";
-        if (weatherCode == 3) return "03d";
-        if (weatherCode <= 49) return "50d";
-        if (weatherCode <= 59) return "09d";
-        if (weatherCode <= 69) return "10d";
-        if (weatherCode <= 79) return "13d";
-        if (weatherCode <= 84) return "09d";
-        if (weatherCode <= 86) return "13d";
-        if (weatherCode <= 99) return "11d";
-        return "01d";
+    private void publishError(String message) {
+        Speculation current = speculation;
+        if (current != null) {
+            current.forecastArrived();
+            if (current.getOutcome() == null) {
+                current.holdError(message);
+                return;
+            }
+            speculation = null;
+            current.record();
+        }
+        isLoading.setValue(false);
+        errorMessage.setValue(message);
+    }
+
+    private void showWeather(WeatherResponse response, GeocodingResponse.Location validated) {
+        if (validated != null) {
+            // El nombre del servicio está localizado ("Londres" en lugar de "London"); la
+            // respuesta puede estar en ResponseCache, así que se copia en lugar de modificarla
+            response = response.withPlace(validated.getName(), validated.getCountryCode());
+        }
+        isLoading.setValue(false);
+        weatherData.setValue(response);
+        errorMessage.setValue(null);
+    }
+
+    private void fetchWeatherByCoordinates(double lat, double lon, String cityName, String countryCode) {
+        UnitProfile requestUnits = units;
+        Projection projection = projections.merged(ProjectionRegistry.Slot.CONDITIONS);
+        String cacheKey = WeatherEngine.conditionsKey(lat, lon, requestUnits);
+        String flightKey = WeatherEngine.flightKey(cacheKey, projection);
+        if (forecastRequest != null && !forecastRequest.isDone()) {
+            if (flightKey.equals(forecastFlightKey)) {
+                // Ya esperamos este mismo pronóstico
+                return;
+            }
+            forecastRequest.cancel(false);
+        }
+        currentForecastKey = cacheKey;
+        shownLocation = new GeocodingResponse.Location();
+        shownLocation.setLatitude(lat);
+        shownLocation.setLongitude(lon);
+        shownLocation.setName(cityName);
+        shownLocation.setCountryCode(countryCode);
+        requestOutlook(lat, lon, requestUnits);
+        forecastPreviewed = false;
+        // Lo que ya hay (caché obsoleta o almacén local) se muestra mientras se revalida
+        CompletableFuture<WeatherResponse> request = engine.conditions(lat, lon, cityName, countryCode,
+                requestUnits, projection, preview -> mainHandler.post(() -> {
+                    if (cacheKey.equals(currentForecastKey)) {
+                        forecastPreviewed = true;
+                        publishWeather(preview);
+                    }
+                }));
+        forecastFlightKey = flightKey;
+        forecastRequest = request;
+        request.whenCompleteAsync((response, error) -> {
+            if (request.isCancelled()) {
+                return;
+            }
+            if (error == null) {
+                onForecastReady(response, lat, lon, cityName, countryCode, cacheKey);
+            } else if (!forecastPreviewed && cacheKey.equals(currentForecastKey)) {
+                // Si falla la revalidación se conservan los datos ya mostrados
+                publishError(forecastErrorMessage(error));
+            }
+        }, mainThread);
     }
 
     /**
-     * Calcula la sensación térmica basada en temperatura, humedad, viento y UV index
-     * @param temp Temperatura en °C
-     * @param humidity Humedad relativa en %
-     * @param windSpeed Velocidad del viento en m/s
-     * @param uvIndex Índice UV
-     * @return Sensación térmica en °C
+     * Horas y días de la ubicación, en una petición aparte de la principal (ver
+     * WeatherEngine.outlook). Sin consumidores registrados en Slot.OUTLOOK no se pide nada.
      */
-    private double calculateFeelsLike(double temp, int humidity, double windSpeed, double uvIndex) {
-        double feelsLike = temp;
-        
-        // Convertir velocidad del viento de m/s a km/h
-        double windSpeedKmh = windSpeed * 3.6;
-        
-        // Para temperaturas altas (> 27°C): usar Heat Index
-        if (temp > 27.0 && humidity > 40) {
-            feelsLike = calculateHeatIndex(temp, humidity);
+    private void requestOutlook(double lat, double lon, UnitProfile requestUnits) {
+        Projection projection = projections.merged(ProjectionRegistry.Slot.OUTLOOK);
+        if (projection.isEmpty()) {
+            return;
+        }
+        String flightKey = WeatherEngine.flightKey(WeatherEngine.outlookKey(lat, lon, requestUnits), projection);
+        if (flightKey.equals(currentOutlookKey) && outlookRequest != null && !outlookRequest.isDone()) {
+            return;
         }
-        // Para temperaturas bajas (< 10°C): usar Wind Chill
-        else if (temp < 10.0 && windSpeedKmh > 4.8) {
-            feelsLike = calculateWindChill(temp, windSpeedKmh);
+        if (outlookRequest != null) {
+            outlookRequest.cancel(false);
+            outlookRequest = null;
         }
-        // Para temperaturas medias: ajuste por viento y humedad
-        else {
-            // Ajuste por viento (el viento enfría cuando hace calor moderado también)
-            if (windSpeedKmh > 5.0) {
-                // El viento reduce la sensación térmica
-                double windEffect = Math.min(windSpeedKmh * 0.1, 3.0); // Máximo 3°C de reducción
-                feelsLike -= windEffect;
+        currentOutlookKey = flightKey;
+        outlookRequest = engine.outlook(lat, lon, requestUnits, projection, stale -> mainHandler.post(() -> {
+            if (flightKey.equals(currentOutlookKey)) {
+                outlook.setValue(stale);
             }
-            
-            // Ajuste por humedad (alta humedad aumenta sensación de calor en temperaturas cálidas)
-            if (temp > 20.0 && humidity > 60) {
-                double humidityEffect = (humidity - 60) * 0.05; // Aumenta sensación térmica
-                feelsLike += Math.min(humidityEffect, 2.0); // Máximo 2°C de aumento
+        }));
+        // Los errores los informa la petición principal; se conservan las listas
+        outlookRequest.thenAcceptAsync(forecast -> {
+            if (flightKey.equals(currentOutlookKey)) {
+                outlook.setValue(forecast);
             }
-            
-            // Ajuste por humedad baja (baja humedad reduce sensación de calor)
-            if (temp > 20.0 && humidity < 40) {
-                double humidityEffect = (40 - humidity) * 0.03; // Reduce sensación térmica
-                feelsLike -= Math.min(humidityEffect, 1.5); // Máximo 1.5°C de reducción
+        }, mainThread);
+    }
+
+    private void onForecastReady(WeatherResponse weatherResponse, double lat, double lon,
+                                 String cityName, String countryCode, String cacheKey) {
+        // Una búsqueda posterior no debe ser pisada por esta respuesta
+        if (cacheKey.equals(currentForecastKey)) {
+            publishWeather(weatherResponse);
+            forecastStore.saveLastLocation(lat, lon, cityName, countryCode);
+        }
+        if (cityName != null) {
+            // Las ciudades consultadas se mantienen precargadas en segundo plano
+            GeocodingResponse.Location location = new GeocodingResponse.Location();
+            location.setName(cityName);
+            location.setCountryCode(countryCode);
+            location.setLatitude(lat);
+            location.setLongitude(lon);
+            recentLocations.add(location);
+        }
+    }
+
+    private static String forecastErrorMessage(Throwable error) {
+        Throwable cause = WeatherEngine.unwrap(error);
+        if (cause instanceof ApiException) {
+            ApiException apiError = (ApiException) cause;
+            if (apiError.getBody() != null) {
+                return "Error: " + apiError.getBody();
             }
+            return apiError.getStatus() != null
+                    ? "Error " + apiError.getCode() + ": " + apiError.getStatus()
+                    : "Error al obtener datos del clima";
         }
-        
-        // Ajuste por UV index (UV alto aumenta sensación de calor)
-        if (uvIndex > 5.0 && temp > 20.0) {
-            double uvEffect = (uvIndex - 5.0) * 0.2; // Aumenta sensación térmica
-            feelsLike += Math.min(uvEffect, 1.5); // Máximo 1.5°C de aumento
+        if (cause instanceof IOException) {
+            return "Error de conexión: " + cause.getMessage();
         }
-        
-        return Math.round(feelsLike * 10.0) / 10.0; // Redondear a 1 decimal
+        return "Error al procesar el pronóstico";
+    }
+
+    public void fetchWeatherByCoordinates(double lat, double lon) {
+        currentQueryKey = null;
+        cancelPendingRequests();
+        isLoading.setValue(true);
+        fetchWeatherByCoordinates(lat, lon, null, null);
+    }
+
+    private boolean isRequestPending() {
+        return (geocodingRequest != null && !geocodingRequest.isDone())
+                || (forecastRequest != null && !forecastRequest.isDone());
+    }
+
+    private void cancelPendingRequests() {
+        speculation = null;
+        currentForecastKey = null;
+        if (geocodingRequest != null) {
+            geocodingRequest.cancel(false);
+            geocodingRequest = null;
+        }
+        if (forecastRequest != null) {
+            forecastRequest.cancel(false);
+            forecastRequest = null;
+        }
+        currentOutlookKey = null;
+        if (outlookRequest != null) {
+            outlookRequest.cancel(false);
+            outlookRequest = null;
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        // Si otro interesado sigue esperando la misma petición, esta no se cancela
+        cancelPendingRequests();
+        cancelSuggestionSearch();
+    }
+
+    /**
+     * Clima de una ubicación guardada, alimentado por fetchWeatherForLocations.
+     */
+    public LiveData<WeatherResponse> getWeatherForLocation(GeocodingResponse.Location location) {
+        return locationLiveData(locationData, locationKey(location, units));
     }
 
     /**
-     * Calcula el Heat Index (índice de calor) para temperaturas altas
-     * Fórmula de Rothfusz
+     * Último error al actualizar una ubicación guardada, o null tras una actualización
+     * correcta. Los fallos de las listas no pisan el mensaje de la pantalla principal.
      */
-    private double calculateHeatIndex(double temp, int humidity) {
-        // Convertir temperatura a Fahrenheit para la fórmula
-        double tempF = (temp * 9.0 / 5.0) + 32.0;
-        
-        // Fórmula de Rothfusz (simplificada)
-        double hi = -42.379 + 
-                    2.04901523 * tempF + 
-                    10.14333127 * humidity - 
-                    0.22475541 * tempF * humidity - 
-                    6.83783e-3 * tempF * tempF - 
-                    5.481717e-2 * humidity * humidity + 
-                    1.22874e-3 * tempF * tempF * humidity + 
-                    8.5282e-4 * tempF * humidity * humidity - 
-                    1.99e-6 * tempF * tempF * humidity * humidity;
-        
-        // Convertir de vuelta a Celsius
-        double hiC = (hi - 32.0) * 5.0 / 9.0;
-        
-        // Si el resultado es menor que la temperatura, usar la temperatura
-        return Math.max(hiC, temp);
+    public LiveData<String> getErrorForLocation(GeocodingResponse.Location location) {
+        return locationLiveData(locationErrors, locationKey(location, units));
     }
 
     /**
-     * Calcula el Wind Chill (sensación térmica por viento) para temperaturas bajas
-     * Fórmula de Environment Canada
+     * Actualiza varias ubicaciones con peticiones por lotes (WeatherEngine.conditionsBatch) y
+     * reparte cada pronóstico, o su error, a las LiveData de su ubicación.
      */
-    private double calculateWindChill(double temp, double windSpeedKmh) {
-        // La fórmula requiere velocidad del viento en km/h y temperatura en °C
-        if (windSpeedKmh < 4.8) {
-            return temp; // Sin efecto del viento si es muy bajo
+    public void fetchWeatherForLocations(List<GeocodingResponse.Location> locations) {
+        UnitProfile requestUnits = units;
+        Projection projection = projections.merged(ProjectionRegistry.Slot.CONDITIONS);
+        List<CompletableFuture<WeatherResponse>> results = engine.conditionsBatch(locations, requestUnits, projection);
+        for (int i = 0; i < results.size(); i++) {
+            GeocodingResponse.Location location = locations.get(i);
+            String key = locationKey(location, requestUnits);
+            results.get(i).whenCompleteAsync((weatherResponse, error) -> {
+                MutableLiveData<String> locationError = locationLiveData(locationErrors, key);
+                if (error == null) {
+                    locationLiveData(locationData, key).setValue(weatherResponse);
+                    locationError.setValue(null);
+                    return;
+                }
+                Throwable cause = WeatherEngine.unwrap(error);
+                if (cause instanceof ApiException) {
+                    locationError.setValue("Error " + ((ApiException) cause).getCode()
+                            + " al actualizar " + location.getName());
+                } else if (cause instanceof IOException) {
+                    locationError.setValue("Error de conexión: " + cause.getMessage());
+                } else {
+                    locationError.setValue("Error al procesar " + location.getName());
+                }
+            }, mainThread);
         }
-        
-        // Fórmula de Environment Canada
-        double wc = 13.12 + 
-                    0.6215 * temp - 
-                    11.37 * Math.pow(windSpeedKmh, 0.16) + 
-                    0.3965 * temp * Math.pow(windSpeedKmh, 0.16);
-        
-        // Si el resultado es mayor que la temperatura, usar la temperatura
-        return Math.min(wc, temp);
     }
-}
 
+    private static String locationKey(GeocodingResponse.Location location, UnitProfile units) {
+        return WeatherEngine.conditionsKey(location.getLatitude(), location.getLongitude(), units);
+    }
 
+    private static <T> MutableLiveData<T> locationLiveData(Map<String, MutableLiveData<T>> byLocation, String key) {
+        MutableLiveData<T> liveData = byLocation.get(key);
+        if (liveData == null) {
+            liveData = new MutableLiveData<>();
+            byLocation.put(key, liveData);
+        }
+        return liveData;
+    }
+}
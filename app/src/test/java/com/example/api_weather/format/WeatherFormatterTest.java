@@ -0,0 +1,78 @@
+package com.example.api_weather.format;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WeatherFormatterTest {
+    private final char[] out = new char[2 * WeatherFormatter.MAX_LENGTH];
+
+    @Test
+    public void usesLocaleDecimalSeparator() {
+        WeatherFormatter spanish = WeatherFormatter.metric(new Locale("es", "ES"));
+        WeatherFormatter english = WeatherFormatter.metric(Locale.US);
+        assertEquals("5,2 m/s", text(spanish.speed(out, 0, 5.24)));
+        assertEquals("5.2 m/s", text(english.speed(out, 0, 5.24)));
+        assertEquals("10,0 km", text(spanish.distance(out, 0, 10)));
+    }
+
+    @Test
+    public void roundsLikeStringFormat() {
+        WeatherFormatter formatter = WeatherFormatter.metric(Locale.US);
+        assertEquals("23°C", text(formatter.temperature(out, 0, 22.5)));
+        assertEquals("-7°C", text(formatter.temperature(out, 0, -7.4)));
+        assertEquals("-8°C", text(formatter.temperature(out, 0, -7.5)));
+        assertEquals("0°", text(formatter.degrees(out, 0, -0.2)));
+        assertEquals("-0.3 m/s", text(formatter.speed(out, 0, -0.25)));
+        assertEquals("1013 hPa", text(formatter.pressure(out, 0, 1013.2)));
+        assertEquals("65%", text(formatter.percent(out, 0, 65)));
+    }
+
+    @Test
+    public void missingValues() {
+        WeatherFormatter formatter = WeatherFormatter.metric(Locale.US);
+        assertEquals("–", text(formatter.temperature(out, 0, Double.NaN)));
+        assertEquals("–", text(formatter.speed(out, 0, Double.NaN)));
+        assertEquals("", text(formatter.percent(out, 0, -1)));
+    }
+
+    @Test
+    public void chainsLabelAndValue() {
+        WeatherFormatter formatter = WeatherFormatter.metric(Locale.US);
+        int length = WeatherFormatter.append(out, 0, "Sensación: ");
+        assertEquals("Sensación: 31°C", text(formatter.temperature(out, length, 30.6)));
+    }
+
+    @Test
+    public void doesNotAllocate() {
+        WeatherFormatter formatter = WeatherFormatter.metric(Locale.US);
+        int sink = 0;
+        for (int i = 0; i < 10_000; i++) {
+            sink += format(formatter, i);
+        }
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 100_000; i++) {
+            sink += format(formatter, i);
+        }
+        long allocated = bean.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        assertTrue(sink > 0);
+        assertTrue("allocated " + allocated + " B", allocated < 4096);
+    }
+
+    private int format(WeatherFormatter formatter, int i) {
+        int length = formatter.temperature(out, 0, i * 0.37 - 40);
+        length = formatter.speed(out, length, i * 0.013);
+        length = formatter.pressure(out, length, 950 + i % 100);
+        return formatter.percent(out, length, i % 101);
+    }
+
+    private String text(int length) {
+        return new String(out, 0, length);
+    }
+}
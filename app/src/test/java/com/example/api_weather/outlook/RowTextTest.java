@@ -0,0 +1,35 @@
+package com.example.api_weather.outlook;
+
+import org.junit.Test;
+
+import java.text.DateFormatSymbols;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+public class RowTextTest {
+    // 2024-03-10 14:30 UTC (domingo)
+    private static final long SUNDAY_AFTERNOON = 1710081000L;
+
+    @Test
+    public void hourUsesLocalOffset() {
+        char[] out = new char[5];
+        assertEquals("14:00", text(out, RowText.hour(out, SUNDAY_AFTERNOON, 0)));
+        assertEquals("09:00", text(out, RowText.hour(out, SUNDAY_AFTERNOON, -5 * 3600)));
+        assertEquals("00:00", text(out, RowText.hour(out, SUNDAY_AFTERNOON, 9 * 3600 + 1800)));
+    }
+
+    @Test
+    public void dayCrossesMidnightWithOffset() {
+        String[] weekdays = DateFormatSymbols.getInstance(Locale.ENGLISH).getShortWeekdays();
+        char[] out = new char[24];
+        assertEquals("Sun 10", text(out, RowText.day(out, weekdays, SUNDAY_AFTERNOON, 0)));
+        assertEquals("Mon 11", text(out, RowText.day(out, weekdays, SUNDAY_AFTERNOON, 10 * 3600)));
+        assertEquals(29, RowText.dayOfMonth(19782)); // 2024-02-29
+        assertEquals(1, RowText.dayOfMonth(0));
+    }
+
+    private static String text(char[] out, int length) {
+        return new String(out, 0, length);
+    }
+}
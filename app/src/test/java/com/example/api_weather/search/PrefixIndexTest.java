@@ -0,0 +1,77 @@
+package com.example.api_weather.search;
+
+import com.example.api_weather.model.GeocodingResponse;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Respuestas locales del autocompletado a partir de consultas anteriores, sin Android.
+ */
+public class PrefixIndexTest {
+    private static final int REQUESTED = 10;
+
+    @Test
+    public void narrowedQueryIsAnsweredFromACompleteResponse() {
+        PrefixIndex index = new PrefixIndex();
+        index.addResults("mad", Arrays.asList(
+                location(1, "Madrid", 3_255_944), location(2, "Madras", 4_328_063), location(3, "Malmö", 301_706)),
+                REQUESTED);
+
+        List<GeocodingResponse.Location> matches = index.lookup("  Madr", REQUESTED);
+
+        assertNotNull(matches);
+        // Por población, como las ordena el servicio
+        assertEquals(Arrays.asList("Madras", "Madrid"), names(matches));
+        assertEquals(1, index.lookup("madri", 1).size());
+    }
+
+    @Test
+    public void truncatedResponseDoesNotCoverNarrowerQueries() {
+        PrefixIndex index = new PrefixIndex();
+        List<GeocodingResponse.Location> full = new ArrayList<>();
+        for (int i = 0; i < REQUESTED; i++) {
+            full.add(location(i + 1, "Ma" + (char) ('a' + i), 1000 - i));
+        }
+        full.set(0, location(1, "Madrid", 3_255_944));
+        index.addResults("ma", full, REQUESTED);
+
+        // "ma" devolvió todas las filas pedidas: puede faltar cualquier "mad..."
+        assertNull(index.lookup("mad", REQUESTED));
+    }
+
+    @Test
+    public void uncoveredOrUnmatchedQueriesGoToTheNetwork() {
+        PrefixIndex index = new PrefixIndex();
+        assertNull(index.lookup("mad", REQUESTED));
+
+        index.addResults("mad", Arrays.asList(location(1, "Madrid", 3_255_944)), REQUESTED);
+        // Sin coincidencias locales decide la búsqueda difusa del servicio
+        assertNull(index.lookup("madz", REQUESTED));
+        assertNull(index.lookup("lim", REQUESTED));
+
+        index.clear();
+        assertNull(index.lookup("madr", REQUESTED));
+    }
+
+    private static List<String> names(List<GeocodingResponse.Location> locations) {
+        List<String> names = new ArrayList<>();
+        for (GeocodingResponse.Location location : locations) {
+            names.add(location.getName());
+        }
+        return names;
+    }
+
+    private static GeocodingResponse.Location location(long id, String name, long population) {
+        GeocodingResponse.Location location = new GeocodingResponse.Location();
+        location.setId(id);
+        location.setName(name);
+        location.setPopulation(population);
+        return location;
+    }
+}
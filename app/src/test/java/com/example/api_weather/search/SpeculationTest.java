@@ -0,0 +1,102 @@
+package com.example.api_weather.search;
+
+import com.example.api_weather.model.GeocodingResponse;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Origen de las coordenadas adelantadas y decisión de aceptarlas, sin Android.
+ */
+public class SpeculationTest {
+    private long nanos;
+
+    @Test
+    public void recentLocationWithTheSameNameComesFirst() {
+        GeocodingResponse.Location recent = location(0, "Málaga", 36.72, -4.42);
+        GeocodingResponse.Location stale = location(0, "Málaga", 36.70, -4.40);
+
+        assertSame(recent, Speculation.guess("  malaga", Arrays.asList(location(0, "Oslo", 59.91, 10.75), recent),
+                stale, null));
+    }
+
+    @Test
+    public void staleGeocodingIsUsedWhenNothingRecentMatches() {
+        GeocodingResponse.Location stale = location(0, "Oslo", 59.91, 10.75);
+
+        assertSame(stale, Speculation.guess("Oslo", Collections.singletonList(location(0, "Lima", -12.05, -77.04)),
+                stale, null));
+        assertNull(Speculation.guess("Oslo", Collections.emptyList(), null, null));
+    }
+
+    @Test
+    public void guessWithinTenKilometresIsAccepted() {
+        Speculation speculation = new Speculation("Madrid", location(0, "Madrid", 40.4168, -3.7038), () -> nanos);
+        // Plaza de Castilla, ~5 km al norte de la Puerta del Sol
+        assertEquals(SpeculationMetrics.Outcome.ACCEPTED,
+                speculation.validate(location(0, "Madrid", 40.4664, -3.6889)));
+        assertNotNull(speculation.getValidated());
+    }
+
+    @Test
+    public void guessFartherThanTenKilometresIsRejected() {
+        Speculation speculation = new Speculation("Madrid", location(0, "Madrid", 40.4168, -3.7038), () -> nanos);
+        // Alcalá de Henares, ~30 km
+        assertEquals(SpeculationMetrics.Outcome.REJECTED,
+                speculation.validate(location(0, "Alcalá de Henares", 40.4820, -3.3635)));
+    }
+
+    @Test
+    public void toleranceBoundaryIsTenKilometres() {
+        GeocodingResponse.Location guess = location(0, "Ecuador", 0, 0);
+        // Un grado de latitud son ~111,19 km
+        double justInside = 9.99 / 111.19;
+        double justOutside = 10.01 / 111.19;
+        assertTrue(new Speculation("e", guess, () -> nanos).agreesWith(location(0, "e", justInside, 0)));
+        assertFalse(new Speculation("e", guess, () -> nanos).agreesWith(location(0, "e", justOutside, 0)));
+    }
+
+    @Test
+    public void sameGeoNamesIdIsAcceptedWhateverTheDistance() {
+        Speculation speculation = new Speculation("Sevilla", location(2510911, "Sevilla", 37.38, -5.97), () -> nanos);
+        assertEquals(SpeculationMetrics.Outcome.ACCEPTED,
+                speculation.validate(location(2510911, "Sevilla", 37.60, -5.60)));
+    }
+
+    @Test
+    public void noAnswerFromTheServiceKeepsTheGuessUnvalidated() {
+        Speculation speculation = new Speculation("Oslo", location(0, "Oslo", 59.91, 10.75), () -> nanos);
+        assertNull(speculation.getOutcome());
+
+        assertEquals(SpeculationMetrics.Outcome.UNVALIDATED, speculation.validate(null));
+        assertNull(speculation.getValidated());
+    }
+
+    @Test
+    public void latenciesAreMeasuredFromTheStart() {
+        Speculation speculation = new Speculation("Oslo", location(0, "Oslo", 59.91, 10.75), () -> nanos);
+        nanos += TimeUnit.MILLISECONDS.toNanos(120);
+        speculation.forecastArrived();
+        nanos += TimeUnit.MILLISECONDS.toNanos(80);
+        speculation.forecastArrived();
+        speculation.validate(location(0, "Oslo", 59.91, 10.75));
+
+        assertTrue(speculation.hasForecast());
+        assertEquals(120, speculation.forecastMs());
+        assertEquals(200, speculation.geocodingMs());
+    }
+
+    private static GeocodingResponse.Location location(long id, String name, double lat, double lon) {
+        GeocodingResponse.Location location = new GeocodingResponse.Location();
+        location.setId(id);
+        location.setName(name);
+        location.setLatitude(lat);
+        location.setLongitude(lon);
+        return location;
+    }
+}
@@ -0,0 +1,118 @@
+// Micro-benchmarks JMH del camino decodificar -> mapear -> derivar, en la JVM de escritorio.
+// Dependen de :weather-core, así que miden el mismo código que usa la app, sin copias.
+//
+//   ./gradlew :benchmarks:jmh :benchmarks:jmhCompare    mide y compara con baseline/results.json
+//   ./gradlew :benchmarks:jmhUpdateBaseline             adopta la última medición como referencia
+//   -PjmhIncludes=Decode                                limita la ejecución a los que casen
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+sourceSets {
+    named("jmh") {
+        // Las respuestas grabadas de Open-Meteo que ya usan los tests de :weather-core
+        resources.srcDir(rootProject.file("weather-core/src/test/resources"))
+    }
+}
+
+dependencies {
+    implementation(project(":weather-core"))
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    fork = 1
+    warmupIterations = 3
+    warmup = "1s"
+    iterations = 5
+    timeOnIteration = "1s"
+    // Añade gc.alloc.rate.norm (bytes por operación) a cada resultado
+    profilers.add("gc")
+    resultFormat = "JSON"
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+}
+
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+val jmhBaseline = layout.projectDirectory.file("baseline/results.json")
+
+// Todos los benchmarks miden tiempo medio por operación: más es peor, tanto en tiempo como en
+// bytes. El tiempo solo es comparable en la máquina que grabó la referencia; los bytes por
+// operación dependen del JDK pero no de la carga de la máquina, y son la señal más fiable.
+tasks.register("jmhCompare") {
+    group = "verification"
+    description = "Falla si la última ejecución de jmh empeora respecto a baseline/results.json."
+    mustRunAfter("jmh")
+    val timeTolerance = providers.gradleProperty("jmhTimeTolerance").map(String::toDouble).orElse(0.25)
+    val allocTolerance = providers.gradleProperty("jmhAllocTolerance").map(String::toDouble).orElse(0.10)
+    inputs.file(jmhResults)
+    inputs.file(jmhBaseline)
+    doLast {
+        val current = readJmhResults(jmhResults.get().asFile)
+        val baseline = readJmhResults(jmhBaseline.get().asFile)
+        val regressions = mutableListOf<String>()
+        for ((name, now) in current) {
+            val before = baseline[name]
+            if (before == null) {
+                logger.lifecycle("%-60s nuevo, sin referencia".format(name))
+                continue
+            }
+            logger.lifecycle("%-60s %12.3f -> %12.3f %-6s %10.1f -> %10.1f B/op".format(
+                name, before.score, now.score, now.unit, before.bytesPerOp, now.bytesPerOp))
+            // Además del margen, la diferencia tiene que superar los intervalos de error de JMH
+            val slower = now.score - before.score
+            if (slower > before.score * timeTolerance.get() && slower > now.error + before.error) {
+                regressions += "$name: %.3f -> %.3f %s".format(before.score, now.score, now.unit)
+            }
+            // Margen absoluto para los que apenas asignan, donde unos bytes ya son un 10 %
+            if (now.bytesPerOp > before.bytesPerOp * (1 + allocTolerance.get())
+                && now.bytesPerOp - before.bytesPerOp > 64) {
+                regressions += "$name: %.0f -> %.0f B/op".format(before.bytesPerOp, now.bytesPerOp)
+            }
+        }
+        (baseline.keys - current.keys).forEach { logger.lifecycle("%-60s sin medir en esta ejecución".format(it)) }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("Regresiones frente a la referencia:\n  " + regressions.joinToString("\n  "))
+        }
+    }
+}
+
+tasks.register<Copy>("jmhUpdateBaseline") {
+    group = "verification"
+    description = "Copia la última ejecución de jmh a baseline/results.json."
+    mustRunAfter("jmh")
+    from(jmhResults)
+    into(jmhBaseline.asFile.parentFile)
+}
+
+class JmhScore(val score: Double, val error: Double, val unit: String, val bytesPerOp: Double)
+
+/** Resultados JSON de JMH por "Clase.método" más sus @Param, p. ej. "DecodeBenchmark.gson payload=16d". */
+fun readJmhResults(file: File): Map<String, JmhScore> {
+    @Suppress("UNCHECKED_CAST")
+    val runs = groovy.json.JsonSlurper().parse(file) as List<Map<String, Any?>>
+    return runs.associate { run ->
+        val params = (run["params"] as Map<*, *>?).orEmpty().entries.joinToString("") { " ${it.key}=${it.value}" }
+        val name = (run["benchmark"] as String).split('.').takeLast(2).joinToString(".") + params
+        val primary = run["primaryMetric"] as Map<*, *>
+        val secondary = (run["secondaryMetrics"] as Map<*, *>?).orEmpty()
+        // "gc.alloc.rate.norm" en JMH 1.37; versiones anteriores lo prefijan con "·"
+        val alloc = secondary.entries.firstOrNull { (it.key as String).endsWith("gc.alloc.rate.norm") }
+            ?.value as Map<*, *>?
+        name to JmhScore(
+            (primary["score"] as Number).toDouble(),
+            (primary["scoreError"] as? Number)?.toDouble()?.takeUnless { it.isNaN() } ?: 0.0,
+            primary["scoreUnit"] as String,
+            (alloc?.get("score") as Number?)?.toDouble() ?: 0.0,
+        )
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.api_weather.bench;
+
+import com.example.api_weather.api.OpenMeteoJsonDecoder;
+import com.example.api_weather.model.Forecast;
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodificación de una respuesta de Open-Meteo: el decodificador en streaming a columnas
+ * primitivas frente a Gson por reflexión sobre el modelo anterior (List<Double>...).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DecodeBenchmark {
+
+    @Param({"7d", "16d"})
+    public String payload;
+
+    private final Gson gson = new Gson();
+    private String json;
+
+    @Setup
+    public void load() throws IOException {
+        json = Payloads.forecast(payload);
+    }
+
+    @Benchmark
+    public Forecast streaming() throws IOException {
+        return OpenMeteoJsonDecoder.decode(new StringReader(json));
+    }
+
+    @Benchmark
+    public GsonForecast gson() {
+        return gson.fromJson(json, GsonForecast.class);
+    }
+
+    /** Forma del modelo anterior: series como List<Double>/List<Integer> decodificadas por reflexión. */
+    static class GsonForecast {
+        @SerializedName("latitude") double latitude;
+        @SerializedName("longitude") double longitude;
+        @SerializedName("utc_offset_seconds") int utcOffsetSeconds;
+        @SerializedName("timezone") String timezone;
+        @SerializedName("current") GsonCurrent current;
+        @SerializedName("hourly") GsonHourly hourly;
+        @SerializedName("daily") GsonDaily daily;
+    }
+
+    static class GsonCurrent {
+        @SerializedName("temperature_2m") double temperature2m;
+        @SerializedName("relative_humidity_2m") int relativeHumidity2m;
+        @SerializedName("weather_code") int weatherCode;
+        @SerializedName("wind_speed_10m") double windSpeed10m;
+        @SerializedName("pressure_msl") double pressureMsl;
+        @SerializedName("uv_index") double uvIndex;
+    }
+
+    static class GsonHourly {
+        @SerializedName("time") List<Long> time;
+        @SerializedName("temperature_2m") List<Double> temperature2m;
+        @SerializedName("relative_humidity_2m") List<Integer> relativeHumidity2m;
+        @SerializedName("weather_code") List<Integer> weatherCode;
+        @SerializedName("wind_speed_10m") List<Double> windSpeed10m;
+        @SerializedName("precipitation_probability") List<Integer> precipitationProbability;
+    }
+
+    static class GsonDaily {
+        @SerializedName("time") List<Long> time;
+        @SerializedName("weather_code") List<Integer> weatherCode;
+        @SerializedName("temperature_2m_max") List<Double> temperature2mMax;
+        @SerializedName("temperature_2m_min") List<Double> temperature2mMin;
+        @SerializedName("precipitation_probability_max") List<Integer> precipitationProbabilityMax;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.api_weather.bench;
+
+import com.example.api_weather.model.DerivedMetrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sensación térmica, índice de calor y wind chill sobre columnas del tamaño de un pronóstico
+ * horario (168 filas = 7 días, 384 = 16). Las muestras son aleatorias con semilla fija y
+ * cubren todos los regímenes: frío con viento, calor húmedo y el intermedio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DerivedMetricsBenchmark {
+    private static final double MS_TO_KMH = 3.6;
+    private static final double MPH_TO_KMH = 1.609344;
+
+    @Param({"168", "384"})
+    public int rows;
+
+    private float[] temperature;
+    private float[] temperatureF;
+    private short[] humidity;
+    private float[] windSpeed;
+    private float[] windSpeedKmh;
+    private float[] uvIndex;
+    private float[] out;
+
+    @Setup
+    public void generate() {
+        Random random = new Random(42);
+        temperature = new float[rows];
+        temperatureF = new float[rows];
+        humidity = new short[rows];
+        windSpeed = new float[rows];
+        windSpeedKmh = new float[rows];
+        uvIndex = new float[rows];
+        out = new float[rows];
+        for (int i = 0; i < rows; i++) {
+            temperature[i] = Math.round((random.nextFloat() * 65f - 25f) * 10f) / 10f;
+            temperatureF[i] = temperature[i] * 1.8f + 32f;
+            humidity[i] = (short) random.nextInt(101);
+            windSpeed[i] = Math.round(random.nextFloat() * 200f) / 10f;
+            windSpeedKmh[i] = (float) (windSpeed[i] * MS_TO_KMH);
+            uvIndex[i] = Math.round(random.nextFloat() * 110f) / 10f;
+        }
+    }
+
+    @Benchmark
+    public float[] apparentTemperature() {
+        DerivedMetrics.apparentTemperature(temperature, humidity, windSpeed, uvIndex, out, rows);
+        return out;
+    }
+
+    /** Columnas pedidas en °F y mph: las mismas fórmulas con dos conversiones lineales por fila. */
+    @Benchmark
+    public float[] apparentTemperatureImperial() {
+        DerivedMetrics.apparentTemperature(temperatureF, humidity, windSpeed, uvIndex, out, rows,
+                true, MPH_TO_KMH);
+        return out;
+    }
+
+    @Benchmark
+    public float[] heatIndex() {
+        DerivedMetrics.heatIndex(temperature, humidity, out, rows);
+        return out;
+    }
+
+    @Benchmark
+    public float[] windChill() {
+        DerivedMetrics.windChill(temperature, windSpeedKmh, out, rows);
+        return out;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.api_weather.bench;
+
+import com.example.api_weather.api.OpenMeteoJsonDecoder;
+import com.example.api_weather.core.WeatherResponseMapper;
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.UnitProfile;
+import com.example.api_weather.model.WeatherResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Del Forecast decodificado al WeatherResponse de la tarjeta: lo que cuesta una actualización
+ * que solo pinta lo visible frente a una que materializa todo el formato anterior.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+    private final UnitProfile metric = UnitProfile.metric("es");
+    private final UnitProfile imperial = UnitProfile.imperial("en");
+    private Forecast forecast;
+
+    @Setup
+    public void decode() throws IOException {
+        forecast = OpenMeteoJsonDecoder.decode(new StringReader(Payloads.forecast("7d")));
+    }
+
+    /** Lo que lee MainActivity.displayWeatherData. */
+    @Benchmark
+    public void displayed(Blackhole blackhole) {
+        display(WeatherResponseMapper.toWeatherResponse(forecast, "Madrid", "ES", metric), blackhole);
+    }
+
+    @Benchmark
+    public void displayedImperial(Blackhole blackhole) {
+        display(WeatherResponseMapper.toWeatherResponse(forecast, "Madrid", "ES", imperial), blackhole);
+    }
+
+    /** Todos los objetos que construía la conversión anterior en cada actualización. */
+    @Benchmark
+    public void materialized(Blackhole blackhole) {
+        WeatherResponse response = WeatherResponseMapper.toWeatherResponse(forecast, "Madrid", "ES", metric);
+        blackhole.consume(response.getCoord());
+        blackhole.consume(response.getWeather());
+        blackhole.consume(response.getMain());
+        blackhole.consume(response.getWind());
+        blackhole.consume(response.getClouds());
+        blackhole.consume(response.getSys());
+    }
+
+    private static void display(WeatherResponse response, Blackhole blackhole) {
+        blackhole.consume(response.getTemperature());
+        blackhole.consume(response.getFeelsLike());
+        blackhole.consume(response.getTemperatureMin());
+        blackhole.consume(response.getTemperatureMax());
+        blackhole.consume(response.getHumidity());
+        blackhole.consume(response.getPressure());
+        blackhole.consume(response.getWindSpeed());
+        blackhole.consume(response.getVisibility());
+        blackhole.consume(response.getWeatherCode());
+        blackhole.consume(response.isDay());
+        blackhole.consume(response.getName());
+        blackhole.consume(response.getCountry());
+    }
+}
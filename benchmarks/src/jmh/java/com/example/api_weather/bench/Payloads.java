@@ -0,0 +1,33 @@
+package com.example.api_weather.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Respuestas grabadas de /v1/forecast (weather-core/src/test/resources) con las que se
+ * alimentan los benchmarks: Madrid, current + 7 o 16 días de hourly y daily.
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    /** @param days "7d" o "16d" */
+    static String forecast(String days) throws IOException {
+        String name = "openmeteo_forecast_" + days + "_hourly.json";
+        try (InputStream in = Payloads.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IOException("missing payload " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.api_weather.bench;
+
+import com.example.api_weather.api.OpenMeteoJsonDecoder;
+import com.example.api_weather.model.ForecastSeries;
+import com.example.api_weather.model.WeatherCode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traducción de los códigos WMO de las 384 horas del pronóstico de 16 días a lo que pintan
+ * las listas: categoría, icono de día o de noche y descripción.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WeatherCodeBenchmark {
+    private short[] codes;
+
+    @Setup
+    public void decode() throws IOException {
+        ForecastSeries hourly = OpenMeteoJsonDecoder.decode(new StringReader(Payloads.forecast("16d"))).getHourly();
+        codes = hourly.getShortColumn(ForecastSeries.Variable.WEATHER_CODE);
+    }
+
+    @Benchmark
+    public void hourlyRows(Blackhole blackhole) {
+        for (int i = 0; i < codes.length; i++) {
+            WeatherCode code = WeatherCode.of(codes[i]);
+            blackhole.consume(code.getMain());
+            blackhole.consume(code.getIconId((i % 24) >= 7 && (i % 24) < 20));
+            blackhole.consume(code.getDescription());
+        }
+    }
+}
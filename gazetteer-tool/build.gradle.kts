@@ -0,0 +1,26 @@
+// Herramienta de escritorio que genera app/src/main/assets/gazetteer.bin a partir de un volcado
+// de GeoNames. No forma parte del APK; el lector (Gazetteer) vive en :weather-core.
+//
+//   ./gradlew :gazetteer-tool:run --args="cities1000.txt ../app/src/main/assets/gazetteer.bin"
+plugins {
+    application
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+application {
+    mainClass.set("com.example.api_weather.search.GazetteerWriter")
+}
+
+dependencies {
+    implementation(project(":weather-core"))
+
+    testImplementation(libs.junit)
+}
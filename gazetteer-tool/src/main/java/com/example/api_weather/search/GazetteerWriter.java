@@ -0,0 +1,146 @@
+package com.example.api_weather.search;
+
+import com.example.api_weather.cache.GeocodingCache;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Genera el binario que lee Gazetteer. Se ejecuta en el equipo de desarrollo, no en la app:
+ * <pre>
+ * ./gradlew :gazetteer-tool:run --args="cities1000.txt ../app/src/main/assets/gazetteer.bin [máximo]"
+ * </pre>
+ * La entrada es un volcado de GeoNames (cities1000.txt o similar, separado por tabuladores);
+ * se conservan las MAX_PLACES localidades más pobladas.
+ */
+public class GazetteerWriter {
+    static final int MAX_PLACES = 100_000;
+
+    public static class Place {
+        final int id;
+        final String name;
+        final float latitude;
+        final float longitude;
+        final long population;
+        final String countryCode;
+        final byte[] normalizedName;
+
+        public Place(int id, String name, float latitude, float longitude, long population, String countryCode) {
+            this.id = id;
+            this.name = name;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.population = population;
+            this.countryCode = countryCode;
+            this.normalizedName = GeocodingCache.normalize(name).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public static void write(List<Place> input, OutputStream output) throws IOException {
+        List<Place> places = new ArrayList<>(input);
+        // Mismo orden que la búsqueda binaria del lector: bytes UTF-8 y después población
+        Collections.sort(places, (a, b) -> {
+            int byName = compareBytes(a.normalizedName, b.normalizedName);
+            return byName != 0 ? byName : Long.compare(b.population, a.population);
+        });
+
+        ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+        DataOutputStream strings = new DataOutputStream(stringBytes);
+        Map<String, Integer> stringOffsets = new HashMap<>();
+        int[] normalizedOffsets = new int[places.size()];
+        int[] nameOffsets = new int[places.size()];
+        for (int i = 0; i < places.size(); i++) {
+            Place place = places.get(i);
+            normalizedOffsets[i] = intern(new String(place.normalizedName, StandardCharsets.UTF_8), strings, stringOffsets);
+            nameOffsets[i] = intern(place.name, strings, stringOffsets);
+        }
+
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(Gazetteer.MAGIC);
+        out.writeInt(places.size());
+        out.writeInt(Gazetteer.HEADER_SIZE + places.size() * Gazetteer.RECORD_SIZE);
+        for (int i = 0; i < places.size(); i++) {
+            Place place = places.get(i);
+            out.writeInt(normalizedOffsets[i]);
+            out.writeInt(nameOffsets[i]);
+            out.writeInt(place.id);
+            out.writeFloat(place.latitude);
+            out.writeFloat(place.longitude);
+            out.writeInt((int) Math.min(place.population, 0xFFFFFFFFL));
+            String countryCode = place.countryCode != null && place.countryCode.length() == 2 ? place.countryCode : "??";
+            out.writeByte(countryCode.charAt(0));
+            out.writeByte(countryCode.charAt(1));
+            out.writeShort(0);
+        }
+        stringBytes.writeTo(out);
+        out.flush();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: GazetteerWriter <geonames.tsv> <gazetteer.bin> [max places]");
+            return;
+        }
+        int maxPlaces = args.length > 2 ? Integer.parseInt(args[2]) : MAX_PLACES;
+        List<Place> places = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(args[0]), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // geonameid, name, asciiname, alternatenames, lat, lon, clase, código, país, ..., población (14)
+                String[] fields = line.split("\t", -1);
+                if (fields.length < 15 || !"P".equals(fields[6])) {
+                    continue;
+                }
+                places.add(new Place(Integer.parseInt(fields[0]), fields[1],
+                        Float.parseFloat(fields[4]), Float.parseFloat(fields[5]),
+                        fields[14].isEmpty() ? 0 : Long.parseLong(fields[14]), fields[8]));
+            }
+        }
+        Collections.sort(places, (a, b) -> Long.compare(b.population, a.population));
+        if (places.size() > maxPlaces) {
+            places = new ArrayList<>(places.subList(0, maxPlaces));
+        }
+        try (OutputStream output = new FileOutputStream(args[1])) {
+            write(places, output);
+        }
+        System.out.println("Wrote " + places.size() + " places to " + args[1]);
+    }
+
+    private static int intern(String value, DataOutputStream strings, Map<String, Integer> offsets) throws IOException {
+        Integer existing = offsets.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int offset = strings.size();
+        strings.writeShort(bytes.length);
+        strings.write(bytes);
+        offsets.put(value, offset);
+        return offset;
+    }
+
+    private static int compareBytes(byte[] a, byte[] b) {
+        int common = Math.min(a.length, b.length);
+        for (int i = 0; i < common; i++) {
+            int x = a[i] & 0xFF;
+            int y = b[i] & 0xFF;
+            if (x != y) {
+                return x - y;
+            }
+        }
+        return a.length - b.length;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.api_weather.search;
+
+import com.example.api_weather.model.GeocodingResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Ida y vuelta del formato: lo que escribe GazetteerWriter lo encuentra Gazetteer.
+ */
+public class GazetteerWriterTest {
+    private Gazetteer gazetteer;
+
+    @Before
+    public void setUp() throws IOException {
+        List<GazetteerWriter.Place> places = Arrays.asList(
+                new GazetteerWriter.Place(2514256, "Málaga", 36.72016f, -4.42034f, 568_305, "ES"),
+                new GazetteerWriter.Place(3675443, "Málaga", 6.69903f, -72.73233f, 20_000, "CO"),
+                new GazetteerWriter.Place(2520058, "Cádiz", 36.52672f, -6.2891f, 116_979, "ES"),
+                new GazetteerWriter.Place(3117735, "Madrid", 40.4165f, -3.70256f, 3_255_944, "ES"),
+                new GazetteerWriter.Place(2988507, "Paris", 48.85341f, 2.3488f, 2_138_551, "FR"),
+                new GazetteerWriter.Place(1850147, "東京", 35.6895f, 139.69171f, 8_336_599, "JP"),
+                new GazetteerWriter.Place(2643743, "London", 51.50853f, -0.12574f, 8_961_989, "GB"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GazetteerWriter.write(places, output);
+        gazetteer = new Gazetteer(ByteBuffer.wrap(output.toByteArray()));
+    }
+
+    @Test
+    public void findIgnoresAccentsCaseAndSpacing() {
+        assertEquals(7, gazetteer.size());
+        GeocodingResponse.Location malaga = gazetteer.find("  MALAGA ");
+        assertNotNull(malaga);
+        assertEquals("Málaga", malaga.getName());
+        assertEquals("ES", malaga.getCountryCode());
+        assertEquals(2514256, malaga.getId());
+        assertEquals(36.72016, malaga.getLatitude(), 1e-5);
+        assertEquals(-4.42034, malaga.getLongitude(), 1e-5);
+        assertEquals(568_305, malaga.getPopulation());
+
+        assertEquals("Cádiz", gazetteer.find("cadiz").getName());
+        assertEquals("東京", gazetteer.find("東京").getName());
+        assertNull(gazetteer.find("Madri"));
+        assertNull(gazetteer.find("Sevilla"));
+    }
+
+    @Test
+    public void homonymsResolveToTheMostPopulous() {
+        assertEquals("ES", gazetteer.find("Málaga").getCountryCode());
+        List<GeocodingResponse.Location> both = gazetteer.findByPrefix("málaga", 10);
+        assertEquals(2, both.size());
+        assertEquals("ES", both.get(0).getCountryCode());
+        assertEquals("CO", both.get(1).getCountryCode());
+    }
+
+    @Test
+    public void findByPrefixIsAlphabeticalAndLimited() {
+        assertEquals(Arrays.asList("Madrid", "Málaga", "Málaga"), names(gazetteer.findByPrefix("MA", 10)));
+        assertEquals(Arrays.asList("Madrid", "Málaga"), names(gazetteer.findByPrefix("ma", 2)));
+        assertEquals(Arrays.asList("Cádiz"), names(gazetteer.findByPrefix("Cá", 10)));
+        assertTrue(gazetteer.findByPrefix("zz", 10).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void otherFilesAreRejected() {
+        new Gazetteer(ByteBuffer.wrap(new byte[]{'P', 'K', 3, 4, 0, 0, 0, 0, 0, 0, 0, 0}));
+    }
+
+    private static List<String> names(List<GeocodingResponse.Location> locations) {
+        String[] names = new String[locations.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = locations.get(i).getName();
+        }
+        return Arrays.asList(names);
+    }
+}
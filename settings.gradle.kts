@@ -21,4 +21,7 @@ dependencyResolutionManagement {
 
 rootProject.name = "API_WEATHER"
 include(":app")
+include(":weather-core")
+include(":benchmarks")
+include(":gazetteer-tool")
  
\ No newline at end of file
@@ -0,0 +1,25 @@
+// Núcleo del clima sin Android: clientes de Open-Meteo, modelo, conversión, métricas
+// derivadas, cachés y WeatherEngine. Lo usan la app, los benchmarks y cualquier servicio JVM.
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    // Tipos de la API pública: WeatherApi devuelve Call de Retrofit, los modelos usan Gson
+    api(libs.retrofit)
+    api(libs.okhttp)
+    api(libs.gson)
+    implementation(libs.retrofit.gson)
+
+    testImplementation(libs.junit)
+    testImplementation(libs.okhttp.mockwebserver)
+}
@@ -0,0 +1,49 @@
+package com.example.api_weather.api;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Interceptor de red que reescribe las cabeceras de caché de Open-Meteo, que no indican
+ * frescura útil, según una política por endpoint:
+ * - forecast: fresco hasta el siguiente intervalo de actualización de 15 minutos.
+ * - search (geocodificación): un día, las coordenadas de una ciudad no cambian.
+ * Si el servidor envía ETag o Last-Modified se conservan, y OkHttp los usa para
+ * revalidar con peticiones condicionales.
+ */
+public class CachePolicyInterceptor implements Interceptor {
+    static final long FORECAST_BUCKET_SECONDS = TimeUnit.MINUTES.toSeconds(15);
+    static final long GEOCODING_MAX_AGE_SECONDS = TimeUnit.DAYS.toSeconds(1);
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        if (!"GET".equals(request.method()) || !response.isSuccessful()) {
+            return response;
+        }
+        long maxAge = maxAgeSeconds(request.url().encodedPath(), System.currentTimeMillis() / 1000);
+        if (maxAge <= 0) {
+            return response;
+        }
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .header("Cache-Control", "public, max-age=" + maxAge)
+                .build();
+    }
+
+    static long maxAgeSeconds(String path, long nowSeconds) {
+        if (path.endsWith("/forecast")) {
+            return FORECAST_BUCKET_SECONDS - nowSeconds % FORECAST_BUCKET_SECONDS;
+        }
+        if (path.endsWith("/search")) {
+            return GEOCODING_MAX_AGE_SECONDS;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.api_weather.api;
+
+import java.util.Locale;
+
+/**
+ * Registro inmutable de una llamada HTTP: tiempos por fase en milisegundos (-1 si la fase
+ * no ocurrió, p. ej. DNS o TLS con una conexión reutilizada), bytes transferidos y estado.
+ */
+public class CallTrace {
+    private final long startedAtMillis;
+    private final String method;
+    private final String url;
+    private final int status;
+    private final String cache;
+    private final long dnsMs;
+    private final long connectMs;
+    private final long tlsMs;
+    private final long ttfbMs;
+    private final long bodyReadMs;
+    private final long totalMs;
+    private final long bytesSent;
+    private final long bytesReceived;
+    private final String error;
+
+    CallTrace(long startedAtMillis, String method, String url, int status, String cache,
+              long dnsMs, long connectMs, long tlsMs, long ttfbMs, long bodyReadMs, long totalMs,
+              long bytesSent, long bytesReceived, String error) {
+        this.startedAtMillis = startedAtMillis;
+        this.method = method;
+        this.url = url;
+        this.status = status;
+        this.cache = cache;
+        this.dnsMs = dnsMs;
+        this.connectMs = connectMs;
+        this.tlsMs = tlsMs;
+        this.ttfbMs = ttfbMs;
+        this.bodyReadMs = bodyReadMs;
+        this.totalMs = totalMs;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+        this.error = error;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /** "network", "hit", "conditional" o "miss" según cómo se resolvió en la caché HTTP. */
+    public String getCache() {
+        return cache;
+    }
+
+    public long getDnsMs() {
+        return dnsMs;
+    }
+
+    public long getConnectMs() {
+        return connectMs;
+    }
+
+    public long getTlsMs() {
+        return tlsMs;
+    }
+
+    public long getTtfbMs() {
+        return ttfbMs;
+    }
+
+    public long getBodyReadMs() {
+        return bodyReadMs;
+    }
+
+    public long getTotalMs() {
+        return totalMs;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%s %s -> %d [%s] dns=%d connect=%d tls=%d ttfb=%d body=%d total=%dms sent=%dB recv=%dB%s",
+                method, url, status, cache, dnsMs, connectMs, tlsMs, ttfbMs, bodyReadMs, totalMs,
+                bytesSent, bytesReceived, error != null ? " error=" + error : "");
+    }
+}
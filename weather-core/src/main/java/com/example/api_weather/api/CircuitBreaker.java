@@ -0,0 +1,90 @@
+package com.example.api_weather.api;
+
+import java.io.IOException;
+import java.util.function.LongSupplier;
+
+/**
+ * Cortocircuito de un host: tras FAILURE_THRESHOLD fallos seguidos (E/S o 5xx) deja de
+ * enviarle peticiones durante openMs y falla al instante con OpenException. Pasado ese
+ * tiempo deja pasar una única petición de prueba: si va bien se cierra, si falla vuelve a
+ * abrirse otro periodo completo.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /** Petición rechazada sin tocar la red porque el host está cortocircuitado. */
+    public static class OpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public OpenException(String host) {
+            super("Circuito abierto para " + host);
+        }
+    }
+
+    private final String host;
+    private final int failureThreshold;
+    private final long openMs;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String host, int failureThreshold, long openMs, LongSupplier clock) {
+        this.host = host;
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Reserva permiso para una petición. Con el circuito medio abierto solo lo concede a la
+     * primera; el resto falla hasta conocer su resultado.
+     */
+    public synchronized void acquire() throws OpenException {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openMs) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.OPEN || (state == State.HALF_OPEN && probeInFlight)) {
+            throw new OpenException(host);
+        }
+        if (state == State.HALF_OPEN) {
+            probeInFlight = true;
+        }
+    }
+
+    /** true si admite una petición adicional de cobertura (solo con el circuito cerrado). */
+    public synchronized boolean allowsHedge() {
+        return state == State.CLOSED;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            probeInFlight = false;
+        }
+    }
+
+    /** Libera el permiso de una petición cancelada, que no dice nada de la salud del host. */
+    public synchronized void onCancel() {
+        probeInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
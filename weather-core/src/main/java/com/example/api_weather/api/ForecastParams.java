@@ -0,0 +1,46 @@
+package com.example.api_weather.api;
+
+import com.example.api_weather.model.ForecastSeries;
+import com.example.api_weather.model.Projection;
+
+/**
+ * Parámetros de /v1/forecast que comparten la pantalla principal y la precarga en segundo
+ * plano. Deben coincidir para que ambos usen las mismas claves de ForecastCache.
+ *
+ * Las variables no son fijas: cada consumidor declara su Projection en ProjectionRegistry
+ * y se pide la unión. CONDITIONS es la de WeatherResponse (tarjeta principal y lista de
+ * ubicaciones), que la precarga pide sin que haya ninguna pantalla abierta.
+ */
+public final class ForecastParams {
+    public static final Projection CONDITIONS = Projection.builder()
+            .current(ForecastSeries.Variable.TEMPERATURE_2M,
+                    ForecastSeries.Variable.RELATIVE_HUMIDITY_2M,
+                    ForecastSeries.Variable.WEATHER_CODE,
+                    ForecastSeries.Variable.WIND_SPEED_10M,
+                    ForecastSeries.Variable.PRESSURE_MSL,
+                    ForecastSeries.Variable.UV_INDEX,
+                    ForecastSeries.Variable.IS_DAY)
+            .daily(ForecastSeries.Variable.TEMPERATURE_2M_MAX,
+                    ForecastSeries.Variable.TEMPERATURE_2M_MIN)
+            .build();
+    // Pantalla de horas y días: 16 días de pronóstico (384 filas horarias)
+    public static final int OUTLOOK_DAYS = 16;
+    public static final String TIMEZONE = "auto";
+    // Tiempos como segundos epoch: el eje del pronóstico columnar se decodifica sin parsear fechas
+    public static final String TIME_FORMAT = "unixtime";
+    /** Longitud de la URL de un lote de la precarga sin coordenadas. */
+    public static final int BATCH_FIXED_URL_LENGTH = batchFixedUrlLength(CONDITIONS);
+
+    private ForecastParams() {
+    }
+
+    /** Longitud de la URL de un lote sin coordenadas; Retrofit codifica las comas como %2C. */
+    public static int batchFixedUrlLength(Projection projection) {
+        return ("https://api.open-meteo.com/v1/forecast"
+                + "?latitude=&longitude=&current=" + projection.getCurrent() + "&daily=" + projection.getDaily()
+                + "&timezone=" + TIMEZONE + "&timeformat=" + TIME_FORMAT
+                // Unidades del perfil en el peor caso (los nombres más largos)
+                + "&temperature_unit=fahrenheit&wind_speed_unit=kmh&precipitation_unit=inch")
+                .replace(",", "%2C").length();
+    }
+}
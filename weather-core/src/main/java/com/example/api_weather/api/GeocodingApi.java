@@ -0,0 +1,16 @@
+package com.example.api_weather.api;
+
+import com.example.api_weather.model.GeocodingResponse;
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Query;
+
+public interface GeocodingApi {
+    @GET("search")
+    Call<GeocodingResponse> searchLocation(
+            @Query("name") String name,
+            @Query("count") int count,
+            @Query("language") String language,
+            @Query("format") String format
+    );
+}
@@ -0,0 +1,44 @@
+package com.example.api_weather.api;
+
+import java.util.Arrays;
+
+/**
+ * Latencias recientes de un host en un buffer circular, para estimar el percentil a partir
+ * del cual merece la pena enviar una petición de cobertura. Con menos de MIN_SAMPLES
+ * muestras no hay estimación.
+ */
+public class LatencyTracker {
+    static final int MIN_SAMPLES = 20;
+
+    private final long[] samples;
+    private final long[] scratch;
+    private int next;
+    private int count;
+
+    public LatencyTracker(int capacity) {
+        samples = new long[capacity];
+        scratch = new long[capacity];
+    }
+
+    public synchronized void record(long latencyMs) {
+        samples[next] = latencyMs;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * Percentil (0..1) de las muestras por el método del rango más próximo, o -1 si aún no
+     * hay suficientes.
+     */
+    public synchronized long percentile(double p) {
+        if (count < MIN_SAMPLES) {
+            return -1;
+        }
+        System.arraycopy(samples, 0, scratch, 0, count);
+        Arrays.sort(scratch, 0, count);
+        int rank = (int) Math.ceil(p * count);
+        return scratch[Math.max(0, Math.min(count, rank) - 1)];
+    }
+}
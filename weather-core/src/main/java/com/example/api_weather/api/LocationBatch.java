@@ -0,0 +1,77 @@
+package com.example.api_weather.api;
+
+import com.example.api_weather.model.GeocodingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Grupo de ubicaciones que caben en una sola petición de pronóstico con coordenadas
+ * separadas por comas. plan() parte una lista larga en grupos cuya URL no supera
+ * MAX_URL_LENGTH, para no chocar con los límites de servidores y proxies.
+ */
+public class LocationBatch {
+    static final int MAX_URL_LENGTH = 2000;
+
+    private final List<GeocodingResponse.Location> locations;
+    private final String latitudes;
+    private final String longitudes;
+
+    private LocationBatch(List<GeocodingResponse.Location> locations, String latitudes, String longitudes) {
+        this.locations = locations;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    public List<GeocodingResponse.Location> getLocations() {
+        return locations;
+    }
+
+    public String getLatitudes() {
+        return latitudes;
+    }
+
+    public String getLongitudes() {
+        return longitudes;
+    }
+
+    /**
+     * @param fixedUrlLength longitud de la URL sin las coordenadas (base + resto de parámetros)
+     */
+    public static List<LocationBatch> plan(List<GeocodingResponse.Location> locations, int fixedUrlLength) {
+        List<LocationBatch> batches = new ArrayList<>();
+        int budget = MAX_URL_LENGTH - fixedUrlLength;
+        List<GeocodingResponse.Location> group = new ArrayList<>();
+        StringBuilder latitudes = new StringBuilder();
+        StringBuilder longitudes = new StringBuilder();
+        for (GeocodingResponse.Location location : locations) {
+            String lat = formatCoordinate(location.getLatitude());
+            String lon = formatCoordinate(location.getLongitude());
+            // +2 por las comas separadoras de latitud y longitud
+            int added = lat.length() + lon.length() + 2;
+            if (!group.isEmpty() && latitudes.length() + longitudes.length() + added > budget) {
+                batches.add(new LocationBatch(group, latitudes.toString(), longitudes.toString()));
+                group = new ArrayList<>();
+                latitudes.setLength(0);
+                longitudes.setLength(0);
+            }
+            if (!group.isEmpty()) {
+                latitudes.append(',');
+                longitudes.append(',');
+            }
+            latitudes.append(lat);
+            longitudes.append(lon);
+            group.add(location);
+        }
+        if (!group.isEmpty()) {
+            batches.add(new LocationBatch(group, latitudes.toString(), longitudes.toString()));
+        }
+        return batches;
+    }
+
+    // 4 decimales (~11 m) bastan para un pronóstico y acortan la URL
+    private static String formatCoordinate(double value) {
+        return String.format(Locale.ROOT, "%.4f", value);
+    }
+}
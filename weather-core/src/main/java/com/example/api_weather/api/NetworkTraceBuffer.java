@@ -0,0 +1,43 @@
+package com.example.api_weather.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Buffer circular con las últimas N trazas de red, para diagnosticar peticiones lentas
+ * desde la propia app.
+ */
+public class NetworkTraceBuffer {
+    private final CallTrace[] traces;
+    private int next;
+    private int size;
+
+    public NetworkTraceBuffer(int capacity) {
+        this.traces = new CallTrace[capacity];
+    }
+
+    public synchronized void add(CallTrace trace) {
+        traces[next] = trace;
+        next = (next + 1) % traces.length;
+        if (size < traces.length) {
+            size++;
+        }
+    }
+
+    /** Copia de las trazas almacenadas, de la más antigua a la más reciente. */
+    public synchronized List<CallTrace> snapshot() {
+        List<CallTrace> result = new ArrayList<>(size);
+        int start = (next - size + traces.length) % traces.length;
+        for (int i = 0; i < size; i++) {
+            result.add(traces[(start + i) % traces.length]);
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(traces, null);
+        next = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.api_weather.api;
+
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Clientes Retrofit de Open-Meteo sobre un OkHttpClient dado: en la app el compartido de
+ * HttpClientProvider, en un servicio el que configure el servidor.
+ */
+public final class OpenMeteo {
+    public static final String FORECAST_URL = "https://api.open-meteo.com/v1/";
+    public static final String GEOCODING_URL = "https://geocoding-api.open-meteo.com/v1/";
+
+    private OpenMeteo() {
+    }
+
+    public static WeatherApi weatherApi(OkHttpClient client) {
+        return weatherApi(client, FORECAST_URL);
+    }
+
+    public static WeatherApi weatherApi(OkHttpClient client, String baseUrl) {
+        return new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .client(client)
+                // Decodificación en streaming de Forecast; Gson para el resto
+                .addConverterFactory(OpenMeteoConverterFactory.create())
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(WeatherApi.class);
+    }
+
+    public static GeocodingApi geocodingApi(OkHttpClient client) {
+        return geocodingApi(client, GEOCODING_URL);
+    }
+
+    public static GeocodingApi geocodingApi(OkHttpClient client, String baseUrl) {
+        return new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(GeocodingApi.class);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.api_weather.api;
+
+import com.example.api_weather.model.Forecast;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Converter.Factory que decodifica Forecast y List&lt;Forecast&gt; con OpenMeteoJsonDecoder.
+ * Para cualquier otro tipo devuelve null y Retrofit pasa al siguiente converter (Gson).
+ */
+public class OpenMeteoConverterFactory extends Converter.Factory {
+
+    public static OpenMeteoConverterFactory create() {
+        return new OpenMeteoConverterFactory();
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        if (type == Forecast.class) {
+            return (Converter<ResponseBody, Forecast>) body -> {
+                try {
+                    return OpenMeteoJsonDecoder.decode(body.charStream());
+                } finally {
+                    body.close();
+                }
+            };
+        }
+        if (isForecastList(type)) {
+            return (Converter<ResponseBody, List<Forecast>>) body -> {
+                try {
+                    return OpenMeteoJsonDecoder.decodeList(body.charStream());
+                } finally {
+                    body.close();
+                }
+            };
+        }
+        return null;
+    }
+
+    private static boolean isForecastList(Type type) {
+        if (!(type instanceof ParameterizedType)) {
+            return false;
+        }
+        ParameterizedType parameterized = (ParameterizedType) type;
+        return parameterized.getRawType() == List.class
+                && parameterized.getActualTypeArguments()[0] == Forecast.class;
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.api_weather.api;
+
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.ForecastSeries;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decodificador en streaming de la respuesta de /v1/forecast. Lee con JsonReader solo las
+ * variables de ForecastSeries.Variable y las vuelca directamente en columnas de primitivos,
+ * sin reflexión ni listas de Double. Los bloques "*_units" y cualquier campo desconocido se
+ * saltan sin materializarse.
+ *
+ * Espera timeformat=unixtime: el eje "time" se lee como segundos epoch.
+ */
+public final class OpenMeteoJsonDecoder {
+    private static final int INITIAL_CAPACITY = 32;
+
+    private OpenMeteoJsonDecoder() {
+    }
+
+    public static Forecast decode(Reader reader) throws IOException {
+        return readForecast(new JsonReader(reader));
+    }
+
+    /**
+     * Decodifica la respuesta de una petición con varias coordenadas separadas por comas:
+     * un array con un pronóstico por ubicación, en el mismo orden de la petición. Con una
+     * sola ubicación Open-Meteo devuelve un objeto, que se trata como lista de un elemento.
+     */
+    public static List<Forecast> decodeList(Reader reader) throws IOException {
+        JsonReader in = new JsonReader(reader);
+        List<Forecast> forecasts = new ArrayList<>();
+        if (in.peek() == JsonToken.BEGIN_OBJECT) {
+            forecasts.add(readForecast(in));
+            return forecasts;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            forecasts.add(readForecast(in));
+        }
+        in.endArray();
+        return forecasts;
+    }
+
+    private static Forecast readForecast(JsonReader in) throws IOException {
+        double latitude = 0;
+        double longitude = 0;
+        int utcOffsetSeconds = 0;
+        String timezone = null;
+        double elevation = Double.NaN;
+        ForecastSeries current = null;
+        ForecastSeries hourly = null;
+        ForecastSeries daily = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "latitude":
+                    latitude = in.nextDouble();
+                    break;
+                case "longitude":
+                    longitude = in.nextDouble();
+                    break;
+                case "utc_offset_seconds":
+                    utcOffsetSeconds = in.nextInt();
+                    break;
+                case "timezone":
+                    timezone = nextStringOrNull(in);
+                    break;
+                case "elevation":
+                    elevation = nextFloat(in);
+                    break;
+                case "current":
+                    current = readSeries(in);
+                    break;
+                case "hourly":
+                    hourly = readSeries(in);
+                    break;
+                case "daily":
+                    daily = readSeries(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+        return new Forecast(latitude, longitude, utcOffsetSeconds, timezone, elevation,
+                current, hourly, daily);
+    }
+
+    /**
+     * Lee un bloque current/hourly/daily. En "current" cada variable es un escalar y se
+     * guarda como columna de una fila; en hourly/daily es un array.
+     */
+    private static ForecastSeries readSeries(JsonReader in) throws IOException {
+        int variableCount = ForecastSeries.Variable.values().length;
+        long[] time = null;
+        float[][] floatColumns = new float[variableCount][];
+        short[][] shortColumns = new short[variableCount][];
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if ("time".equals(name)) {
+                time = readTimeColumn(in);
+                continue;
+            }
+            ForecastSeries.Variable variable = ForecastSeries.Variable.fromApiName(name);
+            if (variable == null) {
+                in.skipValue();
+            } else if (variable.isIntegral()) {
+                shortColumns[variable.ordinal()] = readShortColumn(in);
+            } else {
+                floatColumns[variable.ordinal()] = readFloatColumn(in);
+            }
+        }
+        in.endObject();
+        if (time == null) {
+            return ForecastSeries.EMPTY;
+        }
+        ForecastSeries.Builder builder = new ForecastSeries.Builder(time);
+        for (ForecastSeries.Variable variable : ForecastSeries.Variable.values()) {
+            float[] floats = floatColumns[variable.ordinal()];
+            short[] shorts = shortColumns[variable.ordinal()];
+            if (floats != null && floats.length == time.length) {
+                builder.putFloat(variable, floats);
+            } else if (shorts != null && shorts.length == time.length) {
+                builder.putShort(variable, shorts);
+            }
+        }
+        return builder.build();
+    }
+
+    private static long[] readTimeColumn(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            return new long[]{nextEpochSeconds(in)};
+        }
+        long[] values = new long[INITIAL_CAPACITY];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nextEpochSeconds(in);
+        }
+        in.endArray();
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static float[] readFloatColumn(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            return new float[]{nextFloat(in)};
+        }
+        float[] values = new float[INITIAL_CAPACITY];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nextFloat(in);
+        }
+        in.endArray();
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static short[] readShortColumn(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            return new short[]{nextShort(in)};
+        }
+        short[] values = new short[INITIAL_CAPACITY];
+        int size = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nextShort(in);
+        }
+        in.endArray();
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static long nextEpochSeconds(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.NUMBER) {
+            // Formato iso8601 u otro valor inesperado: sin timeformat=unixtime no hay eje fiable
+            in.skipValue();
+            return 0;
+        }
+        return in.nextLong();
+    }
+
+    private static float nextFloat(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return Float.NaN;
+        }
+        return (float) in.nextDouble();
+    }
+
+    private static short nextShort(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return ForecastSeries.MISSING_SHORT;
+        }
+        // Algunas variables enteras pueden llegar con decimales (p. ej. 58.0)
+        return (short) Math.round(in.nextDouble());
+    }
+
+    private static String nextStringOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+}
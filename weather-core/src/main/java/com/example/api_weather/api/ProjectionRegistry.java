@@ -0,0 +1,75 @@
+package com.example.api_weather.api;
+
+import com.example.api_weather.model.Projection;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Qué variables necesita cada consumidor de pronósticos, agrupadas por petición (Slot).
+ * Cada pantalla, lista o widget se registra con un nombre y su Projection; la capa de
+ * pronóstico pide una sola vez la unión de todos los de un mismo Slot.
+ */
+public class ProjectionRegistry {
+
+    /** Peticiones independientes a /v1/forecast y las secciones que admite cada una. */
+    public enum Slot {
+        /** Condiciones actuales y días del almacén local (current y daily, horizonte por defecto). */
+        CONDITIONS(true, false),
+        /** Horas y días de los próximos ForecastParams.OUTLOOK_DAYS días (hourly y daily). */
+        OUTLOOK(false, true);
+
+        private final boolean allowsCurrent;
+        private final boolean allowsHourly;
+
+        Slot(boolean allowsCurrent, boolean allowsHourly) {
+            this.allowsCurrent = allowsCurrent;
+            this.allowsHourly = allowsHourly;
+        }
+    }
+
+    private final Map<Slot, Map<String, Projection>> consumers = new EnumMap<>(Slot.class);
+    private final Map<Slot, Projection> merged = new EnumMap<>(Slot.class);
+
+    public ProjectionRegistry() {
+        for (Slot slot : Slot.values()) {
+            consumers.put(slot, new LinkedHashMap<>());
+            merged.put(slot, Projection.EMPTY);
+        }
+    }
+
+    /**
+     * Registra (o reemplaza) lo que necesita un consumidor.
+     *
+     * @return true si la unión del Slot ha crecido, es decir, si lo ya descargado puede no
+     * bastar y conviene volver a pedir
+     * @throws IllegalArgumentException si la proyección usa una sección que el Slot no pide
+     */
+    public synchronized boolean register(Slot slot, String consumer, Projection projection) {
+        if ((projection.getCurrentMask() != 0 && !slot.allowsCurrent)
+                || (projection.getHourlyMask() != 0 && !slot.allowsHourly)) {
+            throw new IllegalArgumentException(consumer + ": " + projection + " no cabe en " + slot);
+        }
+        consumers.get(slot).put(consumer, projection);
+        Projection before = merged.get(slot);
+        merged.put(slot, before.union(projection));
+        return !before.covers(projection);
+    }
+
+    public synchronized void unregister(Slot slot, String consumer) {
+        if (consumers.get(slot).remove(consumer) == null) {
+            return;
+        }
+        Projection union = Projection.EMPTY;
+        for (Projection projection : consumers.get(slot).values()) {
+            union = union.union(projection);
+        }
+        merged.put(slot, union);
+    }
+
+    /** Unión de lo que necesitan los consumidores del Slot; EMPTY si no hay ninguno. */
+    public synchronized Projection merged(Slot slot) {
+        return merged.get(slot);
+    }
+}
@@ -0,0 +1,419 @@
+package com.example.api_weather.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Interceptor de aplicación que hace resistentes las peticiones GET:
+ * <ul>
+ * <li>plazo total: todos los intentos, esperas y coberturas caben en deadlineMs;</li>
+ * <li>reintentos: ante un error de E/S o un 408/5xx transitorio se repite hasta
+ * maxAttempts veces, con espera exponencial con jitter completo (o la de Retry-After si es
+ * mayor) y sin pasarse del plazo; un 429 se repite tras la espera que pide Retry-After (la
+ * exponencial si no la indica);</li>
+ * <li>cobertura ("hedging"): si un intento tarda más que el p95 reciente de su host se
+ * lanza un segundo idéntico; gana el primero que responda bien y el otro se cancela. El p95
+ * solo cuenta respuestas que fueron a la red: las servidas por la caché HTTP no miden al
+ * host;</li>
+ * <li>cortocircuito por host (forecast y geocodificación por separado): con el host caído
+ * se falla al instante con CircuitBreaker.OpenException, que OfflineCacheInterceptor
+ * trata como cualquier error de E/S y sirve la copia en caché. Un 429 no cuenta como
+ * fallo: el host está vivo y pide ir más despacio.</li>
+ * </ul>
+ * Los intentos no pasan por chain.proceed, que no admite llamadas concurrentes: se lanzan
+ * sobre transport, un cliente sin este interceptor que comparte caché y conexiones pero
+ * tiene su propio dispatcher, para que las llamadas externas que esperan no ocupen los
+ * huecos que necesitan sus intentos. Lo que no es un GET a la red pasa sin cambios.
+ *
+ * El hilo de la llamada externa duerme hasta que ocurre algo (llega un intento, toca lanzar
+ * la cobertura, vence el plazo o termina la espera entre reintentos), sin sondeos. Para que
+ * cancelar la llamada externa lo despierte al instante, el cliente externo debe instalar
+ * cancellationListener() como EventListener.Factory; sin él, la cancelación solo se nota en
+ * el siguiente de esos eventos.
+ */
+public class ResilienceInterceptor implements Interceptor {
+    static final long DEADLINE_MS = 15_000;
+    static final int MAX_ATTEMPTS = 3;
+    static final long BASE_BACKOFF_MS = 250;
+    static final long MAX_BACKOFF_MS = 2_000;
+    static final double HEDGE_PERCENTILE = 0.95;
+    static final long MIN_HEDGE_DELAY_MS = 50;
+    static final int FAILURE_THRESHOLD = 5;
+    static final long OPEN_MS = 30_000;
+    private static final int LATENCY_SAMPLES = 64;
+
+    private final Call.Factory transport;
+    private final long deadlineMs;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final LongSupplier clock;
+    private final Random random;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+    // Llamadas externas en curso, para despertarlas cuando se cancelan
+    private final Map<Call, Cancellation> cancellations = new ConcurrentHashMap<>();
+
+    public ResilienceInterceptor(Call.Factory transport) {
+        this(transport, DEADLINE_MS, MAX_ATTEMPTS, BASE_BACKOFF_MS, System::currentTimeMillis, new Random());
+    }
+
+    /** @param clock reloj en milisegundos de los cortocircuitos */
+    ResilienceInterceptor(Call.Factory transport, long deadlineMs, int maxAttempts, long baseBackoffMs,
+                          LongSupplier clock, Random random) {
+        this.transport = transport;
+        this.deadlineMs = deadlineMs;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.clock = clock;
+        this.random = random;
+    }
+
+    /**
+     * EventListener para el cliente externo (el que lleva este interceptor): avisa de la
+     * cancelación de una llamada a la espera que la esté reteniendo.
+     */
+    public EventListener.Factory cancellationListener() {
+        return call -> new EventListener() {
+            @Override
+            public void canceled(Call call) {
+                Cancellation cancellation = cancellations.get(call);
+                if (cancellation != null) {
+                    cancellation.cancel();
+                }
+            }
+        };
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!"GET".equals(request.method()) || request.cacheControl().onlyIfCached()) {
+            return chain.proceed(request);
+        }
+        Call outer = chain.call();
+        Cancellation cancellation = new Cancellation(outer);
+        cancellations.put(outer, cancellation);
+        try {
+            return intercept(request, cancellation);
+        } finally {
+            cancellations.remove(outer, cancellation);
+        }
+    }
+
+    private Response intercept(Request request, Cancellation cancellation) throws IOException {
+        String host = request.url().host();
+        CircuitBreaker breaker = breakerFor(host);
+        LatencyTracker latency = latencyFor(host);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        breaker.acquire();
+        for (int attempt = 1; ; attempt++) {
+            Outcome outcome = race(cancellation, request, deadline, breaker, latency);
+            if (!outcome.isRetryable() || attempt >= maxAttempts) {
+                return outcome.get();
+            }
+            long waitMs = outcome.isThrottled() && outcome.retryAfterMs() > 0
+                    ? outcome.retryAfterMs()
+                    : Math.max(backoffMs(attempt), outcome.retryAfterMs());
+            if (TimeUnit.MILLISECONDS.toNanos(waitMs) >= deadline - System.nanoTime()) {
+                return outcome.get();
+            }
+            try {
+                if (cancellation.await(waitMs)) {
+                    throw new IOException("Canceled");
+                }
+                breaker.acquire();
+            } catch (CircuitBreaker.OpenException e) {
+                // Este mismo fallo ha abierto el circuito: se entrega tal cual
+                return outcome.get();
+            } catch (IOException e) {
+                outcome.close();
+                throw e;
+            }
+            outcome.close();
+        }
+    }
+
+    /** Espera antes del reintento n (1..): aleatoria entre 0 y base·2^(n-1), con tope. */
+    long backoffMs(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MS, baseBackoffMs << Math.min(attempt - 1, 16));
+        return (long) (random.nextDouble() * ceiling);
+    }
+
+    CircuitBreaker breakerFor(String host) {
+        return breakers.computeIfAbsent(host,
+                key -> new CircuitBreaker(key, FAILURE_THRESHOLD, OPEN_MS, clock));
+    }
+
+    LatencyTracker latencyFor(String host) {
+        return latencies.computeIfAbsent(host, key -> new LatencyTracker(LATENCY_SAMPLES));
+    }
+
+    /**
+     * Un intento: la petición y, si tarda más del p95 del host, su cobertura. Devuelve el
+     * primer resultado bueno o, si ambos fallan, el último fallo.
+     */
+    private Outcome race(Cancellation cancellation, Request request, long deadline, CircuitBreaker breaker,
+                         LatencyTracker latency) throws IOException {
+        Race race = new Race();
+        cancellation.watch(race);
+        long start = System.nanoTime();
+        long hedgeDelayMs = latency.percentile(HEDGE_PERCENTILE);
+        long hedgeAt = hedgeDelayMs < 0 ? Long.MAX_VALUE
+                : start + TimeUnit.MILLISECONDS.toNanos(Math.max(hedgeDelayMs, MIN_HEDGE_DELAY_MS));
+        Call primary = launch(request, deadline, race);
+        Call hedge = null;
+        int pending = 1;
+        Outcome last = null;
+        Call winner = null;
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                if (cancellation.isCanceled()) {
+                    breaker.onCancel();
+                    closeQuietly(last);
+                    throw new IOException("Canceled");
+                }
+                if (now >= deadline) {
+                    breaker.onFailure();
+                    closeQuietly(last);
+                    throw new InterruptedIOException("deadline");
+                }
+                if (hedge == null && now >= hedgeAt) {
+                    if (breaker.allowsHedge()) {
+                        hedge = launch(request, deadline, race);
+                        pending++;
+                    } else {
+                        hedgeAt = Long.MAX_VALUE;
+                    }
+                }
+                // Despierta con un resultado, una cancelación, la hora de la cobertura o el plazo
+                long until = hedge == null ? Math.min(hedgeAt, deadline) : deadline;
+                Outcome outcome = race.poll(until - now);
+                if (outcome == null) {
+                    continue;
+                }
+                pending--;
+                if (!outcome.isRetryable()) {
+                    breaker.onSuccess();
+                    if (outcome.response.networkResponse() != null) {
+                        latency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    }
+                    closeQuietly(last);
+                    winner = outcome.call;
+                    return outcome;
+                }
+                if (outcome.isThrottled()) {
+                    // Limitación del servidor: libera la prueba sin contar un fallo
+                    breaker.onCancel();
+                } else {
+                    breaker.onFailure();
+                }
+                closeQuietly(last);
+                last = outcome;
+                // Sin nada en vuelo el intento ha fallado; si aún no se había lanzado la
+                // cobertura no se lanza: repetir es cosa del reintento, con su espera
+                if (pending == 0) {
+                    winner = outcome.call;
+                    return outcome;
+                }
+            }
+        } finally {
+            cancellation.watch(null);
+            // Se cancela el perdedor; el ganador no, que aún hay que leer su cuerpo
+            race.settle();
+            if (primary != winner) {
+                primary.cancel();
+            }
+            if (hedge != null && hedge != winner) {
+                hedge.cancel();
+            }
+        }
+    }
+
+    private Call launch(Request request, long deadline, Race race) {
+        Call call = transport.newCall(request);
+        call.timeout().timeout(Math.max(1, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                race.offer(new Outcome(call, null, e));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                race.offer(new Outcome(call, response, null));
+            }
+        });
+        return call;
+    }
+
+    private static void closeQuietly(Outcome outcome) {
+        if (outcome != null) {
+            outcome.close();
+        }
+    }
+
+    /**
+     * Señal de cancelación de una llamada externa: la espera entre reintentos la aguarda con
+     * un plazo y la carrera en curso se despierta con ella.
+     */
+    private static class Cancellation {
+        private final Call outer;
+        private final CountDownLatch signal = new CountDownLatch(1);
+        private volatile Race race;
+
+        Cancellation(Call outer) {
+            this.outer = outer;
+        }
+
+        void cancel() {
+            signal.countDown();
+            Race current = race;
+            if (current != null) {
+                current.wake();
+            }
+        }
+
+        /** Cancelada por la señal o, sin cancellationListener, según la propia llamada. */
+        boolean isCanceled() {
+            return signal.getCount() == 0 || outer.isCanceled();
+        }
+
+        /** La carrera a despertar si llega la señal; null al terminarla. */
+        void watch(Race race) {
+            this.race = race;
+            if (race != null && isCanceled()) {
+                race.wake();
+            }
+        }
+
+        /** Espera hasta millis; devuelve true si la llamada se canceló antes. */
+        boolean await(long millis) throws InterruptedIOException {
+            if (isCanceled()) {
+                return true;
+            }
+            try {
+                return signal.await(millis, TimeUnit.MILLISECONDS) || outer.isCanceled();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted");
+            }
+        }
+    }
+
+    /** Resultados de los intentos en vuelo; los que llegan después de decidir se cierran. */
+    private static class Race {
+        private final Deque<Outcome> results = new ArrayDeque<>();
+        private boolean settled;
+        private boolean woken;
+
+        synchronized void offer(Outcome outcome) {
+            if (settled) {
+                outcome.close();
+            } else {
+                results.add(outcome);
+                notifyAll();
+            }
+        }
+
+        /** Interrumpe la espera de poll, que devuelve null para que se revise la cancelación. */
+        synchronized void wake() {
+            woken = true;
+            notifyAll();
+        }
+
+        synchronized Outcome poll(long timeoutNanos) throws InterruptedIOException {
+            long end = System.nanoTime() + timeoutNanos;
+            try {
+                while (results.isEmpty()) {
+                    if (woken) {
+                        return null;
+                    }
+                    long left = end - System.nanoTime();
+                    if (left <= 0) {
+                        return null;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, left);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted");
+            }
+            return results.poll();
+        }
+
+        synchronized void settle() {
+            settled = true;
+            for (Outcome outcome : results) {
+                outcome.close();
+            }
+            results.clear();
+        }
+    }
+
+    private static class Outcome {
+        final Call call;
+        final Response response;
+        final IOException error;
+
+        Outcome(Call call, Response response, IOException error) {
+            this.call = call;
+            this.response = response;
+            this.error = error;
+        }
+
+        boolean isRetryable() {
+            if (error != null) {
+                return true;
+            }
+            int code = response.code();
+            return code == 408 || code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+        }
+
+        /** 429: el servidor limita las peticiones, no está caído. */
+        boolean isThrottled() {
+            return response != null && response.code() == 429;
+        }
+
+        /** Retry-After en segundos, si el servidor lo envía; 0 si no. */
+        long retryAfterMs() {
+            String value = response != null ? response.header("Retry-After") : null;
+            if (value == null) {
+                return 0;
+            }
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        Response get() throws IOException {
+            if (error != null) {
+                throw error;
+            }
+            return response;
+        }
+
+        void close() {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+}
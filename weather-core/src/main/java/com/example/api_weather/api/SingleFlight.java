@@ -0,0 +1,138 @@
+package com.example.api_weather.api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Agrupa peticiones idénticas concurrentes ("single-flight"): mientras haya una llamada en
+ * curso para una clave, los siguientes interesados se suman a ella en lugar de lanzar otra,
+ * y todos reciben el mismo resultado. Cuando el último interesado cancela su Handle, la
+ * llamada HTTP subyacente se cancela también.
+ */
+public class SingleFlight<T> {
+    private final Map<String, Flight> flights = new HashMap<>();
+
+    /**
+     * Se suma a la llamada en curso para la clave o, si no hay ninguna, crea una con
+     * callFactory y la encola.
+     */
+    public synchronized Handle join(String key, Supplier<Call<T>> callFactory, Callback<T> callback) {
+        Flight flight = flights.get(key);
+        if (flight == null) {
+            flight = new Flight(key, callFactory.get());
+            flights.put(key, flight);
+            flight.waiters.add(callback);
+            flight.call.enqueue(flight);
+        } else {
+            flight.waiters.add(callback);
+        }
+        return new Handle(flight, callback);
+    }
+
+    /** Número de llamadas en curso; útil para diagnóstico y pruebas. */
+    public synchronized int inFlightCount() {
+        return flights.size();
+    }
+
+    public class Handle {
+        private final Flight flight;
+        private final Callback<T> callback;
+
+        private Handle(Flight flight, Callback<T> callback) {
+            this.flight = flight;
+            this.callback = callback;
+        }
+
+        public String getKey() {
+            return flight.key;
+        }
+
+        /** true mientras la llamada siga en curso y este interesado no haya cancelado. */
+        public boolean isActive() {
+            synchronized (SingleFlight.this) {
+                return flights.get(flight.key) == flight && flight.waiters.contains(callback);
+            }
+        }
+
+        /**
+         * Deja de esperar el resultado. Si no queda nadie esperando, cancela la llamada para
+         * no gastar ancho de banda en una respuesta que ya nadie va a usar.
+         */
+        public void cancel() {
+            synchronized (SingleFlight.this) {
+                if (!flight.waiters.remove(callback) || !flight.waiters.isEmpty()) {
+                    return;
+                }
+                if (flights.get(flight.key) == flight) {
+                    flights.remove(flight.key);
+                }
+            }
+            flight.call.cancel();
+        }
+    }
+
+    private class Flight implements Callback<T> {
+        private final String key;
+        private final Call<T> call;
+        private final List<Callback<T>> waiters = new ArrayList<>();
+
+        Flight(String key, Call<T> call) {
+            this.key = key;
+            this.call = call;
+        }
+
+        @Override
+        public void onResponse(Call<T> call, Response<T> response) {
+            List<Callback<T>> targets = finish();
+            byte[] errorBytes = null;
+            if (targets.size() > 1 && !response.isSuccessful() && response.errorBody() != null) {
+                // El cuerpo de error solo se puede leer una vez: se lee aquí y cada interesado
+                // recibe su propia copia
+                errorBytes = readErrorBody(response.errorBody());
+            }
+            for (Callback<T> target : targets) {
+                target.onResponse(call, errorBytes == null ? response : withErrorBody(response, errorBytes));
+            }
+        }
+
+        @Override
+        public void onFailure(Call<T> call, Throwable t) {
+            for (Callback<T> target : finish()) {
+                target.onFailure(call, t);
+            }
+        }
+
+        private List<Callback<T>> finish() {
+            synchronized (SingleFlight.this) {
+                if (flights.get(key) == this) {
+                    flights.remove(key);
+                }
+                List<Callback<T>> targets = new ArrayList<>(waiters);
+                waiters.clear();
+                return targets;
+            }
+        }
+
+        private byte[] readErrorBody(ResponseBody errorBody) {
+            try {
+                return errorBody.bytes();
+            } catch (IOException e) {
+                return new byte[0];
+            }
+        }
+
+        private Response<T> withErrorBody(Response<T> response, byte[] bytes) {
+            ResponseBody copy = ResponseBody.create(bytes, response.errorBody().contentType());
+            return Response.error(copy, response.raw());
+        }
+    }
+}
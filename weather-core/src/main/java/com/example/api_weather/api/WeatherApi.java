@@ -0,0 +1,73 @@
+package com.example.api_weather.api;
+
+import com.example.api_weather.model.Forecast;
+import java.util.List;
+import java.util.Map;
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Query;
+import retrofit2.http.QueryMap;
+
+/**
+ * Endpoints de pronóstico de Open-Meteo. units son los parámetros de UnitProfile
+ * (temperature_unit, wind_speed_unit, precipitation_unit): el servidor devuelve los valores
+ * ya convertidos.
+ */
+public interface WeatherApi {
+    @GET("forecast")
+    Call<Forecast> getCurrentWeather(
+            @Query("latitude") double latitude,
+            @Query("longitude") double longitude,
+            @Query("current") String current,
+            @Query("daily") String daily,
+            @Query("timezone") String timezone,
+            @Query("timeformat") String timeFormat,
+            @QueryMap Map<String, String> units
+    );
+
+    /**
+     * Actualización incremental: "current" más solo los días de startDate a endDate (fechas
+     * locales yyyy-MM-dd, pueden ser pasadas). Con daily null se piden solo las condiciones
+     * actuales; Retrofit omite los parámetros null.
+     */
+    @GET("forecast")
+    Call<Forecast> getForecastRange(
+            @Query("latitude") double latitude,
+            @Query("longitude") double longitude,
+            @Query("current") String current,
+            @Query("daily") String daily,
+            @Query("timezone") String timezone,
+            @Query("timeformat") String timeFormat,
+            @Query("start_date") String startDate,
+            @Query("end_date") String endDate,
+            @QueryMap Map<String, String> units
+    );
+
+    /** Serie horaria y diaria de los próximos forecastDays días, para las listas de la UI. */
+    @GET("forecast")
+    Call<Forecast> getOutlook(
+            @Query("latitude") double latitude,
+            @Query("longitude") double longitude,
+            @Query("hourly") String hourly,
+            @Query("daily") String daily,
+            @Query("timezone") String timezone,
+            @Query("timeformat") String timeFormat,
+            @Query("forecast_days") int forecastDays,
+            @QueryMap Map<String, String> units
+    );
+
+    /**
+     * Pronóstico de varias ubicaciones en una sola petición: latitudes y longitudes van
+     * separadas por comas y la respuesta trae un pronóstico por ubicación, en el mismo orden.
+     */
+    @GET("forecast")
+    Call<List<Forecast>> getCurrentWeatherBatch(
+            @Query(value = "latitude", encoded = true) String latitudes,
+            @Query(value = "longitude", encoded = true) String longitudes,
+            @Query("current") String current,
+            @Query("daily") String daily,
+            @Query("timezone") String timezone,
+            @Query("timeformat") String timeFormat,
+            @QueryMap Map<String, String> units
+    );
+}
@@ -0,0 +1,35 @@
+package com.example.api_weather.cache;
+
+import com.example.api_weather.model.Projection;
+import com.example.api_weather.model.WeatherResponse;
+
+/** Respuesta guardada con las variables con que se pidió y cuándo deja de ser fresca. */
+public class CachedForecast {
+    private final WeatherResponse response;
+    private final Projection projection;
+    private final long fetchedAt;
+    private final long expiresAt;
+
+    public CachedForecast(WeatherResponse response, Projection projection, long fetchedAt, long expiresAt) {
+        this.response = response;
+        this.projection = projection;
+        this.fetchedAt = fetchedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public WeatherResponse getResponse() {
+        return response;
+    }
+
+    public Projection getProjection() {
+        return projection;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
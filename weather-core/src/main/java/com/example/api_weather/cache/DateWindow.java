@@ -0,0 +1,20 @@
+package com.example.api_weather.cache;
+
+/** Ventana de días (fechas locales yyyy-MM-dd, ambas incluidas) que hay que descargar. */
+public class DateWindow {
+    private final String startDate;
+    private final String endDate;
+
+    public DateWindow(String startDate, String endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+}
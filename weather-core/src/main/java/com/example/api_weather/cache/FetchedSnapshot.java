@@ -0,0 +1,39 @@
+package com.example.api_weather.cache;
+
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.ForecastSeries;
+import com.example.api_weather.model.Projection;
+
+/** Snapshot de un pronóstico recién descargado, sin nada guardado detrás (ForecastStorage.NONE). */
+class FetchedSnapshot implements ForecastStorage.Snapshot {
+    private final Forecast fetched;
+
+    FetchedSnapshot(Forecast fetched) {
+        this.fetched = fetched;
+    }
+
+    @Override
+    public Forecast toForecast() {
+        return fetched;
+    }
+
+    @Override
+    public boolean coversCurrent(Projection needed) {
+        ForecastSeries current = fetched.getCurrent();
+        if (current.size() == 0) {
+            return false;
+        }
+        for (ForecastSeries.Variable variable : ForecastSeries.Variable.values()) {
+            if ((needed.getCurrentMask() & (1L << variable.ordinal())) != 0 && !current.has(variable)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Sin historial que completar: lo descargado es todo lo que hay. */
+    @Override
+    public DateWindow dailyWindowToRefresh(Projection needed) {
+        return null;
+    }
+}
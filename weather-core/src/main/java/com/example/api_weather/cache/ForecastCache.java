@@ -0,0 +1,105 @@
+package com.example.api_weather.cache;
+
+import com.example.api_weather.model.Projection;
+import com.example.api_weather.model.WeatherResponse;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché en memoria de pronósticos indexada por coordenadas redondeadas a una rejilla,
+ * la petición (scope), la zona horaria y las unidades.
+ *
+ * Las variables no forman parte de la clave: cada entrada recuerda la Projection con la
+ * que se descargó y solo sirve a quien pida un subconjunto de ella. Así una lista que
+ * necesita menos variables que la pantalla principal aprovecha su descarga, y registrar
+ * una variable nueva invalida solo las entradas que no la tienen.
+ *
+ * Open-Meteo actualiza los datos "current" cada 15 minutos, así que una entrada es fresca
+ * hasta el siguiente cuarto de hora tras su descarga. Pasado ese momento queda "obsoleta":
+ * todavía se puede mostrar mientras se revalida en segundo plano, hasta MAX_STALE_MS.
+ */
+public class ForecastCache implements ResponseCache {
+    /** Tamaño de la rejilla en grados (~1 km), por debajo de la resolución del modelo. */
+    static final double GRID_DEGREES = 0.01;
+    static final long BUCKET_MS = TimeUnit.MINUTES.toMillis(15);
+    static final long MAX_STALE_MS = TimeUnit.HOURS.toMillis(6);
+    private static final int MAX_ENTRIES = 64;
+
+    private static ForecastCache instance;
+
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, CachedForecast> entries;
+
+    /** Caché propia, p. ej. para un servicio que necesita más capacidad que la app. */
+    public ForecastCache(int maxEntries) {
+        this(maxEntries, System::currentTimeMillis);
+    }
+
+    ForecastCache(int maxEntries, LongSupplier clock) {
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, CachedForecast>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedForecast> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static synchronized ForecastCache getInstance() {
+        if (instance == null) {
+            instance = new ForecastCache(MAX_ENTRIES);
+        }
+        return instance;
+    }
+
+    /**
+     * @param scope qué petición (p. ej. ProjectionRegistry.Slot): distintas peticiones cubren
+     *              horizontes distintos aunque compartan variables
+     * @param units UnitProfile.getKey(): los valores cambian con las unidades pedidas
+     */
+    public static String key(double lat, double lon, String scope, String timezone, String units) {
+        long latCell = Math.round(lat / GRID_DEGREES);
+        long lonCell = Math.round(lon / GRID_DEGREES);
+        return String.format(Locale.ROOT, "%d,%d|%s|%s|%s", latCell, lonCell, scope, timezone, units);
+    }
+
+    /**
+     * Devuelve la entrada fresca u obsoleta asociada a la clave, o null si no existe, ya
+     * superó el tiempo máximo de obsolescencia o le falta alguna variable de needed.
+     */
+    @Override
+    public synchronized CachedForecast get(String key, Projection needed) {
+        CachedForecast entry = entries.get(key);
+        if (entry == null || !entry.getProjection().covers(needed)) {
+            return null;
+        }
+        if (clock.getAsLong() >= entry.getExpiresAt() + MAX_STALE_MS) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    @Override
+    public synchronized void put(String key, WeatherResponse response, Projection projection) {
+        long now = clock.getAsLong();
+        // Caduca al comenzar el siguiente intervalo de actualización de Open-Meteo
+        long expiresAt = (now / BUCKET_MS + 1) * BUCKET_MS;
+        entries.put(key, new CachedForecast(response, projection, now, expiresAt));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public boolean isFresh(CachedForecast entry) {
+        return clock.getAsLong() < entry.getExpiresAt();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.api_weather.cache;
+
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.Projection;
+
+import java.util.function.Consumer;
+
+/**
+ * Pronósticos persistidos por ubicación, para pintar lo guardado al instante y pedir solo
+ * los días que faltan. Los callbacks pueden llegar en cualquier hilo. La app usa
+ * ForecastStore; NONE no guarda nada, para servicios que solo hacen consultas en bloque.
+ */
+public interface ForecastStorage {
+
+    /** Sin persistencia: load no encuentra nada y merge devuelve solo lo descargado. */
+    ForecastStorage NONE = new ForecastStorage() {
+        @Override
+        public void load(String key, Consumer<Snapshot> callback) {
+            callback.accept(null);
+        }
+
+        @Override
+        public void merge(String key, Forecast fetched, Consumer<Snapshot> callback) {
+            if (callback != null) {
+                callback.accept(new FetchedSnapshot(fetched));
+            }
+        }
+    };
+
+    /** El callback recibe lo guardado para la clave, o null si no hay nada. */
+    void load(String key, Consumer<Snapshot> callback);
+
+    /**
+     * Incorpora un pronóstico descargado (completo o parcial); el callback, que puede ser
+     * null, recibe el estado combinado.
+     */
+    void merge(String key, Forecast fetched, Consumer<Snapshot> callback);
+
+    /** Estado de una ubicación en un instante dado; inmutable. */
+    interface Snapshot {
+
+        /** Pronóstico listo para mostrar: las condiciones actuales y los días desde hoy. */
+        Forecast toForecast();
+
+        /** true si las condiciones actuales tienen todas las variables de needed. */
+        boolean coversCurrent(Projection needed);
+
+        /**
+         * Días que faltan o hay que volver a descargar para cubrir las variables diarias de
+         * needed; null si basta con pedir "current".
+         */
+        DateWindow dailyWindowToRefresh(Projection needed);
+    }
+}
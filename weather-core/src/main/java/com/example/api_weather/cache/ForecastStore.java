@@ -0,0 +1,566 @@
+package com.example.api_weather.cache;
+
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.ForecastSeries;
+import com.example.api_weather.model.Projection;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Almacén persistente de pronósticos: un archivo de solo-añadir por ubicación (misma clave
+ * que ForecastCache) con las filas descargadas. Sobrevive a la muerte del proceso, permite
+ * pintar el último pronóstico al arrancar y pedir después solo los días que faltan.
+ *
+ * Cada descarga añade registros al final del archivo; al leerlo, el último registro de cada
+ * día gana. Cuando el archivo acumula demasiados registros repetidos (o quedó truncado por
+ * una muerte a mitad de escritura) se reescribe compactado con un reemplazo atómico.
+ *
+ * Toda la E/S y el estado en memoria viven en un único hilo de disco; los callbacks se
+ * invocan en ese hilo.
+ */
+public class ForecastStore implements ForecastStorage {
+    private static final String DIRECTORY = "forecast_store";
+    private static final String LAST_LOCATION_FILE = "last_location";
+    private static final int MAGIC = 0x46535431; // "FST1"
+    private static final byte KIND_META = 0;
+    private static final byte KIND_CURRENT = 1;
+    private static final byte KIND_DAILY = 2;
+    private static final long DAY_SECONDS = TimeUnit.DAYS.toSeconds(1);
+
+    /** Días de pronóstico que devuelve Open-Meteo por defecto. */
+    static final int FORECAST_DAYS = 7;
+    /** Días pasados que se recuperan si faltan en el almacén. */
+    static final int BACKFILL_DAYS = 2;
+    /** Historial que se conserva al compactar. */
+    static final int KEEP_PAST_DAYS = 92;
+    /** Un día de hoy en adelante se vuelve a pedir si su fila es más antigua que esto. */
+    static final long ROW_REFRESH_MS = TimeUnit.HOURS.toMillis(1);
+    /** Ubicaciones que se mantienen leídas en memoria; el resto se relee de su archivo. */
+    static final int MAX_LOADED = 16;
+
+    private static ForecastStore instance;
+
+    private final File directory;
+    private final LongSupplier clock;
+    private final Executor diskExecutor;
+    // Solo se accede desde diskExecutor. Todo lo que contiene ya está en su archivo, así que
+    // descartar una ubicación poco usada solo cuesta volver a leerla
+    private final Map<String, Series> loaded = new LinkedHashMap<String, Series>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Series> eldest) {
+            return size() > MAX_LOADED;
+        }
+    };
+
+    ForecastStore(File directory, LongSupplier clock, Executor diskExecutor) {
+        this.directory = directory;
+        this.clock = clock;
+        this.diskExecutor = diskExecutor;
+    }
+
+    /** @param filesDir directorio de datos privados (Context.getFilesDir() en Android) */
+    public static synchronized ForecastStore getInstance(File filesDir) {
+        if (instance == null) {
+            instance = new ForecastStore(new File(filesDir, DIRECTORY), System::currentTimeMillis,
+                    Executors.newSingleThreadExecutor());
+        }
+        return instance;
+    }
+
+    /** Lee lo guardado para la clave; el callback recibe null si no hay nada. */
+    @Override
+    public void load(String key, Consumer<Snapshot> callback) {
+        diskExecutor.execute(() -> {
+            Series series = series(key);
+            callback.accept(series.isEmpty() ? null : series.snapshot(clock.getAsLong()));
+        });
+    }
+
+    /**
+     * Incorpora un pronóstico descargado (completo o parcial): las filas nuevas sustituyen a
+     * las de los mismos días y se añaden al archivo. El callback recibe el estado combinado.
+     */
+    @Override
+    public void merge(String key, Forecast fetched, Consumer<Snapshot> callback) {
+        diskExecutor.execute(() -> {
+            Series series = series(key);
+            long now = clock.getAsLong();
+            series.merge(fetched, now);
+            append(key, series, fetched, now);
+            if (callback != null) {
+                callback.accept(series.snapshot(now));
+            }
+        });
+    }
+
+    /** Recuerda la última ubicación mostrada para pintarla al arrancar. */
+    public void saveLastLocation(double lat, double lon, String name, String countryCode) {
+        diskExecutor.execute(() -> {
+            File file = new File(directory, LAST_LOCATION_FILE);
+            File tmp = new File(directory, LAST_LOCATION_FILE + ".tmp");
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                return;
+            }
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+                out.writeDouble(lat);
+                out.writeDouble(lon);
+                out.writeUTF(name != null ? name : "");
+                out.writeUTF(countryCode != null ? countryCode : "");
+            } catch (IOException e) {
+                tmp.delete();
+                return;
+            }
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+            }
+        });
+    }
+
+    /** El callback recibe la última ubicación mostrada, o null si no hay ninguna. */
+    public void loadLastLocation(Consumer<LastLocation> callback) {
+        diskExecutor.execute(() -> {
+            File file = new File(directory, LAST_LOCATION_FILE);
+            LastLocation last = null;
+            if (file.exists()) {
+                try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+                    double lat = in.readDouble();
+                    double lon = in.readDouble();
+                    String name = in.readUTF();
+                    String countryCode = in.readUTF();
+                    last = new LastLocation(lat, lon, name.isEmpty() ? null : name,
+                            countryCode.isEmpty() ? null : countryCode);
+                } catch (IOException e) {
+                    file.delete();
+                }
+            }
+            callback.accept(last);
+        });
+    }
+
+    /** Ubicaciones leídas en memoria; solo desde el hilo de disco, útil para pruebas. */
+    int loadedCount() {
+        return loaded.size();
+    }
+
+    private Series series(String key) {
+        Series series = loaded.get(key);
+        if (series == null) {
+            series = read(fileFor(key));
+            loaded.put(key, series);
+            if (series.needsCompaction()) {
+                rewrite(key, series);
+            }
+        }
+        return series;
+    }
+
+    private File fileFor(String key) {
+        // La clave incluye comas y barras: se usa un nombre derivado estable
+        return new File(directory, UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".log");
+    }
+
+    private Series read(File file) {
+        Series series = new Series();
+        if (!file.exists()) {
+            return series;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                series.truncated = true;
+                return series;
+            }
+            while (true) {
+                int kind;
+                try {
+                    kind = in.readByte();
+                } catch (EOFException end) {
+                    break;
+                }
+                readRecord(in, kind, series);
+                series.records++;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Cola truncada o corrupta: se conserva lo leído y se reescribe al compactar
+            series.truncated = true;
+        }
+        return series;
+    }
+
+    private static void readRecord(DataInputStream in, int kind, Series series) throws IOException {
+        long fetchedAt = in.readLong();
+        if (kind == KIND_META) {
+            series.latitude = in.readDouble();
+            series.longitude = in.readDouble();
+            series.utcOffsetSeconds = in.readInt();
+            String timezone = in.readUTF();
+            series.timezone = timezone.isEmpty() ? null : timezone;
+            series.elevation = in.readDouble();
+            return;
+        }
+        Row row = new Row(in.readLong(), fetchedAt);
+        int count = in.readUnsignedByte();
+        ForecastSeries.Variable[] variables = ForecastSeries.Variable.values();
+        for (int i = 0; i < count; i++) {
+            int ordinal = in.readUnsignedByte();
+            float value = in.readFloat();
+            if (ordinal < variables.length) {
+                row.set(variables[ordinal], value);
+            }
+        }
+        if (kind == KIND_CURRENT) {
+            series.current = row;
+        } else if (kind == KIND_DAILY) {
+            series.daily.put(dayIndex(row.time, series.utcOffsetSeconds), row);
+        } else {
+            throw new IOException("Unknown record kind " + kind);
+        }
+    }
+
+    private void append(String key, Series series, Forecast fetched, long now) {
+        if (series.needsCompaction()) {
+            rewrite(key, series);
+            return;
+        }
+        File file = fileFor(key);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+        boolean isNew = !file.exists();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file, true)))) {
+            if (isNew) {
+                out.writeInt(MAGIC);
+            }
+            writeMeta(out, series, now);
+            series.records++;
+            ForecastSeries current = fetched.getCurrent();
+            if (current.size() > 0) {
+                writeRow(out, KIND_CURRENT, Row.from(current, 0, now));
+                series.records++;
+            }
+            ForecastSeries daily = fetched.getDaily();
+            for (int i = 0; i < daily.size(); i++) {
+                writeRow(out, KIND_DAILY, Row.from(daily, i, now));
+                series.records++;
+            }
+        } catch (IOException e) {
+            // El estado en memoria sigue siendo válido; el archivo se reescribirá entero
+            series.truncated = true;
+        }
+    }
+
+    /** Reescribe el archivo con una fila por día, sin el historial más antiguo. */
+    private void rewrite(String key, Series series) {
+        File file = fileFor(key);
+        File tmp = new File(file.getPath() + ".tmp");
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+        long now = clock.getAsLong();
+        series.dropOlderThan(localDay(now, series.utcOffsetSeconds) - KEEP_PAST_DAYS);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            writeMeta(out, series, now);
+            if (series.current != null) {
+                writeRow(out, KIND_CURRENT, series.current);
+            }
+            for (Row row : series.daily.values()) {
+                writeRow(out, KIND_DAILY, row);
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            return;
+        }
+        // Reemplazo atómico para no dejar un archivo a medias si el proceso muere
+        if (tmp.renameTo(file)) {
+            series.records = series.uniqueRecords();
+            series.truncated = false;
+        } else {
+            tmp.delete();
+        }
+    }
+
+    private static void writeMeta(DataOutputStream out, Series series, long now) throws IOException {
+        out.writeByte(KIND_META);
+        out.writeLong(now);
+        out.writeDouble(series.latitude);
+        out.writeDouble(series.longitude);
+        out.writeInt(series.utcOffsetSeconds);
+        out.writeUTF(series.timezone != null ? series.timezone : "");
+        out.writeDouble(series.elevation);
+    }
+
+    private static void writeRow(DataOutputStream out, byte kind, Row row) throws IOException {
+        out.writeByte(kind);
+        out.writeLong(row.fetchedAt);
+        out.writeLong(row.time);
+        out.writeByte(Long.bitCount(row.present));
+        for (ForecastSeries.Variable variable : ForecastSeries.Variable.values()) {
+            if (row.has(variable)) {
+                out.writeByte(variable.ordinal());
+                out.writeFloat(row.values[variable.ordinal()]);
+            }
+        }
+    }
+
+    /**
+     * Día local de una fila diaria, cuya marca de tiempo es la medianoche local. Se desplaza
+     * medio día para que un cambio de horario de verano (medianoche ± 1 h) no mueva la fila
+     * al día anterior. No sirve para un instante cualquiera: a partir del mediodía daría el
+     * día siguiente; para eso está localDay.
+     */
+    static long dayIndex(long epochSeconds, int utcOffsetSeconds) {
+        return Math.floorDiv(epochSeconds + utcOffsetSeconds + DAY_SECONDS / 2, DAY_SECONDS);
+    }
+
+    /** Día local de un instante cualquiera, p. ej. el actual. */
+    static long localDay(long epochMillis, int utcOffsetSeconds) {
+        return Math.floorDiv(epochMillis / 1000 + utcOffsetSeconds, DAY_SECONDS);
+    }
+
+    static String formatDay(long dayIndex) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd", Locale.ROOT);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(dayIndex * DAY_SECONDS * 1000);
+    }
+
+    /** Estado guardado de una ubicación en un instante dado; inmutable. */
+    static class SavedSnapshot implements Snapshot {
+        private final double latitude;
+        private final double longitude;
+        private final int utcOffsetSeconds;
+        private final String timezone;
+        private final double elevation;
+        private final Row current;
+        private final TreeMap<Long, Row> daily;
+        private final long now;
+
+        SavedSnapshot(Series series, long now) {
+            this.latitude = series.latitude;
+            this.longitude = series.longitude;
+            this.utcOffsetSeconds = series.utcOffsetSeconds;
+            this.timezone = series.timezone;
+            this.elevation = series.elevation;
+            this.current = series.current;
+            this.daily = new TreeMap<>(series.daily);
+            this.now = now;
+        }
+
+        /** Pronóstico listo para mostrar: las condiciones actuales guardadas y los días desde hoy. */
+        @Override
+        public Forecast toForecast() {
+            ForecastSeries currentSeries = current != null
+                    ? toSeries(new Row[]{current})
+                    : ForecastSeries.EMPTY;
+            long today = localDay(now, utcOffsetSeconds);
+            Row[] rows = daily.tailMap(today, true).values().toArray(new Row[0]);
+            return new Forecast(latitude, longitude, utcOffsetSeconds, timezone, elevation,
+                    currentSeries, null, toSeries(rows));
+        }
+
+        /** true si las condiciones actuales guardadas tienen todas las variables de needed. */
+        @Override
+        public boolean coversCurrent(Projection needed) {
+            return current != null && (needed.getCurrentMask() & ~current.present) == 0;
+        }
+
+        /**
+         * Días que faltan, están desactualizados o no tienen alguna variable diaria de needed,
+         * desde BACKFILL_DAYS atrás hasta el final del horizonte de pronóstico; null si todos
+         * están al día y basta con pedir "current". Los días pasados ya guardados no se
+         * vuelven a pedir, y no se rellena historial anterior a la primera descarga de la
+         * ubicación.
+         */
+        @Override
+        public DateWindow dailyWindowToRefresh(Projection needed) {
+            long dailyMask = needed.getDailyMask();
+            long today = localDay(now, utcOffsetSeconds);
+            long last = today + FORECAST_DAYS - 1;
+            long first = Math.max(today - BACKFILL_DAYS, daily.isEmpty() ? today : daily.firstKey());
+            for (long day = Math.min(first, today); day <= last; day++) {
+                Row row = daily.get(day);
+                boolean missing = row == null || (dailyMask & ~row.present) != 0;
+                boolean outdated = !missing && day >= today && now - row.fetchedAt > ROW_REFRESH_MS;
+                if (missing || outdated) {
+                    return new DateWindow(formatDay(day), formatDay(last));
+                }
+            }
+            return null;
+        }
+
+        int getDailyRowCount() {
+            return daily.size();
+        }
+
+        private static ForecastSeries toSeries(Row[] rows) {
+            long[] time = new long[rows.length];
+            long present = 0;
+            for (int i = 0; i < rows.length; i++) {
+                time[i] = rows[i].time;
+                present |= rows[i].present;
+            }
+            ForecastSeries.Builder builder = new ForecastSeries.Builder(time);
+            for (ForecastSeries.Variable variable : ForecastSeries.Variable.values()) {
+                if ((present & (1L << variable.ordinal())) == 0) {
+                    continue;
+                }
+                if (variable.isIntegral()) {
+                    short[] column = new short[rows.length];
+                    for (int i = 0; i < rows.length; i++) {
+                        float value = rows[i].values[variable.ordinal()];
+                        column[i] = Float.isNaN(value) ? ForecastSeries.MISSING_SHORT : (short) Math.round(value);
+                    }
+                    builder.putShort(variable, column);
+                } else {
+                    float[] column = new float[rows.length];
+                    for (int i = 0; i < rows.length; i++) {
+                        column[i] = rows[i].values[variable.ordinal()];
+                    }
+                    builder.putFloat(variable, column);
+                }
+            }
+            return builder.build();
+        }
+    }
+
+    public static class LastLocation {
+        private final double latitude;
+        private final double longitude;
+        private final String name;
+        private final String countryCode;
+
+        LastLocation(double latitude, double longitude, String name, String countryCode) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.name = name;
+            this.countryCode = countryCode;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCountryCode() {
+            return countryCode;
+        }
+    }
+
+    /** Estado mutable de una ubicación; solo se toca desde el hilo de disco. */
+    private static class Series {
+        double latitude;
+        double longitude;
+        int utcOffsetSeconds;
+        String timezone;
+        double elevation = Double.NaN;
+        Row current;
+        // Filas diarias por día local
+        final TreeMap<Long, Row> daily = new TreeMap<>();
+        int records;
+        boolean truncated;
+
+        boolean isEmpty() {
+            return current == null && daily.isEmpty();
+        }
+
+        void merge(Forecast fetched, long now) {
+            latitude = fetched.getLatitude();
+            longitude = fetched.getLongitude();
+            utcOffsetSeconds = fetched.getUtcOffsetSeconds();
+            timezone = fetched.getTimezone();
+            elevation = fetched.getElevation();
+            if (fetched.getCurrent().size() > 0) {
+                current = Row.from(fetched.getCurrent(), 0, now);
+            }
+            ForecastSeries rows = fetched.getDaily();
+            for (int i = 0; i < rows.size(); i++) {
+                Row row = Row.from(rows, i, now);
+                daily.put(dayIndex(row.time, utcOffsetSeconds), row);
+            }
+        }
+
+        void dropOlderThan(long day) {
+            daily.headMap(day, false).clear();
+        }
+
+        int uniqueRecords() {
+            return 1 + (current != null ? 1 : 0) + daily.size();
+        }
+
+        boolean needsCompaction() {
+            return truncated || records > 4 * uniqueRecords() + 32;
+        }
+
+        SavedSnapshot snapshot(long now) {
+            return new SavedSnapshot(this, now);
+        }
+    }
+
+    /** Una fila de current o daily: valores por ordinal de variable, NaN si no se pidió. */
+    private static class Row {
+        final long time;
+        final long fetchedAt;
+        final float[] values = new float[ForecastSeries.Variable.values().length];
+        long present;
+
+        Row(long time, long fetchedAt) {
+            this.time = time;
+            this.fetchedAt = fetchedAt;
+            Arrays.fill(values, Float.NaN);
+        }
+
+        static Row from(ForecastSeries series, int index, long fetchedAt) {
+            Row row = new Row(series.getTime(index), fetchedAt);
+            for (ForecastSeries.Variable variable : ForecastSeries.Variable.values()) {
+                if (!series.has(variable)) {
+                    continue;
+                }
+                if (variable.isIntegral()) {
+                    short value = series.getShort(variable, index);
+                    row.set(variable, value == ForecastSeries.MISSING_SHORT ? Float.NaN : value);
+                } else {
+                    row.set(variable, series.getFloat(variable, index));
+                }
+            }
+            return row;
+        }
+
+        void set(ForecastSeries.Variable variable, float value) {
+            values[variable.ordinal()] = value;
+            present |= 1L << variable.ordinal();
+        }
+
+        boolean has(ForecastSeries.Variable variable) {
+            return (present & (1L << variable.ordinal())) != 0;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.api_weather.cache;
+
+import com.example.api_weather.model.GeocodingResponse;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché de geocodificación en dos niveles: un LRU en memoria y un archivo JSON en disco
+ * que sobrevive a la muerte del proceso. Las claves son el nombre de ciudad normalizado
+ * más el idioma de la búsqueda.
+ *
+ * <p>Las consultas no tocan el disco: al crearse, el hilo de disco lee el archivo una vez,
+ * pasa al LRU las entradas usadas más recientemente y recuerda qué claves hay en él
+ * ({@code onDisk}). Una clave que no está en memoria ni en el archivo es un fallo sin E/S;
+ * una que solo está en el archivo se trae al LRU en el hilo de disco y estará para la
+ * siguiente consulta. Mientras no termina esa primera lectura, lo que no esté en memoria
+ * cuenta como fallo. Las escrituras pendientes quedan en {@code unwritten} hasta que el hilo
+ * de disco las vuelca, y mientras tanto se consultan antes que el archivo.
+ */
+public class GeocodingCache implements LocationCache {
+    private static final String FILE_NAME = "geocoding_cache.json";
+    private static final int MEMORY_MAX_ENTRIES = 32;
+    private static final int DISK_MAX_ENTRIES = 256;
+    private static final long MAX_AGE_MS = TimeUnit.DAYS.toMillis(30);
+
+    private static GeocodingCache instance;
+
+    private final File file;
+    private final Gson gson = new Gson();
+    private final int diskMaxEntries;
+    private final LongSupplier clock;
+    private final Executor diskExecutor;
+    private final LinkedHashMap<String, CachedLocation> memory;
+    private final Map<String, CachedLocation> unwritten = new HashMap<>();
+    // Claves del archivo según la última lectura o escritura; null hasta la primera lectura
+    private Set<String> onDisk;
+    // Claves que el hilo de disco ya está trayendo al LRU
+    private final Set<String> promoting = new HashSet<>();
+
+    /** @param directory directorio donde se guarda el archivo de la caché */
+    public GeocodingCache(File directory) {
+        this(directory, MEMORY_MAX_ENTRIES, DISK_MAX_ENTRIES, System::currentTimeMillis,
+                Executors.newSingleThreadExecutor());
+    }
+
+    GeocodingCache(File directory, int memoryMaxEntries, int diskMaxEntries, LongSupplier clock,
+                   Executor diskExecutor) {
+        this.file = new File(directory, FILE_NAME);
+        this.diskMaxEntries = diskMaxEntries;
+        this.clock = clock;
+        this.diskExecutor = diskExecutor;
+        this.memory = new LruMap(memoryMaxEntries);
+        diskExecutor.execute(() -> warm(memoryMaxEntries));
+    }
+
+    /** @param cacheDir directorio de caché (Context.getCacheDir() en Android) */
+    public static synchronized GeocodingCache getInstance(File cacheDir) {
+        if (instance == null) {
+            instance = new GeocodingCache(cacheDir);
+        }
+        return instance;
+    }
+
+    public static String key(String cityName, String language) {
+        return language + "|" + normalize(cityName);
+    }
+
+    /**
+     * Normaliza el nombre de ciudad: sin espacios sobrantes, en minúsculas y sin tildes,
+     * para que "  Málaga" y "malaga" compartan la misma entrada.
+     */
+    public static String normalize(String cityName) {
+        return Normalizer.normalize(cityName.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public synchronized GeocodingResponse.Location get(String cityName, String language) {
+        CachedLocation entry = lookup(key(cityName, language));
+        if (entry == null || clock.getAsLong() - entry.savedAt > MAX_AGE_MS) {
+            return null;
+        }
+        return entry.location;
+    }
+
+    @Override
+    public synchronized GeocodingResponse.Location getStale(String cityName, String language) {
+        CachedLocation entry = lookup(key(cityName, language));
+        return entry != null ? entry.location : null;
+    }
+
+    /**
+     * Entrada de la clave en memoria o en las escrituras pendientes, sin mirar su antigüedad:
+     * las caducadas se conservan para getStale hasta que las desplace el LRU. No lee el
+     * archivo: si la clave está en él, la pide al hilo de disco (con un ejecutor directo,
+     * como en las pruebas, ya está aquí al volver).
+     */
+    private CachedLocation lookup(String key) {
+        CachedLocation entry = memory.get(key);
+        if (entry == null) {
+            entry = unwritten.get(key);
+        }
+        if (entry == null && onDisk != null && onDisk.contains(key) && promoting.add(key)) {
+            diskExecutor.execute(() -> promote(key));
+            entry = memory.get(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+        memory.put(key, entry);
+        // Anotar el uso para que el LRU del archivo no descarte lo que se sigue consultando
+        schedule(entry.touched(clock.getAsLong()));
+        return entry;
+    }
+
+    /** Primera lectura del archivo, en el hilo de disco. */
+    private void warm(int memoryMaxEntries) {
+        List<CachedLocation> entries = new ArrayList<>(readFromDisk());
+        Collections.sort(entries, (a, b) -> Long.compare(a.lastUsed(), b.lastUsed()));
+        synchronized (this) {
+            Set<String> keys = new HashSet<>();
+            for (int i = 0; i < entries.size(); i++) {
+                CachedLocation entry = entries.get(i);
+                keys.add(entry.key);
+                // Las más recientes entran las últimas, como si se acabaran de usar
+                if (i >= entries.size() - memoryMaxEntries && !memory.containsKey(entry.key)) {
+                    memory.put(entry.key, entry);
+                }
+            }
+            onDisk = keys;
+        }
+    }
+
+    /** Trae al LRU una clave que solo está en el archivo, en el hilo de disco. */
+    private void promote(String key) {
+        CachedLocation found = findOnDisk(key);
+        synchronized (this) {
+            promoting.remove(key);
+            if (found == null) {
+                onDisk.remove(key);
+            } else if (!memory.containsKey(key) && !unwritten.containsKey(key)) {
+                memory.put(key, found);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void put(String cityName, String language, GeocodingResponse.Location location) {
+        String key = key(cityName, language);
+        long now = clock.getAsLong();
+        CachedLocation entry = new CachedLocation(key, location, now, now);
+        memory.put(key, entry);
+        schedule(entry);
+    }
+
+    private void schedule(CachedLocation entry) {
+        unwritten.put(entry.key, entry);
+        diskExecutor.execute(this::flush);
+    }
+
+    /** Busca una sola clave leyendo el archivo; el resto de entradas no se queda en memoria. Hilo de disco. */
+    private CachedLocation findOnDisk(String key) {
+        for (CachedLocation entry : readFromDisk()) {
+            if (key.equals(entry.key)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private List<CachedLocation> readFromDisk() {
+        if (!file.exists()) {
+            return Collections.emptyList();
+        }
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            List<CachedLocation> entries = gson.fromJson(reader, new TypeToken<List<CachedLocation>>() {}.getType());
+            if (entries == null) {
+                return Collections.emptyList();
+            }
+            List<CachedLocation> valid = new ArrayList<>(entries.size());
+            for (CachedLocation entry : entries) {
+                if (entry != null && entry.key != null && entry.location != null) {
+                    valid.add(entry);
+                }
+            }
+            return valid;
+        } catch (IOException | RuntimeException e) {
+            // Archivo corrupto o ilegible: se descarta y se reconstruye con las siguientes búsquedas
+            file.delete();
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Vuelca las escrituras pendientes con lectura-modificación-escritura del archivo y recorta
+     * a las {@code diskMaxEntries} entradas usadas más recientemente. Corre en el hilo de disco.
+     */
+    private void flush() {
+        Map<String, CachedLocation> pending;
+        synchronized (this) {
+            if (unwritten.isEmpty()) {
+                return;
+            }
+            pending = new HashMap<>(unwritten);
+        }
+        Map<String, CachedLocation> merged = new HashMap<>();
+        for (CachedLocation entry : readFromDisk()) {
+            merged.put(entry.key, entry);
+        }
+        for (CachedLocation entry : pending.values()) {
+            CachedLocation previous = merged.get(entry.key);
+            // Un simple uso no pisa una entrada más nueva escrita por un put posterior
+            if (previous == null || previous.savedAt <= entry.savedAt) {
+                merged.put(entry.key, entry);
+            }
+        }
+        List<CachedLocation> entries = new ArrayList<>(merged.values());
+        Collections.sort(entries, (a, b) -> Long.compare(b.lastUsed(), a.lastUsed()));
+        if (entries.size() > diskMaxEntries) {
+            entries = new ArrayList<>(entries.subList(0, diskMaxEntries));
+        }
+        if (writeToDisk(entries)) {
+            Set<String> written = new HashSet<>();
+            for (CachedLocation entry : entries) {
+                written.add(entry.key);
+            }
+            synchronized (this) {
+                onDisk = written;
+                for (CachedLocation entry : pending.values()) {
+                    // Solo se retira si nadie la ha reemplazado mientras se escribía
+                    unwritten.remove(entry.key, entry);
+                }
+            }
+        }
+    }
+
+    private boolean writeToDisk(List<CachedLocation> entries) {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+            gson.toJson(entries, writer);
+        } catch (IOException e) {
+            tmp.delete();
+            return false;
+        }
+        // Reemplazo atómico para no dejar un archivo a medias si el proceso muere
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            return false;
+        }
+        return true;
+    }
+
+    private static class CachedLocation {
+        String key;
+        GeocodingResponse.Location location;
+        long savedAt;
+        long usedAt;
+
+        CachedLocation(String key, GeocodingResponse.Location location, long savedAt, long usedAt) {
+            this.key = key;
+            this.location = location;
+            this.savedAt = savedAt;
+            this.usedAt = usedAt;
+        }
+
+        CachedLocation touched(long now) {
+            return new CachedLocation(key, location, savedAt, now);
+        }
+
+        /** Los archivos anteriores a usedAt solo tienen savedAt. */
+        long lastUsed() {
+            return Math.max(savedAt, usedAt);
+        }
+    }
+
+    private static class LruMap extends LinkedHashMap<String, CachedLocation> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        LruMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedLocation> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.api_weather.cache;
+
+import com.example.api_weather.model.GeocodingResponse;
+
+/**
+ * Resultados de geocodificación por nombre de ciudad e idioma, para no volver a preguntar
+ * por una ciudad ya resuelta. La app usa GeocodingCache.
+ */
+public interface LocationCache {
+
+    /** Ubicación guardada para la búsqueda, o null si no hay o ha caducado. */
+    GeocodingResponse.Location get(String cityName, String language);
+
+    /**
+     * Ubicación guardada aunque haya caducado, o null. No basta para saltarse la
+     * geocodificación, pero sí para adelantar el pronóstico mientras se valida.
+     */
+    GeocodingResponse.Location getStale(String cityName, String language);
+
+    void put(String cityName, String language, GeocodingResponse.Location location);
+}
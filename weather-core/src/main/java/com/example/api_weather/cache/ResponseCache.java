@@ -0,0 +1,23 @@
+package com.example.api_weather.cache;
+
+import com.example.api_weather.model.Projection;
+import com.example.api_weather.model.WeatherResponse;
+
+/**
+ * Respuestas ya convertidas, en memoria, por clave de ForecastCache.key. WeatherEngine sirve
+ * de aquí lo fresco sin ir a la red y lo obsoleto mientras revalida. La app usa ForecastCache;
+ * un servicio puede poner otra con más capacidad o compartida entre nodos.
+ *
+ * Las respuestas guardadas se comparten entre quienes las piden y no se modifican: quien
+ * necesite otro nombre usa WeatherResponse.withPlace.
+ */
+public interface ResponseCache {
+
+    /** Entrada fresca u obsoleta que tenga todas las variables de needed, o null. */
+    CachedForecast get(String key, Projection needed);
+
+    /** @param projection variables con las que se pidió la respuesta */
+    void put(String key, WeatherResponse response, Projection projection);
+
+    boolean isFresh(CachedForecast entry);
+}
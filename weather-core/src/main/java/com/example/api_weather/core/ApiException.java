@@ -0,0 +1,38 @@
+package com.example.api_weather.core;
+
+import java.io.IOException;
+
+/**
+ * Open-Meteo respondió, pero con un código de error. Se distingue de un IOException de red
+ * para que la interfaz pueda mostrar el motivo que da el servicio.
+ */
+public class ApiException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int code;
+    private final String status;
+    private final String body;
+
+    /**
+     * @param status mensaje de estado HTTP, puede ser null
+     * @param body   comienzo del cuerpo de error, o null si no había o no se pudo leer
+     */
+    public ApiException(int code, String status, String body) {
+        super("HTTP " + code + (status != null ? " " + status : ""));
+        this.code = code;
+        this.status = status;
+        this.body = body;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getBody() {
+        return body;
+    }
+}
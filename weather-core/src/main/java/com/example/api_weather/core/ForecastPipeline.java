@@ -0,0 +1,120 @@
+package com.example.api_weather.core;
+
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.UnitProfile;
+import com.example.api_weather.model.WeatherResponse;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Convierte pronósticos en WeatherResponse fuera del hilo de quien los pide:
+ * materialize → transform. materialize obtiene el Forecast en columnas (p. ej. a partir de
+ * un Snapshot del almacén) y transform lo convierte con WeatherResponseMapper. El JSON de la
+ * red no pasa por aquí: lo decodifica el conversor de Retrofit en el hilo de OkHttp. Las
+ * magnitudes derivadas (sensación térmica) tampoco son un paso: WeatherResponse las calcula
+ * al mostrarlas.
+ *
+ * Contrato de hilos:
+ * <ul>
+ * <li>con create() materialize y transform se ejecutan en un único hilo de trabajo, en orden de
+ * llegada, y el CompletableFuture se completa en ese hilo: un resultado nunca adelanta a otro
+ * enviado antes. Con varios hilos (create(threads, queueCapacity) o un ejecutor propio) se
+ * pierde ese orden;</li>
+ * <li>publicar no es cosa del pipeline: quien lo usa elige dónde recibir el resultado, p. ej.
+ * thenAcceptAsync(..., handler::post) en Android, que conserva el orden;</li>
+ * <li>la cola está acotada (QUEUE_CAPACITY con create()); si se llena, o el ejecutor rechaza
+ * el trabajo, el future falla con RejectedExecutionException en lugar de bloquear o
+ * ejecutarse en el hilo que lo envía.</li>
+ * </ul>
+ */
+public class ForecastPipeline {
+    static final int QUEUE_CAPACITY = 32;
+
+    enum Stage {
+        MATERIALIZE,
+        TRANSFORM
+    }
+
+    /** Gancho para pruebas: se invoca al empezar cada paso, en el hilo que lo ejecuta. */
+    interface StageObserver {
+        void onStage(Stage stage);
+    }
+
+    private final ExecutorService worker;
+    private volatile StageObserver observer = stage -> { };
+
+    /** @param worker ejecuta las conversiones; shutdown lo detiene */
+    public ForecastPipeline(ExecutorService worker) {
+        this.worker = worker;
+    }
+
+    /** Un hilo y QUEUE_CAPACITY plazas: lo que necesita la app, con resultados en orden. */
+    public static ForecastPipeline create() {
+        return create(1, QUEUE_CAPACITY);
+    }
+
+    /**
+     * Pipeline para muchas consultas simultáneas (p. ej. un servicio): threads hilos de
+     * trabajo y hasta queueCapacity conversiones en espera. Con más de un hilo los resultados
+     * pueden completarse en otro orden que el de llegada.
+     */
+    public static ForecastPipeline create(int threads, int queueCapacity) {
+        ThreadPoolExecutor worker = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "forecast-pipeline");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        return new ForecastPipeline(worker);
+    }
+
+    void setStageObserver(StageObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * @param materialize obtiene el Forecast (p. ej. Snapshot::toForecast, que construye las
+     *                    columnas a partir de las filas guardadas)
+     * @return la respuesta completa, en el hilo de trabajo
+     */
+    public CompletableFuture<WeatherResponse> process(Callable<Forecast> materialize, String cityName,
+                                                      String countryCode, UnitProfile units) {
+        return submit(() -> {
+            observer.onStage(Stage.MATERIALIZE);
+            Forecast forecast = materialize.call();
+            observer.onStage(Stage.TRANSFORM);
+            return WeatherResponseMapper.toWeatherResponse(forecast, cityName, countryCode, units);
+        });
+    }
+
+    /**
+     * Ejecuta un trabajo arbitrario en el hilo de trabajo (p. ej. leer un errorBody, que es
+     * E/S bloqueante).
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            worker.execute(() -> {
+                try {
+                    result.complete(work.call());
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /** Deja terminar lo encolado y no acepta más trabajo. */
+    public void shutdown() {
+        worker.shutdown();
+    }
+}
@@ -0,0 +1,443 @@
+package com.example.api_weather.core;
+
+import com.example.api_weather.api.ForecastParams;
+import com.example.api_weather.api.GeocodingApi;
+import com.example.api_weather.api.LocationBatch;
+import com.example.api_weather.api.OpenMeteo;
+import com.example.api_weather.api.ProjectionRegistry;
+import com.example.api_weather.api.SingleFlight;
+import com.example.api_weather.api.WeatherApi;
+import com.example.api_weather.cache.CachedForecast;
+import com.example.api_weather.cache.DateWindow;
+import com.example.api_weather.cache.ForecastCache;
+import com.example.api_weather.cache.ForecastStorage;
+import com.example.api_weather.cache.GeocodingCache;
+import com.example.api_weather.cache.LocationCache;
+import com.example.api_weather.cache.ResponseCache;
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.GeocodingResponse;
+import com.example.api_weather.model.Projection;
+import com.example.api_weather.model.UnitProfile;
+import com.example.api_weather.model.WeatherResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Motor del clima sin Android: geocodificación, autocompletado, condiciones actuales, horas
+ * y días, y consultas en bloque, con las cachés detrás de interfaces (ResponseCache,
+ * ForecastStorage, LocationCache).
+ *
+ * Ninguna entrada bloquea: la red va por Retrofit (enqueue), el disco por el hilo de
+ * ForecastStorage y la conversión por ForecastPipeline, y cada una devuelve un
+ * CompletableFuture que puede completarse en cualquier hilo. Quien tenga un hilo propio (el
+ * principal en Android) recibe el resultado con thenAcceptAsync(..., su ejecutor). Cancelar
+ * un future devuelto cancela la petición de red de la que depende, salvo que otro interesado
+ * siga esperándola (SingleFlight).
+ *
+ * No guarda estado de pantalla: qué búsqueda es la actual, los mensajes de error y las
+ * LiveData son cosa del adaptador (WeatherViewModel en la app).
+ */
+public class WeatherEngine {
+    private static final String FORMAT = "json";
+    // Lo que se muestra de un cuerpo de error
+    private static final int ERROR_BODY_CHARS = 100;
+
+    private final WeatherApi weatherApi;
+    private final GeocodingApi geocodingApi;
+    private final SingleFlight<Forecast> forecastFlights;
+    private final SingleFlight<GeocodingResponse> geocodingFlights;
+    private final ResponseCache responses;
+    private final ForecastStorage storage;
+    private final LocationCache locations;
+    private final ForecastPipeline pipeline;
+
+    /**
+     * @param forecastFlights  compartido por todos los que piden pronósticos en el proceso,
+     *                         para que peticiones iguales simultáneas se agrupen
+     * @param geocodingFlights ídem para la geocodificación
+     */
+    public WeatherEngine(WeatherApi weatherApi, GeocodingApi geocodingApi,
+                         SingleFlight<Forecast> forecastFlights, SingleFlight<GeocodingResponse> geocodingFlights,
+                         ResponseCache responses, ForecastStorage storage, LocationCache locations,
+                         ForecastPipeline pipeline) {
+        this.weatherApi = weatherApi;
+        this.geocodingApi = geocodingApi;
+        this.forecastFlights = forecastFlights;
+        this.geocodingFlights = geocodingFlights;
+        this.responses = responses;
+        this.storage = storage;
+        this.locations = locations;
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Motor autónomo para un proceso JVM (p. ej. un servicio de consultas en bloque): los
+     * clientes de Open-Meteo sobre client, sin almacén de pronósticos en disco y con las
+     * cachés y el pipeline de quien lo crea, que decide su tamaño (p. ej. new
+     * ForecastCache(maxEntries), new GeocodingCache(dir) y ForecastPipeline.create(threads,
+     * queueCapacity)) en lugar de compartir los de la app.
+     */
+    public static WeatherEngine create(OkHttpClient client, ResponseCache responses, LocationCache locations,
+                                       ForecastPipeline pipeline) {
+        return new WeatherEngine(OpenMeteo.weatherApi(client), OpenMeteo.geocodingApi(client),
+                new SingleFlight<>(), new SingleFlight<>(), responses, ForecastStorage.NONE, locations, pipeline);
+    }
+
+    /** Clave de ResponseCache y ForecastStorage de las condiciones (Slot.CONDITIONS) de un punto. */
+    public static String conditionsKey(double lat, double lon, UnitProfile units) {
+        return ForecastCache.key(lat, lon, ProjectionRegistry.Slot.CONDITIONS.name(), ForecastParams.TIMEZONE,
+                units.getKey());
+    }
+
+    /** Clave de ResponseCache de las horas y días (Slot.OUTLOOK) de un punto. */
+    public static String outlookKey(double lat, double lon, UnitProfile units) {
+        return ForecastCache.key(lat, lon, ProjectionRegistry.Slot.OUTLOOK.name(), ForecastParams.TIMEZONE,
+                units.getKey());
+    }
+
+    /**
+     * Clave de la petición en curso: la de caché más las variables, para que una petición
+     * con menos variables no se reutilice para una que necesita más.
+     */
+    public static String flightKey(String cacheKey, Projection projection) {
+        return cacheKey + "|" + projection.getKey();
+    }
+
+    /** La causa de un fallo de un future de este motor, sin el CompletionException que la envuelve. */
+    public static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    /** Ubicación ya resuelta para la búsqueda, sin ir a la red ni esperar al disco; null si no hay. */
+    public GeocodingResponse.Location cachedLocation(String cityName, String language) {
+        return locations.get(cityName, language);
+    }
+
+    /**
+     * Ubicación geocodificada para la búsqueda aunque haya caducado: sirve como coordenadas
+     * probables para adelantar el pronóstico, no como resultado.
+     */
+    public GeocodingResponse.Location staleLocation(String cityName, String language) {
+        return locations.getStale(cityName, language);
+    }
+
+    /** Guarda una ubicación elegida por otra vía (p. ej. una sugerencia) como resultado de la búsqueda. */
+    public void rememberLocation(String cityName, String language, GeocodingResponse.Location location) {
+        locations.put(cityName, language, location);
+    }
+
+    /**
+     * Primera ubicación que conoce el servicio para la búsqueda, que queda en LocationCache.
+     * Se completa con null si no conoce ninguna (o responde con error) y falla con el
+     * IOException si no hay red.
+     */
+    public CompletableFuture<GeocodingResponse.Location> geocode(String cityName, String language) {
+        GeocodingResponse.Location cached = locations.get(cityName, language);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<GeocodingResponse> response = join(geocodingFlights, GeocodingCache.key(cityName, language),
+                () -> geocodingApi.searchLocation(cityName, 1, language, FORMAT));
+        return propagateCancel(response.handle((body, error) -> {
+            if (error != null) {
+                Throwable cause = unwrap(error);
+                if (cause instanceof ApiException) {
+                    return null;
+                }
+                throw new CompletionException(cause);
+            }
+            if (body.getResults() == null || body.getResults().isEmpty()) {
+                return null;
+            }
+            GeocodingResponse.Location location = body.getResults().get(0);
+            locations.put(cityName, language, location);
+            return location;
+        }), response);
+    }
+
+    /**
+     * Hasta count ubicaciones que empiezan por query, para el autocompletado. Sin agrupar ni
+     * cachear: cada pulsación es una consulta distinta y cancelarla cancela la llamada. Una
+     * respuesta de error cuenta como lista vacía.
+     */
+    public CompletableFuture<List<GeocodingResponse.Location>> suggest(String query, int count, String language) {
+        Call<GeocodingResponse> call = geocodingApi.searchLocation(query, count, language, FORMAT);
+        CompletableFuture<List<GeocodingResponse.Location>> result = new CompletableFuture<>();
+        call.enqueue(new Callback<GeocodingResponse>() {
+            @Override
+            public void onResponse(Call<GeocodingResponse> call, Response<GeocodingResponse> response) {
+                result.complete(response.isSuccessful() && response.body() != null
+                        && response.body().getResults() != null
+                        ? response.body().getResults()
+                        : Collections.<GeocodingResponse.Location>emptyList());
+            }
+
+            @Override
+            public void onFailure(Call<GeocodingResponse> call, Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Condiciones actuales de un punto con las variables de projection (Slot.CONDITIONS).
+     *
+     * Con una respuesta fresca en ResponseCache el future ya viene completado, sin red. Si
+     * solo la hay obsoleta, o ForecastStorage guarda todas las variables actuales pedidas,
+     * preview la recibe enseguida y el future trae la revalidación: se piden solo los días
+     * que faltan, se combinan con lo guardado y el resultado queda en ResponseCache.
+     *
+     * @param cityName nombre a mostrar; null para "Ubicación"
+     * @param preview  recibe, en cualquier hilo y siempre antes de que se complete el future, lo
+     *                 que ya se puede mostrar mientras llega la red
+     * @return falla con ApiException si Open-Meteo responde con error, con IOException sin
+     * red y con otra excepción si no se pudo convertir el pronóstico
+     */
+    public CompletableFuture<WeatherResponse> conditions(double lat, double lon, String cityName, String countryCode,
+                                                         UnitProfile units, Projection projection,
+                                                         Consumer<WeatherResponse> preview) {
+        String cacheKey = conditionsKey(lat, lon, units);
+        CachedForecast cached = responses.get(cacheKey, projection);
+        if (cached != null) {
+            // La entrada es compartida (otra ciudad de la misma celda, otros hilos): siempre se
+            // copia con el lugar de esta petición, también sin nombre
+            WeatherResponse cachedResponse = cached.getResponse().withPlace(
+                    cityName != null ? cityName : WeatherResponseMapper.DEFAULT_NAME, countryCode);
+            if (responses.isFresh(cached)) {
+                return CompletableFuture.completedFuture(cachedResponse);
+            }
+            // Obsoleta: se muestra mientras se revalida
+            preview.accept(cachedResponse);
+        }
+        boolean revalidating = cached != null;
+        CompletableFuture<WeatherResponse> result = new CompletableFuture<>();
+        storage.load(cacheKey, stored -> {
+            if (result.isDone()) {
+                // Cancelado mientras se leía el disco
+                return;
+            }
+            // Lo guardado se muestra solo si tiene todas las variables actuales que se piden
+            CompletableFuture<?> previewed = CompletableFuture.completedFuture(null);
+            if (stored != null && !revalidating && stored.coversCurrent(projection)) {
+                previewed = pipeline.process(stored::toForecast, cityName, countryCode, units)
+                        .thenAccept(response -> {
+                            if (!result.isDone()) {
+                                preview.accept(response);
+                            }
+                        });
+            }
+            CompletableFuture<?> previewDone = previewed;
+            CompletableFuture<Forecast> fetched = fetchConditions(lat, lon, units, projection, cacheKey, stored);
+            propagateCancel(result, fetched);
+            // Combinar con lo guardado: la respuesta puede traer solo algunos días
+            fetched.thenCompose(forecast -> merge(cacheKey, forecast))
+                    .thenCompose(merged -> pipeline.process(merged::toForecast, cityName, countryCode, units))
+                    .whenComplete((response, error) -> {
+                        if (error == null) {
+                            responses.put(cacheKey, response, projection);
+                        }
+                        // Un fallo de red puede llegar antes que lo guardado: preview siempre va primero,
+                        // y datos guardados ilegibles solo dejan de mostrarse
+                        previewDone.whenComplete((ignored, previewError) -> {
+                            if (error != null) {
+                                result.completeExceptionally(unwrap(error));
+                            } else {
+                                result.complete(response);
+                            }
+                        });
+                    });
+        });
+        return result;
+    }
+
+    /**
+     * Horas y días (ForecastParams.OUTLOOK_DAYS) de un punto con las variables de projection
+     * (Slot.OUTLOOK), en una petición aparte de las condiciones: la tarjeta no espera por las
+     * 384 filas horarias y un fallo aquí no oculta las condiciones actuales. Cachés y preview
+     * como en conditions.
+     */
+    public CompletableFuture<Forecast> outlook(double lat, double lon, UnitProfile units, Projection projection,
+                                               Consumer<Forecast> preview) {
+        String cacheKey = outlookKey(lat, lon, units);
+        CachedForecast cached = responses.get(cacheKey, projection);
+        if (cached != null) {
+            if (responses.isFresh(cached)) {
+                return CompletableFuture.completedFuture(cached.getResponse().getForecast());
+            }
+            preview.accept(cached.getResponse().getForecast());
+        }
+        CompletableFuture<Forecast> fetched = join(forecastFlights, flightKey(cacheKey, projection),
+                () -> weatherApi.getOutlook(lat, lon, projection.getHourly(), projection.getDaily(),
+                        ForecastParams.TIMEZONE, ForecastParams.TIME_FORMAT, ForecastParams.OUTLOOK_DAYS,
+                        units.getQueryParameters()));
+        return propagateCancel(fetched.thenApply(forecast -> {
+            responses.put(cacheKey, new WeatherResponse(forecast), projection);
+            return forecast;
+        }), fetched);
+    }
+
+    /**
+     * Condiciones actuales de muchas ubicaciones con el mínimo de peticiones: se agrupan en
+     * lotes que caben en una URL (LocationBatch), los lotes van en paralelo, cada lote se
+     * convierte en una sola tarea del pipeline y cada respuesta queda en ResponseCache. Sirve
+     * igual para las ubicaciones guardadas de la app que para consultas en bloque en un
+     * servidor.
+     *
+     * @return un future por ubicación, en el orden de locations; los de un mismo lote se
+     * completan (o fallan) juntos
+     */
+    public List<CompletableFuture<WeatherResponse>> conditionsBatch(List<GeocodingResponse.Location> locations,
+                                                                    UnitProfile units, Projection projection) {
+        List<CompletableFuture<WeatherResponse>> results = new ArrayList<>(locations.size());
+        for (LocationBatch batch : LocationBatch.plan(locations, ForecastParams.batchFixedUrlLength(projection))) {
+            List<GeocodingResponse.Location> batchLocations = batch.getLocations();
+            CompletableFuture<List<WeatherResponse>> converted = execute(weatherApi.getCurrentWeatherBatch(
+                    batch.getLatitudes(), batch.getLongitudes(), projection.getCurrent(), projection.getDaily(),
+                    ForecastParams.TIMEZONE, ForecastParams.TIME_FORMAT, units.getQueryParameters()))
+                    .thenCompose(forecasts -> pipeline.submit(() -> convert(batchLocations, forecasts, units,
+                            projection)));
+            for (int i = 0; i < batchLocations.size(); i++) {
+                int index = i;
+                results.add(converted.thenApply(responses -> responses.get(index)));
+            }
+        }
+        return results;
+    }
+
+    /** Deja terminar lo encolado en el pipeline y no acepta más conversiones. */
+    public void shutdown() {
+        pipeline.shutdown();
+    }
+
+    private List<WeatherResponse> convert(List<GeocodingResponse.Location> batchLocations, List<Forecast> forecasts,
+                                          UnitProfile units, Projection projection) {
+        if (forecasts.size() != batchLocations.size()) {
+            throw new IllegalStateException(forecasts.size() + " forecasts for " + batchLocations.size() + " locations");
+        }
+        // Open-Meteo devuelve los pronósticos en el orden de las coordenadas
+        List<WeatherResponse> converted = new ArrayList<>(forecasts.size());
+        for (int i = 0; i < forecasts.size(); i++) {
+            GeocodingResponse.Location location = batchLocations.get(i);
+            WeatherResponse response = WeatherResponseMapper.toWeatherResponse(forecasts.get(i),
+                    location.getName(), location.getCountryCode(), units);
+            responses.put(conditionsKey(location.getLatitude(), location.getLongitude(), units), response,
+                    projection);
+            converted.add(response);
+        }
+        return converted;
+    }
+
+    private CompletableFuture<Forecast> fetchConditions(double lat, double lon, UnitProfile units,
+                                                        Projection projection, String cacheKey,
+                                                        ForecastStorage.Snapshot stored) {
+        DateWindow window = stored != null && projection.getDaily() != null
+                ? stored.dailyWindowToRefresh(projection) : null;
+        return join(forecastFlights, flightKey(cacheKey, projection),
+                () -> stored == null
+                        ? weatherApi.getCurrentWeather(lat, lon, projection.getCurrent(), projection.getDaily(),
+                                ForecastParams.TIMEZONE, ForecastParams.TIME_FORMAT, units.getQueryParameters())
+                        : weatherApi.getForecastRange(lat, lon, projection.getCurrent(),
+                                window != null ? projection.getDaily() : null,
+                                ForecastParams.TIMEZONE, ForecastParams.TIME_FORMAT,
+                                window != null ? window.getStartDate() : null,
+                                window != null ? window.getEndDate() : null,
+                                units.getQueryParameters()));
+    }
+
+    private CompletableFuture<ForecastStorage.Snapshot> merge(String key, Forecast fetched) {
+        CompletableFuture<ForecastStorage.Snapshot> merged = new CompletableFuture<>();
+        storage.merge(key, fetched, merged::complete);
+        return merged;
+    }
+
+    /** Se suma (o lanza) la petición de la clave; cancelar el future abandona la espera. */
+    private <T> CompletableFuture<T> join(SingleFlight<T> flights, String key, Supplier<Call<T>> callFactory) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        SingleFlight<T>.Handle handle = flights.join(key, callFactory, completing(result));
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                handle.cancel();
+            }
+        });
+        return result;
+    }
+
+    private <T> CompletableFuture<T> execute(Call<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        call.enqueue(completing(result));
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return result;
+    }
+
+    /** Completa result con el cuerpo, con ApiException si la respuesta es un error o con el fallo de red. */
+    private <T> Callback<T> completing(CompletableFuture<T> result) {
+        return new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    result.complete(response.body());
+                    return;
+                }
+                // Leer el cuerpo de error es E/S bloqueante: fuera del hilo del callback
+                pipeline.submit(() -> apiException(response)).whenComplete((exception, error) ->
+                        result.completeExceptionally(exception != null ? exception
+                                : new ApiException(response.code(), response.message(), null)));
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                result.completeExceptionally(t);
+            }
+        };
+    }
+
+    private static ApiException apiException(Response<?> response) {
+        String body = null;
+        try (ResponseBody errorBody = response.errorBody()) {
+            if (errorBody != null) {
+                String text = errorBody.string();
+                body = text.substring(0, Math.min(ERROR_BODY_CHARS, text.length()));
+            }
+        } catch (IOException e) {
+            // Cuerpo ilegible: basta con el código
+        }
+        return new ApiException(response.code(), response.message(), body);
+    }
+
+    /** Devuelve dependent, que al cancelarse cancela también upstream (la petición de la que depende). */
+    private static <T> CompletableFuture<T> propagateCancel(CompletableFuture<T> dependent, Future<?> upstream) {
+        dependent.whenComplete((value, error) -> {
+            if (dependent.isCancelled()) {
+                upstream.cancel(false);
+            }
+        });
+        return dependent;
+    }
+}
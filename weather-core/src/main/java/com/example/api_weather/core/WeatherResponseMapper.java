@@ -0,0 +1,34 @@
+package com.example.api_weather.core;
+
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.UnitProfile;
+import com.example.api_weather.model.WeatherResponse;
+
+/**
+ * Convierte el pronóstico columnar de Open-Meteo al WeatherResponse que consume la UI.
+ * Sin estado, para poder usarlo tanto desde WeatherEngine como desde tareas en segundo
+ * plano que rellenan la caché.
+ *
+ * La respuesta es una vista perezosa sobre el Forecast: aquí solo se fijan el nombre, el país
+ * y las unidades; los objetos del formato anterior y la sensación térmica se calculan la
+ * primera vez que se leen.
+ */
+public final class WeatherResponseMapper {
+    /** Nombre de una respuesta pedida sin nombre de ciudad (p. ej. por GPS). */
+    public static final String DEFAULT_NAME = "Ubicación";
+
+    private WeatherResponseMapper() {
+    }
+
+    /**
+     * @param units unidades en las que se pidió el pronóstico
+     */
+    public static WeatherResponse toWeatherResponse(Forecast forecast, String cityName, String countryCode,
+                                                    UnitProfile units) {
+        WeatherResponse weatherResponse = new WeatherResponse(forecast);
+        weatherResponse.setUnits(units);
+        weatherResponse.setName(cityName != null ? cityName : DEFAULT_NAME);
+        weatherResponse.setCountry(countryCode);
+        return weatherResponse;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.api_weather.model;
+
+/**
+ * Magnitudes derivadas (sensación térmica, índice de calor, wind chill, punto de rocío)
+ * calculadas sobre columnas completas de ForecastSeries en una sola pasada.
+ *
+ * Los métodos escriben en un array de salida proporcionado por el llamante, de modo que
+ * recalcular una serie no asigna memoria. Las constantes, la tabla de v^0.16 del wind chill
+ * y la de ln(HR/100) del punto de rocío se precalculan una vez; dentro de los bucles solo
+ * quedan sumas, productos y la rama de régimen (calor / frío / templado).
+ *
+ * Un valor de entrada ausente (NaN o MISSING_SHORT) produce NaN en la salida, salvo el
+ * índice UV, que si falta simplemente no ajusta la sensación térmica.
+ */
+public final class DerivedMetrics {
+    private static final double MS_TO_KMH = 3.6;
+    // Umbrales de la sensación térmica
+    private static final double HOT_THRESHOLD = 27.0;
+    private static final int HOT_MIN_HUMIDITY = 40;
+    private static final double COLD_THRESHOLD = 10.0;
+    private static final double WIND_CHILL_MIN_KMH = 4.8;
+
+    // v^0.16 para v en km/h, con paso de 0,1 km/h e interpolación lineal entre 4,8 y 200 km/h
+    // (por debajo la curva es demasiado pronunciada y el wind chill no se aplica)
+    private static final int POW_TABLE_FIRST = 48;
+    private static final double POW_STEP_INVERSE = 10.0;
+    private static final int POW_TABLE_LAST = 2000;
+    private static final double[] POW_016 = new double[POW_TABLE_LAST + 2];
+    // ln(HR/100) para humedad relativa entera 0..100
+    private static final double[] LN_HUMIDITY = new double[101];
+    // Coeficientes de Magnus (Alduchov y Eskridge)
+    private static final double MAGNUS_A = 17.62;
+    private static final double MAGNUS_B = 243.12;
+
+    static {
+        for (int i = 0; i < POW_016.length; i++) {
+            POW_016[i] = Math.pow(i / POW_STEP_INVERSE, 0.16);
+        }
+        LN_HUMIDITY[0] = Double.NEGATIVE_INFINITY;
+        for (int i = 1; i < LN_HUMIDITY.length; i++) {
+            LN_HUMIDITY[i] = Math.log(i / 100.0);
+        }
+    }
+
+    private DerivedMetrics() {
+    }
+
+    /**
+     * Sensación térmica de cada fila de la serie (temperature_2m, relative_humidity_2m,
+     * wind_speed_10m y, si está, uv_index). Devuelve null si faltan columnas necesarias.
+     */
+    public static float[] apparentTemperature(ForecastSeries series) {
+        return apparentTemperature(series, false, MS_TO_KMH);
+    }
+
+    /**
+     * Como apparentTemperature(series) para series pedidas en otras unidades: temperatura en
+     * °F si fahrenheit (el resultado también) y viento en una unidad que windToKmh pasa a km/h.
+     */
+    public static float[] apparentTemperature(ForecastSeries series, boolean fahrenheit, double windToKmh) {
+        float[] temperature = series.getFloatColumn(ForecastSeries.Variable.TEMPERATURE_2M);
+        short[] humidity = series.getShortColumn(ForecastSeries.Variable.RELATIVE_HUMIDITY_2M);
+        float[] windSpeed = series.getFloatColumn(ForecastSeries.Variable.WIND_SPEED_10M);
+        if (temperature == null || humidity == null || windSpeed == null) {
+            return null;
+        }
+        float[] out = new float[series.size()];
+        apparentTemperature(temperature, humidity, windSpeed,
+                series.getFloatColumn(ForecastSeries.Variable.UV_INDEX), out, out.length, fahrenheit, windToKmh);
+        return out;
+    }
+
+    /**
+     * Sensación térmica en °C redondeada a una décima: índice de calor con calor húmedo,
+     * wind chill con frío y viento, y en el resto ajustes por viento, humedad e índice UV.
+     *
+     * @param windSpeed velocidad del viento en m/s (se convierte a km/h)
+     * @param uvIndex   puede ser null
+     */
+    public static void apparentTemperature(float[] temperature, short[] humidity, float[] windSpeed,
+                                           float[] uvIndex, float[] out, int length) {
+        apparentTemperature(temperature, humidity, windSpeed, uvIndex, out, length, false, MS_TO_KMH);
+    }
+
+    /**
+     * Sensación térmica con temperatura en °F (entrada y salida, redondeada a una décima de
+     * °F) si fahrenheit, y viento en la unidad que windToKmh pasa a km/h. Las fórmulas se
+     * evalúan en °C y km/h; son dos operaciones lineales por fila.
+     */
+    public static void apparentTemperature(float[] temperature, short[] humidity, float[] windSpeed,
+                                           float[] uvIndex, float[] out, int length,
+                                           boolean fahrenheit, double windToKmh) {
+        boolean hasUv = uvIndex != null;
+        for (int i = 0; i < length; i++) {
+            double t = fahrenheit ? (temperature[i] - 32.0) / 1.8 : temperature[i];
+            int h = humidity[i];
+            double wind = windSpeed[i] * windToKmh;
+            if (Double.isNaN(t) || h < 0 || Double.isNaN(wind)) {
+                out[i] = Float.NaN;
+                continue;
+            }
+            double feelsLike;
+            if (t > HOT_THRESHOLD && h > HOT_MIN_HUMIDITY) {
+                feelsLike = heatIndexCelsius(t, h);
+            } else if (t < COLD_THRESHOLD && wind > WIND_CHILL_MIN_KMH) {
+                feelsLike = windChillCelsius(t, wind);
+            } else {
+                feelsLike = t;
+                if (wind > 5.0) {
+                    feelsLike -= Math.min(wind * 0.1, 3.0);
+                }
+                if (t > 20.0) {
+                    if (h > 60) {
+                        feelsLike += Math.min((h - 60) * 0.05, 2.0);
+                    } else if (h < 40) {
+                        feelsLike -= Math.min((40 - h) * 0.03, 1.5);
+                    }
+                }
+            }
+            if (hasUv && t > 20.0) {
+                double uv = uvIndex[i];
+                if (uv > 5.0) {
+                    feelsLike += Math.min((uv - 5.0) * 0.2, 1.5);
+                }
+            }
+            if (fahrenheit) {
+                feelsLike = feelsLike * 1.8 + 32.0;
+            }
+            out[i] = (float) (Math.round(feelsLike * 10.0) / 10.0);
+        }
+    }
+
+    /** Índice de calor (Rothfusz) en °C; nunca por debajo de la temperatura. */
+    public static void heatIndex(float[] temperature, short[] humidity, float[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            double t = temperature[i];
+            int h = humidity[i];
+            out[i] = Double.isNaN(t) || h < 0 ? Float.NaN : (float) heatIndexCelsius(t, h);
+        }
+    }
+
+    /**
+     * Wind chill (Environment Canada) en °C; nunca por encima de la temperatura y sin
+     * efecto por debajo de 4,8 km/h.
+     *
+     * @param windSpeedKmh velocidad del viento en km/h
+     */
+    public static void windChill(float[] temperature, float[] windSpeedKmh, float[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            double t = temperature[i];
+            double wind = windSpeedKmh[i];
+            if (Double.isNaN(t) || Double.isNaN(wind)) {
+                out[i] = Float.NaN;
+            } else {
+                out[i] = wind < WIND_CHILL_MIN_KMH ? (float) t : (float) windChillCelsius(t, wind);
+            }
+        }
+    }
+
+    /** Punto de rocío (fórmula de Magnus) en °C. */
+    public static void dewPoint(float[] temperature, short[] humidity, float[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            double t = temperature[i];
+            int h = humidity[i];
+            if (Double.isNaN(t) || h <= 0 || h > 100) {
+                out[i] = Float.NaN;
+                continue;
+            }
+            double gamma = LN_HUMIDITY[h] + MAGNUS_A * t / (MAGNUS_B + t);
+            out[i] = (float) (MAGNUS_B * gamma / (MAGNUS_A - gamma));
+        }
+    }
+
+    private static double heatIndexCelsius(double t, int humidity) {
+        double f = t * 1.8 + 32.0;
+        double r = humidity;
+        // Rothfusz agrupado por potencias de la humedad (Horner)
+        double c0 = -42.379 + f * (2.04901523 - 6.83783e-3 * f);
+        double c1 = 10.14333127 + f * (-0.22475541 + 1.22874e-3 * f);
+        double c2 = -5.481717e-2 + f * (8.5282e-4 - 1.99e-6 * f);
+        double hi = c0 + r * (c1 + r * c2);
+        double hiC = (hi - 32.0) * (5.0 / 9.0);
+        return Math.max(hiC, t);
+    }
+
+    private static double windChillCelsius(double t, double windKmh) {
+        double wc = 13.12 + 0.6215 * t + (0.3965 * t - 11.37) * pow016(windKmh);
+        return Math.min(wc, t);
+    }
+
+    /** v^0.16 por tabla con interpolación lineal; error relativo < 1e-5 en el rango tabulado. */
+    static double pow016(double v) {
+        double position = v * POW_STEP_INVERSE;
+        if (position < POW_TABLE_FIRST || position >= POW_TABLE_LAST) {
+            return Math.pow(v, 0.16);
+        }
+        int index = (int) position;
+        double fraction = position - index;
+        return POW_016[index] + (POW_016[index + 1] - POW_016[index]) * fraction;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.api_weather.model;
+
+/**
+ * Respuesta decodificada de /v1/forecast: metadatos de la ubicación y tres series
+ * columnares. "current" tiene una sola fila; "hourly" y "daily" están vacías si no
+ * se pidieron.
+ */
+public class Forecast {
+    private final double latitude;
+    private final double longitude;
+    private final int utcOffsetSeconds;
+    private final String timezone;
+    private final double elevation;
+    private final ForecastSeries current;
+    private final ForecastSeries hourly;
+    private final ForecastSeries daily;
+
+    public Forecast(double latitude, double longitude, int utcOffsetSeconds, String timezone,
+                    double elevation, ForecastSeries current, ForecastSeries hourly,
+                    ForecastSeries daily) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.utcOffsetSeconds = utcOffsetSeconds;
+        this.timezone = timezone;
+        this.elevation = elevation;
+        this.current = current != null ? current : ForecastSeries.EMPTY;
+        this.hourly = hourly != null ? hourly : ForecastSeries.EMPTY;
+        this.daily = daily != null ? daily : ForecastSeries.EMPTY;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public int getUtcOffsetSeconds() {
+        return utcOffsetSeconds;
+    }
+
+    public String getTimezone() {
+        return timezone;
+    }
+
+    public double getElevation() {
+        return elevation;
+    }
+
+    public ForecastSeries getCurrent() {
+        return current;
+    }
+
+    public ForecastSeries getHourly() {
+        return hourly;
+    }
+
+    public ForecastSeries getDaily() {
+        return daily;
+    }
+}
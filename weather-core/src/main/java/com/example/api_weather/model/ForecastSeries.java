@@ -0,0 +1,155 @@
+package com.example.api_weather.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serie de pronóstico en formato columnar: un eje de tiempo en segundos epoch (long[])
+ * y una columna de primitivos por variable (float[] para magnitudes continuas, short[]
+ * para enteros pequeños como humedad, códigos WMO o probabilidades).
+ *
+ * Las columnas se exponen tal cual para recorridos sin asignaciones; no deben modificarse.
+ * Los valores ausentes se representan como NaN (float) o MISSING_SHORT (short).
+ */
+public final class ForecastSeries {
+    public static final short MISSING_SHORT = -1;
+    public static final ForecastSeries EMPTY = new Builder(new long[0]).build();
+
+    /** Variables de Open-Meteo soportadas, con su nombre en la API y su tipo de columna. */
+    public enum Variable {
+        TEMPERATURE_2M("temperature_2m", false),
+        RELATIVE_HUMIDITY_2M("relative_humidity_2m", true),
+        WEATHER_CODE("weather_code", true),
+        WIND_SPEED_10M("wind_speed_10m", false),
+        PRESSURE_MSL("pressure_msl", false),
+        UV_INDEX("uv_index", false),
+        PRECIPITATION_PROBABILITY("precipitation_probability", true),
+        TEMPERATURE_2M_MAX("temperature_2m_max", false),
+        TEMPERATURE_2M_MIN("temperature_2m_min", false),
+        PRECIPITATION_PROBABILITY_MAX("precipitation_probability_max", true),
+        IS_DAY("is_day", true);
+
+        private static final Map<String, Variable> BY_API_NAME = new HashMap<>();
+
+        static {
+            for (Variable variable : values()) {
+                BY_API_NAME.put(variable.apiName, variable);
+            }
+        }
+
+        private final String apiName;
+        private final boolean integral;
+
+        Variable(String apiName, boolean integral) {
+            this.apiName = apiName;
+            this.integral = integral;
+        }
+
+        public String getApiName() {
+            return apiName;
+        }
+
+        /** true si la columna se almacena como short[], false si como float[]. */
+        public boolean isIntegral() {
+            return integral;
+        }
+
+        public static Variable fromApiName(String apiName) {
+            return BY_API_NAME.get(apiName);
+        }
+    }
+
+    /** Visitante de filas; recibe el índice para leer las columnas sin crear objetos. */
+    public interface RowVisitor {
+        void visit(ForecastSeries series, int row);
+    }
+
+    private final long[] time;
+    private final float[][] floatColumns;
+    private final short[][] shortColumns;
+
+    private ForecastSeries(long[] time, float[][] floatColumns, short[][] shortColumns) {
+        this.time = time;
+        this.floatColumns = floatColumns;
+        this.shortColumns = shortColumns;
+    }
+
+    public int size() {
+        return time.length;
+    }
+
+    public long getTime(int row) {
+        return time[row];
+    }
+
+    public long[] getTimeColumn() {
+        return time;
+    }
+
+    public boolean has(Variable variable) {
+        return variable.integral
+                ? shortColumns[variable.ordinal()] != null
+                : floatColumns[variable.ordinal()] != null;
+    }
+
+    public float getFloat(Variable variable, int row) {
+        float[] column = floatColumns[variable.ordinal()];
+        return column != null ? column[row] : Float.NaN;
+    }
+
+    public short getShort(Variable variable, int row) {
+        short[] column = shortColumns[variable.ordinal()];
+        return column != null ? column[row] : MISSING_SHORT;
+    }
+
+    /** Columna float[] de la variable, o null si no se pidió. */
+    public float[] getFloatColumn(Variable variable) {
+        return floatColumns[variable.ordinal()];
+    }
+
+    /** Columna short[] de la variable, o null si no se pidió. */
+    public short[] getShortColumn(Variable variable) {
+        return shortColumns[variable.ordinal()];
+    }
+
+    public void forEachRow(RowVisitor visitor) {
+        for (int row = 0; row < time.length; row++) {
+            visitor.visit(this, row);
+        }
+    }
+
+    public static class Builder {
+        private final long[] time;
+        private final float[][] floatColumns = new float[Variable.values().length][];
+        private final short[][] shortColumns = new short[Variable.values().length][];
+
+        public Builder(long[] time) {
+            this.time = time;
+        }
+
+        public Builder putFloat(Variable variable, float[] column) {
+            checkColumn(variable, false, column.length);
+            floatColumns[variable.ordinal()] = column;
+            return this;
+        }
+
+        public Builder putShort(Variable variable, short[] column) {
+            checkColumn(variable, true, column.length);
+            shortColumns[variable.ordinal()] = column;
+            return this;
+        }
+
+        public ForecastSeries build() {
+            return new ForecastSeries(time, floatColumns.clone(), shortColumns.clone());
+        }
+
+        private void checkColumn(Variable variable, boolean integral, int length) {
+            if (variable.integral != integral) {
+                throw new IllegalArgumentException(variable + " is not stored as " + (integral ? "short" : "float"));
+            }
+            if (length != time.length) {
+                throw new IllegalArgumentException(variable + " has " + length + " rows, expected " + time.length);
+            }
+        }
+    }
+}
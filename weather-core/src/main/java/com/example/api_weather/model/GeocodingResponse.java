@@ -0,0 +1,118 @@
+package com.example.api_weather.model;
+
+import com.google.gson.annotations.SerializedName;
+import java.util.List;
+
+public class GeocodingResponse {
+    @SerializedName("results")
+    private List<Location> results;
+
+    public List<Location> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Location> results) {
+        this.results = results;
+    }
+
+    public static class Location {
+        @SerializedName("id")
+        private long id;
+
+        @SerializedName("name")
+        private String name;
+
+        @SerializedName("latitude")
+        private double latitude;
+
+        @SerializedName("longitude")
+        private double longitude;
+
+        @SerializedName("country_code")
+        private String countryCode;
+
+        @SerializedName("country")
+        private String country;
+
+        @SerializedName("admin1")
+        private String admin1;
+
+        @SerializedName("timezone")
+        private String timezone;
+
+        @SerializedName("population")
+        private long population;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public void setLatitude(double latitude) {
+            this.latitude = latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+
+        public void setLongitude(double longitude) {
+            this.longitude = longitude;
+        }
+
+        public String getCountryCode() {
+            return countryCode;
+        }
+
+        public void setCountryCode(String countryCode) {
+            this.countryCode = countryCode;
+        }
+
+        public String getCountry() {
+            return country;
+        }
+
+        public void setCountry(String country) {
+            this.country = country;
+        }
+
+        public String getAdmin1() {
+            return admin1;
+        }
+
+        public void setAdmin1(String admin1) {
+            this.admin1 = admin1;
+        }
+
+        public String getTimezone() {
+            return timezone;
+        }
+
+        public void setTimezone(String timezone) {
+            this.timezone = timezone;
+        }
+
+        public long getPopulation() {
+            return population;
+        }
+
+        public void setPopulation(long population) {
+            this.population = population;
+        }
+    }
+}
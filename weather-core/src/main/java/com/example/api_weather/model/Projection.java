@@ -0,0 +1,167 @@
+package com.example.api_weather.model;
+
+/**
+ * Variables de Open-Meteo que necesita un consumidor (una pantalla, una lista, un widget),
+ * separadas por sección: current, hourly y daily. Inmutable.
+ *
+ * Cada sección es una máscara de bits por ordinal de ForecastSeries.Variable, igual que las
+ * filas de ForecastStore, así que unir las necesidades de varios consumidores (union) o
+ * comprobar si unos datos ya descargados bastan (covers) son operaciones de bits. Los
+ * parámetros se generan en orden de ordinal: dos proyecciones iguales producen siempre la
+ * misma URL y la misma clave.
+ */
+public final class Projection {
+    public static final Projection EMPTY = new Projection(0, 0, 0);
+
+    private static final ForecastSeries.Variable[] VARIABLES = ForecastSeries.Variable.values();
+
+    private final long current;
+    private final long hourly;
+    private final long daily;
+    // Parámetros precalculados; null si la sección está vacía
+    private final String currentParam;
+    private final String hourlyParam;
+    private final String dailyParam;
+
+    private Projection(long current, long hourly, long daily) {
+        this.current = current;
+        this.hourly = hourly;
+        this.daily = daily;
+        this.currentParam = param(current);
+        this.hourlyParam = param(hourly);
+        this.dailyParam = param(daily);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Proyección con las variables de ambas; la petición que la cumple sirve a los dos. */
+    public Projection union(Projection other) {
+        if (covers(other)) {
+            return this;
+        }
+        if (other.covers(this)) {
+            return other;
+        }
+        return new Projection(current | other.current, hourly | other.hourly, daily | other.daily);
+    }
+
+    /** true si unos datos descargados con esta proyección incluyen todo lo que pide needed. */
+    public boolean covers(Projection needed) {
+        return (needed.current & ~current) == 0
+                && (needed.hourly & ~hourly) == 0
+                && (needed.daily & ~daily) == 0;
+    }
+
+    public boolean isEmpty() {
+        return current == 0 && hourly == 0 && daily == 0;
+    }
+
+    public long getCurrentMask() {
+        return current;
+    }
+
+    public long getHourlyMask() {
+        return hourly;
+    }
+
+    public long getDailyMask() {
+        return daily;
+    }
+
+    /** Valor del parámetro current, o null si no se necesita ninguna variable actual. */
+    public String getCurrent() {
+        return currentParam;
+    }
+
+    public String getHourly() {
+        return hourlyParam;
+    }
+
+    public String getDaily() {
+        return dailyParam;
+    }
+
+    /** Identifica la proyección en claves de peticiones en curso y en diagnósticos. */
+    public String getKey() {
+        return (currentParam != null ? currentParam : "") + "|"
+                + (hourlyParam != null ? hourlyParam : "") + "|"
+                + (dailyParam != null ? dailyParam : "");
+    }
+
+    private static String param(long mask) {
+        if (mask == 0) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder();
+        for (ForecastSeries.Variable variable : VARIABLES) {
+            if ((mask & bit(variable)) != 0) {
+                if (builder.length() > 0) {
+                    builder.append(',');
+                }
+                builder.append(variable.getApiName());
+            }
+        }
+        return builder.toString();
+    }
+
+    private static long bit(ForecastSeries.Variable variable) {
+        return 1L << variable.ordinal();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Projection)) {
+            return false;
+        }
+        Projection that = (Projection) o;
+        return current == that.current && hourly == that.hourly && daily == that.daily;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(current) * 961 + Long.hashCode(hourly) * 31 + Long.hashCode(daily);
+    }
+
+    @Override
+    public String toString() {
+        return "Projection{" + getKey() + "}";
+    }
+
+    public static class Builder {
+        private long current;
+        private long hourly;
+        private long daily;
+
+        public Builder current(ForecastSeries.Variable... variables) {
+            current |= mask(variables);
+            return this;
+        }
+
+        public Builder hourly(ForecastSeries.Variable... variables) {
+            hourly |= mask(variables);
+            return this;
+        }
+
+        public Builder daily(ForecastSeries.Variable... variables) {
+            daily |= mask(variables);
+            return this;
+        }
+
+        public Projection build() {
+            return new Projection(current, hourly, daily);
+        }
+
+        private static long mask(ForecastSeries.Variable[] variables) {
+            long mask = 0;
+            for (ForecastSeries.Variable variable : variables) {
+                mask |= bit(variable);
+            }
+            return mask;
+        }
+    }
+}
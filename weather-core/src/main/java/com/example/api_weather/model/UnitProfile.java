@@ -0,0 +1,166 @@
+package com.example.api_weather.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Unidades e idioma en los que el usuario ve el clima. Open-Meteo hace la conversión
+ * (temperature_unit, wind_speed_unit, precipitation_unit), así que el cliente muestra los
+ * valores tal cual llegan; por eso las unidades forman parte de las claves de caché
+ * (getKey) y dos perfiles nunca comparten entradas. El idioma solo afecta a la
+ * geocodificación, cuyas claves ya lo incluyen.
+ */
+public final class UnitProfile {
+
+    public enum Temperature {
+        CELSIUS("celsius", "°C"),
+        FAHRENHEIT("fahrenheit", "°F");
+
+        final String apiName;
+        final String symbol;
+
+        Temperature(String apiName, String symbol) {
+            this.apiName = apiName;
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+    }
+
+    public enum WindSpeed {
+        KMH("kmh", "km/h", 1.0),
+        MS("ms", "m/s", 3.6),
+        MPH("mph", "mph", 1.609344),
+        KNOTS("kn", "kn", 1.852);
+
+        final String apiName;
+        final String symbol;
+        final double toKmh;
+
+        WindSpeed(String apiName, String symbol, double toKmh) {
+            this.apiName = apiName;
+            this.symbol = symbol;
+            this.toKmh = toKmh;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        /** Factor para pasar esta unidad a km/h (las fórmulas de sensación térmica la usan). */
+        public double getToKmh() {
+            return toKmh;
+        }
+    }
+
+    public enum Precipitation {
+        MM("mm", "mm"),
+        INCH("inch", "in");
+
+        final String apiName;
+        final String symbol;
+
+        Precipitation(String apiName, String symbol) {
+            this.apiName = apiName;
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+    }
+
+    // Países que usan °F y mph por defecto
+    private static final String[] IMPERIAL_COUNTRIES = {"US", "LR", "MM"};
+
+    private final Temperature temperature;
+    private final WindSpeed windSpeed;
+    private final Precipitation precipitation;
+    private final String language;
+    private final String key;
+    private final Map<String, String> queryParameters;
+
+    public UnitProfile(Temperature temperature, WindSpeed windSpeed, Precipitation precipitation, String language) {
+        this.temperature = temperature;
+        this.windSpeed = windSpeed;
+        this.precipitation = precipitation;
+        this.language = language;
+        this.key = temperature.apiName + "," + windSpeed.apiName + "," + precipitation.apiName;
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("temperature_unit", temperature.apiName);
+        parameters.put("wind_speed_unit", windSpeed.apiName);
+        parameters.put("precipitation_unit", precipitation.apiName);
+        this.queryParameters = Collections.unmodifiableMap(parameters);
+    }
+
+    /** °C, m/s y mm: lo que la app mostraba antes de poder elegir. */
+    public static UnitProfile metric(String language) {
+        return new UnitProfile(Temperature.CELSIUS, WindSpeed.MS, Precipitation.MM, language);
+    }
+
+    public static UnitProfile imperial(String language) {
+        return new UnitProfile(Temperature.FAHRENHEIT, WindSpeed.MPH, Precipitation.INCH, language);
+    }
+
+    /** Perfil por defecto según el país e idioma del dispositivo. */
+    public static UnitProfile defaultFor(Locale locale) {
+        for (String country : IMPERIAL_COUNTRIES) {
+            if (country.equals(locale.getCountry())) {
+                return imperial(locale.getLanguage());
+            }
+        }
+        return metric(locale.getLanguage());
+    }
+
+    public Temperature getTemperature() {
+        return temperature;
+    }
+
+    public WindSpeed getWindSpeed() {
+        return windSpeed;
+    }
+
+    public Precipitation getPrecipitation() {
+        return precipitation;
+    }
+
+    /** Código ISO 639-1 para el parámetro language de la geocodificación. */
+    public String getLanguage() {
+        return language;
+    }
+
+    public boolean isFahrenheit() {
+        return temperature == Temperature.FAHRENHEIT;
+    }
+
+    /** Parte de las claves de caché que distingue unidades: "celsius,ms,mm". */
+    public String getKey() {
+        return key;
+    }
+
+    /** temperature_unit, wind_speed_unit y precipitation_unit para las peticiones de pronóstico. */
+    public Map<String, String> getQueryParameters() {
+        return queryParameters;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UnitProfile)) {
+            return false;
+        }
+        UnitProfile other = (UnitProfile) o;
+        return key.equals(other.key) && language.equals(other.language);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * key.hashCode() + language.hashCode();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.api_weather.model;
+
+/**
+ * Tabla inmutable de códigos WMO (0..99) de Open-Meteo: categoría principal, descripción
+ * por defecto en español e icono. La descripción localizada es un recurso de la app
+ * (WeatherResources), que este módulo no conoce.
+ *
+ * Se construye una sola vez; of() es un acceso a array sin asignaciones y la comparten el
+ * mapper, los adaptadores de listas y cualquier otra vista del pronóstico.
+ */
+public final class WeatherCode {
+    public static final int MAX_CODE = 99;
+    public static final WeatherCode UNKNOWN = new WeatherCode(-1, "Unknown",
+            "desconocido", WeatherIcon.CLEAR);
+
+    private static final WeatherCode[] TABLE = new WeatherCode[MAX_CODE + 1];
+
+    static {
+        // Rangos de categoría e icono; los códigos sin descripción propia usan la genérica
+        fill(0, 0, "Clear", WeatherIcon.CLEAR);
+        fill(1, 2, "Clouds", WeatherIcon.FEW_CLOUDS);
+        fill(3, 3, "Clouds", WeatherIcon.CLOUDS);
+        fill(4, 49, "Fog", WeatherIcon.FOG);
+        fill(50, 59, "Drizzle", WeatherIcon.DRIZZLE);
+        fill(60, 69, "Rain", WeatherIcon.RAIN);
+        fill(70, 79, "Snow", WeatherIcon.SNOW);
+        fill(80, 84, "Rain", WeatherIcon.DRIZZLE);
+        fill(85, 86, "Snow", WeatherIcon.SNOW);
+        fill(87, 99, "Thunderstorm", WeatherIcon.THUNDERSTORM);
+
+        describe(0, "cielo despejado");
+        describe(1, "mayormente despejado");
+        describe(2, "parcialmente nublado");
+        describe(3, "nublado");
+        describe(45, "niebla");
+        describe(48, "niebla con escarcha");
+        describe(51, "llovizna ligera");
+        describe(53, "llovizna moderada");
+        describe(55, "llovizna densa");
+        describe(56, "llovizna helada ligera");
+        describe(57, "llovizna helada densa");
+        describe(61, "lluvia ligera");
+        describe(63, "lluvia moderada");
+        describe(65, "lluvia intensa");
+        describe(66, "lluvia helada ligera");
+        describe(67, "lluvia helada intensa");
+        describe(71, "nieve ligera");
+        describe(73, "nieve moderada");
+        describe(75, "nieve intensa");
+        describe(77, "granos de nieve");
+        describe(80, "chubascos ligeros");
+        describe(81, "chubascos moderados");
+        describe(82, "chubascos intensos");
+        describe(85, "chubascos de nieve ligeros");
+        describe(86, "chubascos de nieve intensos");
+        describe(95, "tormenta");
+        describe(96, "tormenta con granizo");
+        describe(99, "tormenta intensa con granizo");
+    }
+
+    private final int code;
+    private final String main;
+    private final String description;
+    private final WeatherIcon icon;
+
+    private WeatherCode(int code, String main, String description, WeatherIcon icon) {
+        this.code = code;
+        this.main = main;
+        this.description = description;
+        this.icon = icon;
+    }
+
+    private static void fill(int from, int to, String main, WeatherIcon icon) {
+        for (int code = from; code <= to; code++) {
+            TABLE[code] = new WeatherCode(code, main, UNKNOWN.description, icon);
+        }
+    }
+
+    private static void describe(int code, String description) {
+        WeatherCode base = TABLE[code];
+        TABLE[code] = new WeatherCode(code, base.main, description, base.icon);
+    }
+
+    /** Entrada del código, o UNKNOWN si está fuera de 0..99 (incluido MISSING_SHORT). */
+    public static WeatherCode of(int code) {
+        return code >= 0 && code <= MAX_CODE ? TABLE[code] : UNKNOWN;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /** Categoría principal ("Clear", "Rain"...); literales internados, comparables con ==. */
+    public String getMain() {
+        return main;
+    }
+
+    /** Descripción en español, para quien no tiene un Context con el que resolver el recurso. */
+    public String getDescription() {
+        return description;
+    }
+
+    public WeatherIcon getIcon() {
+        return icon;
+    }
+
+    public String getIconId(boolean isDay) {
+        return icon.getId(isDay);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.api_weather.model;
+
+/**
+ * Iconos del clima, cada uno con su variante de día y de noche: el identificador estilo
+ * OpenWeatherMap ("01d", "01n"...) que viaja en Weather.icon. El vector que lo dibuja es un
+ * recurso de la app (WeatherResources); los iconos sin sol ni luna comparten el mismo.
+ */
+public enum WeatherIcon {
+    CLEAR("01"),
+    FEW_CLOUDS("02"),
+    CLOUDS("03"),
+    DRIZZLE("09"),
+    RAIN("10"),
+    THUNDERSTORM("11"),
+    SNOW("13"),
+    FOG("50");
+
+    private final String dayId;
+    private final String nightId;
+
+    WeatherIcon(String id) {
+        this.dayId = (id + "d").intern();
+        this.nightId = (id + "n").intern();
+    }
+
+    public String getId(boolean isDay) {
+        return isDay ? dayId : nightId;
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.api_weather.model;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Datos del clima que consume la UI. Es una vista sobre la fila 0 del pronóstico columnar
+ * (Forecast): las lecturas numéricas se leen directamente de las columnas. Los objetos
+ * Main/Wind/Sys... se mantienen por compatibilidad con el formato anterior, pero solo se
+ * construyen si alguien los pide, y la sensación térmica solo se calcula al mostrarla.
+ *
+ * Una misma respuesta se lee desde varios hilos (está en ResponseCache, la tocan el pipeline
+ * y los hilos de OkHttp, y el motor sin Android la sirve a peticiones concurrentes), así que
+ * lo memoizado se publica con seguridad: cada objeto se construye completo en una variable
+ * local y se asigna a un campo volatile, y la sensación térmica vive en un contenedor
+ * inmutable. Dos hilos que lo pidan a la vez pueden calcularlo dos veces, con el mismo
+ * resultado. Los set sirven para construir una respuesta antes de publicarla, no para
+ * cambiar una compartida: para otro nombre o país está withPlace.
+ */
+public class WeatherResponse {
+    private transient Forecast forecast;
+    // Unidades en las que se pidió el pronóstico; null en respuestas sin perfil (= métricas)
+    private transient UnitProfile units;
+    private transient String country;
+    // null hasta que se calcula; setUnits lo descarta
+    private transient volatile FeelsLike feelsLike;
+
+    @SerializedName("coord")
+    private volatile Coord coord;
+    
+    @SerializedName("weather")
+    private volatile List<Weather> weather;
+    
+    @SerializedName("base")
+    private String base;
+    
+    @SerializedName("main")
+    private volatile Main main;
+    
+    @SerializedName("visibility")
+    private int visibility;
+    
+    @SerializedName("wind")
+    private volatile Wind wind;
+    
+    @SerializedName("clouds")
+    private volatile Clouds clouds;
+    
+    @SerializedName("dt")
+    private long dt;
+    
+    @SerializedName("sys")
+    private volatile Sys sys;
+    
+    @SerializedName("timezone")
+    private int timezone;
+    
+    @SerializedName("id")
+    private int id;
+    
+    @SerializedName("name")
+    private String name;
+    
+    @SerializedName("cod")
+    private int cod;
+
+    public WeatherResponse() {
+    }
+
+    public WeatherResponse(Forecast forecast) {
+        this.forecast = forecast;
+    }
+
+    /**
+     * Copia sobre el mismo pronóstico y unidades con otro nombre y país, para mostrar una
+     * respuesta compartida (p. ej. de ResponseCache) sin modificarla: dos ciudades de la
+     * misma celda de la rejilla comparten pronóstico pero no nombre.
+     */
+    public WeatherResponse withPlace(String name, String country) {
+        WeatherResponse copy = new WeatherResponse(forecast);
+        copy.units = units;
+        copy.name = name;
+        copy.country = country;
+        return copy;
+    }
+
+    public Forecast getForecast() {
+        return forecast;
+    }
+
+    public UnitProfile getUnits() {
+        return units;
+    }
+
+    public void setUnits(UnitProfile units) {
+        this.units = units;
+        feelsLike = null;
+    }
+
+    // Vista sobre la fila 0 de "current" (y de "daily" para mínimas y máximas)
+    public double getTemperature() {
+        return currentFloat(ForecastSeries.Variable.TEMPERATURE_2M);
+    }
+
+    public int getHumidity() {
+        return currentShort(ForecastSeries.Variable.RELATIVE_HUMIDITY_2M);
+    }
+
+    public double getPressure() {
+        return currentFloat(ForecastSeries.Variable.PRESSURE_MSL);
+    }
+
+    public double getWindSpeed() {
+        return currentFloat(ForecastSeries.Variable.WIND_SPEED_10M);
+    }
+
+    public double getUvIndex() {
+        return currentFloat(ForecastSeries.Variable.UV_INDEX);
+    }
+
+    public int getWeatherCode() {
+        return currentShort(ForecastSeries.Variable.WEATHER_CODE);
+    }
+
+    /** true salvo que Open-Meteo indique noche (is_day = 0); sin el dato se asume de día. */
+    public boolean isDay() {
+        return currentShort(ForecastSeries.Variable.IS_DAY) != 0;
+    }
+
+    public double getTemperatureMin() {
+        return dailyOrCurrentTemperature(ForecastSeries.Variable.TEMPERATURE_2M_MIN);
+    }
+
+    public double getTemperatureMax() {
+        return dailyOrCurrentTemperature(ForecastSeries.Variable.TEMPERATURE_2M_MAX);
+    }
+
+    private double currentFloat(ForecastSeries.Variable variable) {
+        if (forecast == null || forecast.getCurrent().size() == 0) {
+            return Double.NaN;
+        }
+        return forecast.getCurrent().getFloat(variable, 0);
+    }
+
+    private int currentShort(ForecastSeries.Variable variable) {
+        if (forecast == null || forecast.getCurrent().size() == 0) {
+            return ForecastSeries.MISSING_SHORT;
+        }
+        return forecast.getCurrent().getShort(variable, 0);
+    }
+
+    private double dailyOrCurrentTemperature(ForecastSeries.Variable variable) {
+        // Sin serie diaria se usa la temperatura actual, como hacía convertToWeatherResponse
+        if (forecast != null && forecast.getDaily().size() > 0 && forecast.getDaily().has(variable)) {
+            return forecast.getDaily().getFloat(variable, 0);
+        }
+        return getTemperature();
+    }
+
+    /**
+     * Sensación térmica de la fila 0 en las unidades de la respuesta; se calcula la primera
+     * vez que se pide (normalmente al pintarla) y se recuerda. Sin los datos necesarios es la
+     * temperatura.
+     */
+    public double getFeelsLike() {
+        FeelsLike memo = feelsLike;
+        if (memo == null) {
+            memo = new FeelsLike(computeFeelsLike());
+            feelsLike = memo;
+        }
+        return memo.value;
+    }
+
+    private double computeFeelsLike() {
+        if (forecast == null || forecast.getCurrent().size() == 0) {
+            return main != null ? main.getFeelsLike() : Double.NaN;
+        }
+        float[] apparent = units == null
+                ? DerivedMetrics.apparentTemperature(forecast.getCurrent())
+                : DerivedMetrics.apparentTemperature(forecast.getCurrent(), units.isFahrenheit(),
+                        units.getWindSpeed().getToKmh());
+        return apparent != null && !Float.isNaN(apparent[0]) ? apparent[0] : getTemperature();
+    }
+
+    /** País de la ubicación (código ISO) sin construir Sys. */
+    public String getCountry() {
+        Sys current = sys;
+        return current != null ? current.getCountry() : country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+        Sys current = sys;
+        if (current != null) {
+            current.setCountry(country);
+        }
+    }
+
+    // Objetos del formato anterior: se construyen al primer acceso a partir del pronóstico y
+    // se recuerdan; un set explícito los sustituye. Se asignan ya completos (ver la clase)
+    public Coord getCoord() {
+        Coord current = coord;
+        if (current == null && forecast != null) {
+            current = new Coord();
+            current.setLat(forecast.getLatitude());
+            current.setLon(forecast.getLongitude());
+            coord = current;
+        }
+        return current;
+    }
+
+    public void setCoord(Coord coord) {
+        this.coord = coord;
+    }
+
+    public List<Weather> getWeather() {
+        List<Weather> current = weather;
+        if (current == null && forecast != null) {
+            Weather condition = new Weather();
+            if (forecast.getCurrent().size() > 0) {
+                WeatherCode weatherCode = WeatherCode.of(getWeatherCode());
+                condition.setId(getWeatherCode());
+                condition.setMain(weatherCode.getMain());
+                condition.setDescription(weatherCode.getDescription());
+                condition.setIcon(weatherCode.getIconId(isDay()));
+            }
+            current = Collections.singletonList(condition);
+            weather = current;
+        }
+        return current;
+    }
+
+    public void setWeather(List<Weather> weather) {
+        this.weather = weather;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public void setBase(String base) {
+        this.base = base;
+    }
+
+    public Main getMain() {
+        Main current = main;
+        if (current == null && forecast != null) {
+            current = new Main();
+            if (forecast.getCurrent().size() > 0) {
+                current.setTemp(getTemperature());
+                current.setFeelsLike(getFeelsLike());
+                // Temperatura máxima y mínima del día actual (o la actual si no hay serie diaria)
+                current.setTempMin(getTemperatureMin());
+                current.setTempMax(getTemperatureMax());
+                current.setHumidity(getHumidity());
+                current.setPressure((int) Math.round(getPressure()));
+            }
+            main = current;
+        }
+        return current;
+    }
+
+    public void setMain(Main main) {
+        this.main = main;
+    }
+
+    public int getVisibility() {
+        return visibility;
+    }
+
+    public void setVisibility(int visibility) {
+        this.visibility = visibility;
+    }
+
+    public Wind getWind() {
+        Wind current = wind;
+        if (current == null && forecast != null) {
+            current = new Wind();
+            if (forecast.getCurrent().size() > 0) {
+                current.setSpeed(getWindSpeed());
+            }
+            wind = current;
+        }
+        return current;
+    }
+
+    public void setWind(Wind wind) {
+        this.wind = wind;
+    }
+
+    /** Open-Meteo no proporciona nubosidad en esta petición: siempre 0. */
+    public Clouds getClouds() {
+        Clouds current = clouds;
+        if (current == null && forecast != null) {
+            current = new Clouds();
+            clouds = current;
+        }
+        return current;
+    }
+
+    public void setClouds(Clouds clouds) {
+        this.clouds = clouds;
+    }
+
+    /** Instante de la fila 0 (segundos epoch). */
+    public long getDt() {
+        if (forecast != null && forecast.getCurrent().size() > 0) {
+            return forecast.getCurrent().getTime(0);
+        }
+        return dt;
+    }
+
+    public void setDt(long dt) {
+        this.dt = dt;
+    }
+
+    public Sys getSys() {
+        Sys current = sys;
+        if (current == null && forecast != null) {
+            current = new Sys();
+            current.setCountry(country);
+            sys = current;
+        }
+        return current;
+    }
+
+    public void setSys(Sys sys) {
+        this.sys = sys;
+    }
+
+    /** Desfase respecto a UTC en segundos. */
+    public int getTimezone() {
+        return forecast != null ? forecast.getUtcOffsetSeconds() : timezone;
+    }
+
+    public void setTimezone(int timezone) {
+        this.timezone = timezone;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getCod() {
+        return forecast != null ? 200 : cod;
+    }
+
+    public void setCod(int cod) {
+        this.cod = cod;
+    }
+
+    /** Sensación térmica ya calculada; inmutable para publicarla con una sola escritura volatile. */
+    private static final class FeelsLike {
+        final double value;
+
+        FeelsLike(double value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.api_weather.prefetch;
+
+/** Estado del dispositivo que decide si merece la pena precargar ahora. */
+public interface DeviceConditions {
+    /** true si la red activa no es de datos medidos (wifi, ethernet). */
+    boolean isUnmetered();
+
+    boolean isBatteryLow();
+
+    boolean isCharging();
+}
@@ -0,0 +1,137 @@
+package com.example.api_weather.prefetch;
+
+import com.example.api_weather.api.ForecastParams;
+import com.example.api_weather.api.LocationBatch;
+import com.example.api_weather.api.WeatherApi;
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.GeocodingResponse;
+import com.example.api_weather.model.UnitProfile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import retrofit2.Response;
+
+/**
+ * Lógica de la precarga periódica de ubicaciones guardadas, sin dependencias de Android:
+ * decide si toca ejecutar, agrupa las ubicaciones en las mínimas peticiones por lotes y
+ * entrega cada pronóstico al Sink. Tras un fallo espera con retroceso exponencial.
+ *
+ * Las llamadas son síncronas (Call.execute()): se ejecuta en el hilo del Worker.
+ */
+public class PrefetchScheduler {
+    static final long INTERVAL_MS = TimeUnit.MINUTES.toMillis(30);
+    static final long INITIAL_BACKOFF_MS = TimeUnit.MINUTES.toMillis(2);
+    static final long MAX_BACKOFF_MS = TimeUnit.HOURS.toMillis(6);
+    /** Espera cuando las condiciones (red medida, batería baja) no permiten precargar. */
+    static final long CONSTRAINED_RETRY_MS = TimeUnit.MINUTES.toMillis(15);
+
+    public enum Result {
+        REFRESHED,
+        NOT_DUE,
+        CONSTRAINED,
+        NO_LOCATIONS,
+        FAILED
+    }
+
+    /** Recibe cada pronóstico precargado, p. ej. para guardarlo en ForecastCache. */
+    public interface Sink {
+        void onForecast(GeocodingResponse.Location location, Forecast forecast);
+    }
+
+    private final WeatherApi weatherApi;
+    private final UnitProfile units;
+    private final Supplier<List<GeocodingResponse.Location>> locations;
+    private final Sink sink;
+    private final DeviceConditions conditions;
+    private final LongSupplier clock;
+    private long nextRunAt;
+    private int consecutiveFailures;
+
+    /** @param units unidades en las que se piden los pronósticos (las de la pantalla) */
+    public PrefetchScheduler(WeatherApi weatherApi, UnitProfile units,
+                             Supplier<List<GeocodingResponse.Location>> locations,
+                             Sink sink, DeviceConditions conditions, LongSupplier clock) {
+        this.weatherApi = weatherApi;
+        this.units = units;
+        this.locations = locations;
+        this.sink = sink;
+        this.conditions = conditions;
+        this.clock = clock;
+    }
+
+    /** Restaura el estado guardado por una ejecución anterior (el proceso puede haber muerto). */
+    public synchronized void restore(long nextRunAt, int consecutiveFailures) {
+        this.nextRunAt = nextRunAt;
+        this.consecutiveFailures = consecutiveFailures;
+    }
+
+    public synchronized Result runIfDue() {
+        long now = clock.getAsLong();
+        if (now < nextRunAt) {
+            return Result.NOT_DUE;
+        }
+        if (!conditions.isUnmetered() || (conditions.isBatteryLow() && !conditions.isCharging())) {
+            nextRunAt = now + CONSTRAINED_RETRY_MS;
+            return Result.CONSTRAINED;
+        }
+        List<GeocodingResponse.Location> targets = locations.get();
+        if (targets.isEmpty()) {
+            nextRunAt = now + INTERVAL_MS;
+            return Result.NO_LOCATIONS;
+        }
+        for (LocationBatch batch : LocationBatch.plan(targets, ForecastParams.BATCH_FIXED_URL_LENGTH)) {
+            if (!fetch(batch)) {
+                consecutiveFailures++;
+                nextRunAt = clock.getAsLong() + backoffMs(consecutiveFailures);
+                return Result.FAILED;
+            }
+        }
+        consecutiveFailures = 0;
+        nextRunAt = clock.getAsLong() + INTERVAL_MS;
+        return Result.REFRESHED;
+    }
+
+    public synchronized long getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /** Milisegundos hasta la próxima ejecución; 0 si ya toca. */
+    public synchronized long delayUntilNextRun() {
+        return Math.max(0, nextRunAt - clock.getAsLong());
+    }
+
+    /** INITIAL_BACKOFF_MS, el doble en cada fallo seguido, hasta MAX_BACKOFF_MS. */
+    static long backoffMs(int failures) {
+        int shift = Math.min(failures - 1, 20);
+        return Math.min(INITIAL_BACKOFF_MS << shift, MAX_BACKOFF_MS);
+    }
+
+    private boolean fetch(LocationBatch batch) {
+        Response<List<Forecast>> response;
+        try {
+            response = weatherApi.getCurrentWeatherBatch(batch.getLatitudes(), batch.getLongitudes(),
+                    ForecastParams.CONDITIONS.getCurrent(), ForecastParams.CONDITIONS.getDaily(), ForecastParams.TIMEZONE,
+                    ForecastParams.TIME_FORMAT, units.getQueryParameters()).execute();
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+        List<GeocodingResponse.Location> batchLocations = batch.getLocations();
+        if (!response.isSuccessful() || response.body() == null
+                || response.body().size() != batchLocations.size()) {
+            return false;
+        }
+        // Open-Meteo devuelve los pronósticos en el orden de las coordenadas
+        for (int i = 0; i < batchLocations.size(); i++) {
+            sink.onForecast(batchLocations.get(i), response.body().get(i));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.api_weather.search;
+
+import com.example.api_weather.cache.GeocodingCache;
+import com.example.api_weather.model.GeocodingResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nomenclátor de ciudades leído sobre un ByteBuffer, normalmente mapeado en memoria (en la
+ * app, GazetteerAsset mapea assets/gazetteer.bin): abrirlo no carga nada en el heap y cada
+ * búsqueda es una búsqueda binaria sobre los registros ordenados, sin crear Strings salvo
+ * para el resultado.
+ *
+ * Formato (big endian), generado por GazetteerWriter del módulo :gazetteer-tool:
+ * <pre>
+ * cabecera:  "GZT1" | int número de registros | int offset del bloque de textos
+ * registros: int offset nombre normalizado | int offset nombre | int id GeoNames |
+ *            float lat | float lon | int población | 2 bytes código de país |
+ *            2 bytes de relleno                                               (28 bytes)
+ * textos:    short longitud | bytes UTF-8, referenciados por offset
+ * </pre>
+ * Los registros están ordenados por nombre normalizado (bytes UTF-8) y, a igual nombre,
+ * por población descendente.
+ */
+public class Gazetteer {
+    public static final int MAGIC = 0x475A5431; // "GZT1"
+    public static final int HEADER_SIZE = 12;
+    public static final int RECORD_SIZE = 28;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int stringsOffset;
+
+    /** @throws IllegalArgumentException si el buffer no empieza por la cabecera GZT1 */
+    public Gazetteer(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a gazetteer file");
+        }
+        this.count = buffer.getInt(4);
+        this.stringsOffset = buffer.getInt(8);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** La localidad más poblada cuyo nombre normalizado coincide exactamente, o null. */
+    public GeocodingResponse.Location find(String cityName) {
+        byte[] key = GeocodingCache.normalize(cityName).getBytes(StandardCharsets.UTF_8);
+        int index = lowerBound(key);
+        if (index < count && compareName(index, key, false) == 0) {
+            return toLocation(index);
+        }
+        return null;
+    }
+
+    /** Localidades cuyo nombre normalizado empieza por el prefijo, en orden alfabético. */
+    public List<GeocodingResponse.Location> findByPrefix(String prefix, int limit) {
+        byte[] key = GeocodingCache.normalize(prefix).getBytes(StandardCharsets.UTF_8);
+        List<GeocodingResponse.Location> matches = new ArrayList<>();
+        for (int index = lowerBound(key); index < count && matches.size() < limit; index++) {
+            if (compareName(index, key, true) != 0) {
+                break;
+            }
+            matches.add(toLocation(index));
+        }
+        return matches;
+    }
+
+    private int lowerBound(byte[] key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareName(mid, key, false) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compara el nombre normalizado del registro con la clave, byte a byte sobre el buffer
+     * mapeado. Con prefixOnly, un nombre que empieza por la clave cuenta como igual.
+     */
+    private int compareName(int index, byte[] key, boolean prefixOnly) {
+        int offset = stringsOffset + buffer.getInt(recordOffset(index));
+        int length = buffer.getShort(offset) & 0xFFFF;
+        int start = offset + 2;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int a = buffer.get(start + i) & 0xFF;
+            int b = key[i] & 0xFF;
+            if (a != b) {
+                return a - b;
+            }
+        }
+        if (prefixOnly && length >= key.length) {
+            return 0;
+        }
+        return length - key.length;
+    }
+
+    private GeocodingResponse.Location toLocation(int index) {
+        int record = recordOffset(index);
+        GeocodingResponse.Location location = new GeocodingResponse.Location();
+        location.setName(readString(buffer.getInt(record + 4)));
+        location.setId(buffer.getInt(record + 8));
+        location.setLatitude(buffer.getFloat(record + 12));
+        location.setLongitude(buffer.getFloat(record + 16));
+        location.setPopulation(buffer.getInt(record + 20) & 0xFFFFFFFFL);
+        char first = (char) buffer.get(record + 24);
+        char second = (char) buffer.get(record + 25);
+        location.setCountryCode(new String(new char[]{first, second}));
+        return location;
+    }
+
+    private String readString(int relativeOffset) {
+        int offset = stringsOffset + relativeOffset;
+        int length = buffer.getShort(offset) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int recordOffset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.api_weather;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Bytes asignados por operación en el hilo actual, para las pruebas que comprueban que un
+ * camino no asigna (o asigna menos que otro). El tiempo lo miden los benchmarks JMH de
+ * :benchmarks; las asignaciones por operación son estables y sirven como aserción.
+ */
+public final class Allocations {
+
+    /** Operación medida; devuelve un valor que se acumula para que el JIT no la elimine. */
+    public interface Operation {
+        long run() throws Exception;
+    }
+
+    private Allocations() {
+    }
+
+    /** Media de bytes asignados por ejecución de operation, tras warmup ejecuciones de calentamiento. */
+    public static long perOperation(int warmup, int iterations, Operation operation) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < warmup; i++) {
+            sink += operation.run();
+        }
+        long before = threadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            sink += operation.run();
+        }
+        long allocated = threadAllocatedBytes() - before;
+        assertNotEquals(Long.MIN_VALUE, sink);
+        return allocated / iterations;
+    }
+
+    private static long threadAllocatedBytes() {
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
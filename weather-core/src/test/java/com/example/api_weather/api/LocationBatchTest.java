@@ -0,0 +1,92 @@
+package com.example.api_weather.api;
+
+import com.example.api_weather.model.GeocodingResponse;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Reparto de ubicaciones en peticiones por lotes dentro del límite de longitud de URL.
+ */
+public class LocationBatchTest {
+
+    @Test
+    public void coordinatesUseFourDecimalsWhateverTheLocale() {
+        List<LocationBatch> batches = LocationBatch.plan(locations(
+                location("Madrid", 40.416775, -3.70379),
+                location("Quito", -0.18, -78.4678)), 100);
+
+        assertEquals(1, batches.size());
+        assertEquals("40.4168,-0.1800", batches.get(0).getLatitudes());
+        assertEquals("-3.7038,-78.4678", batches.get(0).getLongitudes());
+    }
+
+    @Test
+    public void batchesStayWithinTheUrlBudgetAndKeepInputOrder() {
+        List<GeocodingResponse.Location> locations = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            locations.add(location("L" + i, 10 + i * 0.01, -(20 + i * 0.01)));
+        }
+        int fixedUrlLength = 300;
+
+        List<LocationBatch> batches = LocationBatch.plan(locations, fixedUrlLength);
+
+        assertTrue(batches.size() > 1);
+        List<GeocodingResponse.Location> flattened = new ArrayList<>();
+        for (LocationBatch batch : batches) {
+            int coordinates = batch.getLatitudes().length() + batch.getLongitudes().length();
+            assertTrue(fixedUrlLength + coordinates <= LocationBatch.MAX_URL_LENGTH);
+            assertEquals(batch.getLocations().size(), batch.getLatitudes().split(",").length);
+            assertEquals(batch.getLocations().size(), batch.getLongitudes().split(",").length);
+            flattened.addAll(batch.getLocations());
+        }
+        assertEquals(locations, flattened);
+    }
+
+    @Test
+    public void batchIsClosedOnlyWhenTheNextLocationDoesNotFit() {
+        // "10.0000" y "-20.0000" más dos comas: 17 caracteres por ubicación
+        int fixedUrlLength = LocationBatch.MAX_URL_LENGTH - 3 * 17;
+        List<LocationBatch> batches = LocationBatch.plan(locations(
+                location("a", 10, -20), location("b", 10, -20), location("c", 10, -20),
+                location("d", 10, -20)), fixedUrlLength);
+
+        assertEquals(2, batches.size());
+        assertEquals(3, batches.get(0).getLocations().size());
+        assertEquals(1, batches.get(1).getLocations().size());
+    }
+
+    @Test
+    public void oversizedLocationStillGetsItsOwnBatch() {
+        List<LocationBatch> batches = LocationBatch.plan(locations(location("a", 1, 2), location("b", 3, 4)),
+                LocationBatch.MAX_URL_LENGTH);
+
+        assertEquals(2, batches.size());
+        assertEquals("1.0000", batches.get(0).getLatitudes());
+        assertEquals("3.0000", batches.get(1).getLatitudes());
+    }
+
+    @Test
+    public void emptyInputPlansNoRequests() {
+        assertTrue(LocationBatch.plan(Collections.emptyList(), 100).isEmpty());
+    }
+
+    private static List<GeocodingResponse.Location> locations(GeocodingResponse.Location... locations) {
+        List<GeocodingResponse.Location> list = new ArrayList<>();
+        Collections.addAll(list, locations);
+        return list;
+    }
+
+    private static GeocodingResponse.Location location(String name, double lat, double lon) {
+        GeocodingResponse.Location location = new GeocodingResponse.Location();
+        location.setName(name);
+        location.setLatitude(lat);
+        location.setLongitude(lon);
+        return location;
+    }
+}
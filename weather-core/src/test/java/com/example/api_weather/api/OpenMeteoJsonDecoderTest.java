@@ -0,0 +1,117 @@
+package com.example.api_weather.api;
+
+import com.example.api_weather.Allocations;
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.ForecastSeries.Variable;
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * El decodificador en streaming frente a la ruta anterior (Gson por reflexión sobre listas de
+ * Double): mismos valores y menos asignaciones. Usa respuestas de /v1/forecast de 7 y 16 días
+ * con series horarias; los tiempos los mide DecodeBenchmark en :benchmarks.
+ */
+public class OpenMeteoJsonDecoderTest {
+    private static final String PAYLOAD_7D = "openmeteo_forecast_7d_hourly.json";
+    private static final String PAYLOAD_16D = "openmeteo_forecast_16d_hourly.json";
+    private static final int WARMUP_ITERATIONS = 1_000;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void streamingDecoder_matchesGson() throws IOException {
+        String json = readResource(PAYLOAD_16D);
+        Forecast streamed = OpenMeteoJsonDecoder.decode(new StringReader(json));
+        GsonForecast reflected = gson.fromJson(json, GsonForecast.class);
+
+        assertEquals(reflected.latitude, streamed.getLatitude(), 0.0);
+        assertEquals(reflected.utcOffsetSeconds, streamed.getUtcOffsetSeconds());
+        assertEquals(1, streamed.getCurrent().size());
+        assertEquals(reflected.current.temperature2m, streamed.getCurrent().getFloat(Variable.TEMPERATURE_2M, 0), 1e-4);
+        assertEquals(reflected.current.weatherCode, streamed.getCurrent().getShort(Variable.WEATHER_CODE, 0));
+        assertEquals(16 * 24, streamed.getHourly().size());
+        for (int i = 0; i < reflected.hourly.temperature2m.size(); i++) {
+            assertEquals(reflected.hourly.time.get(i).longValue(), streamed.getHourly().getTime(i));
+            assertEquals(reflected.hourly.temperature2m.get(i), streamed.getHourly().getFloat(Variable.TEMPERATURE_2M, i), 1e-4);
+            assertEquals(reflected.hourly.weatherCode.get(i).intValue(), streamed.getHourly().getShort(Variable.WEATHER_CODE, i));
+        }
+        assertEquals(16, streamed.getDaily().size());
+        assertEquals(reflected.daily.temperature2mMax.get(0), streamed.getDaily().getFloat(Variable.TEMPERATURE_2M_MAX, 0), 1e-4);
+    }
+
+    @Test
+    public void streamingDecoder_allocatesLessThanGson() throws Exception {
+        for (String resource : new String[]{PAYLOAD_7D, PAYLOAD_16D}) {
+            String json = readResource(resource);
+            long gsonBytes = Allocations.perOperation(WARMUP_ITERATIONS, MEASURED_ITERATIONS,
+                    () -> gson.fromJson(json, GsonForecast.class).hourly.time.size());
+            long streamingBytes = Allocations.perOperation(WARMUP_ITERATIONS, MEASURED_ITERATIONS,
+                    () -> OpenMeteoJsonDecoder.decode(new StringReader(json)).getHourly().size());
+
+            assertTrue(resource + ": streaming " + streamingBytes + " B/op vs gson " + gsonBytes + " B/op",
+                    streamingBytes < gsonBytes);
+        }
+    }
+
+    private String readResource(String name) throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(name)) {
+            assertNotNull("missing test resource " + name, in);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Forma del modelo anterior: series como List<Double>/List<Integer> decodificadas por reflexión. */
+    static class GsonForecast {
+        @SerializedName("latitude") double latitude;
+        @SerializedName("longitude") double longitude;
+        @SerializedName("utc_offset_seconds") int utcOffsetSeconds;
+        @SerializedName("timezone") String timezone;
+        @SerializedName("current") GsonCurrent current;
+        @SerializedName("hourly") GsonHourly hourly;
+        @SerializedName("daily") GsonDaily daily;
+    }
+
+    static class GsonCurrent {
+        @SerializedName("temperature_2m") double temperature2m;
+        @SerializedName("relative_humidity_2m") int relativeHumidity2m;
+        @SerializedName("weather_code") int weatherCode;
+        @SerializedName("wind_speed_10m") double windSpeed10m;
+        @SerializedName("pressure_msl") double pressureMsl;
+        @SerializedName("uv_index") double uvIndex;
+    }
+
+    static class GsonHourly {
+        @SerializedName("time") List<Long> time;
+        @SerializedName("temperature_2m") List<Double> temperature2m;
+        @SerializedName("relative_humidity_2m") List<Integer> relativeHumidity2m;
+        @SerializedName("weather_code") List<Integer> weatherCode;
+        @SerializedName("wind_speed_10m") List<Double> windSpeed10m;
+        @SerializedName("precipitation_probability") List<Integer> precipitationProbability;
+    }
+
+    static class GsonDaily {
+        @SerializedName("time") List<Long> time;
+        @SerializedName("weather_code") List<Integer> weatherCode;
+        @SerializedName("temperature_2m_max") List<Double> temperature2mMax;
+        @SerializedName("temperature_2m_min") List<Double> temperature2mMin;
+        @SerializedName("precipitation_probability_max") List<Integer> precipitationProbabilityMax;
+    }
+}
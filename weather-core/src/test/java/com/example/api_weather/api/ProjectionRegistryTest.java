@@ -0,0 +1,84 @@
+package com.example.api_weather.api;
+
+import com.example.api_weather.model.ForecastSeries.Variable;
+import com.example.api_weather.model.Projection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unión de las necesidades de varios consumidores y parámetros resultantes.
+ */
+public class ProjectionRegistryTest {
+    private static final Projection TEMPERATURES = Projection.builder()
+            .hourly(Variable.TEMPERATURE_2M)
+            .daily(Variable.TEMPERATURE_2M_MAX, Variable.TEMPERATURE_2M_MIN)
+            .build();
+    private static final Projection RAIN = Projection.builder()
+            .hourly(Variable.PRECIPITATION_PROBABILITY, Variable.TEMPERATURE_2M)
+            .daily(Variable.PRECIPITATION_PROBABILITY_MAX)
+            .build();
+
+    @Test
+    public void paramsFollowVariableOrderWhateverTheDeclarationOrder() {
+        Projection projection = Projection.builder()
+                .current(Variable.IS_DAY, Variable.TEMPERATURE_2M, Variable.WEATHER_CODE)
+                .build();
+
+        assertEquals("temperature_2m,weather_code,is_day", projection.getCurrent());
+        assertNull(projection.getHourly());
+        assertNull(projection.getDaily());
+        assertEquals(projection, Projection.builder()
+                .current(Variable.WEATHER_CODE).current(Variable.IS_DAY, Variable.TEMPERATURE_2M).build());
+    }
+
+    @Test
+    public void mergesConsumersOfTheSameSlot() {
+        ProjectionRegistry registry = new ProjectionRegistry();
+        assertTrue(registry.merged(ProjectionRegistry.Slot.OUTLOOK).isEmpty());
+
+        assertTrue(registry.register(ProjectionRegistry.Slot.OUTLOOK, "temperatures", TEMPERATURES));
+        assertTrue(registry.register(ProjectionRegistry.Slot.OUTLOOK, "rain", RAIN));
+        Projection merged = registry.merged(ProjectionRegistry.Slot.OUTLOOK);
+
+        assertEquals("temperature_2m,precipitation_probability", merged.getHourly());
+        assertEquals("temperature_2m_max,temperature_2m_min,precipitation_probability_max", merged.getDaily());
+        assertTrue(merged.covers(TEMPERATURES));
+        assertTrue(merged.covers(RAIN));
+        assertFalse(TEMPERATURES.covers(merged));
+        assertTrue(registry.merged(ProjectionRegistry.Slot.CONDITIONS).isEmpty());
+    }
+
+    @Test
+    public void reportsGrowthOnlyWhenSomethingNewIsNeeded() {
+        ProjectionRegistry registry = new ProjectionRegistry();
+        registry.register(ProjectionRegistry.Slot.OUTLOOK, "rain", RAIN);
+
+        Projection subset = Projection.builder().hourly(Variable.TEMPERATURE_2M).build();
+        assertFalse(registry.register(ProjectionRegistry.Slot.OUTLOOK, "widget", subset));
+        assertFalse(registry.register(ProjectionRegistry.Slot.OUTLOOK, "rain", RAIN));
+    }
+
+    @Test
+    public void unregisteringShrinksTheUnion() {
+        ProjectionRegistry registry = new ProjectionRegistry();
+        registry.register(ProjectionRegistry.Slot.OUTLOOK, "temperatures", TEMPERATURES);
+        registry.register(ProjectionRegistry.Slot.OUTLOOK, "rain", RAIN);
+
+        registry.unregister(ProjectionRegistry.Slot.OUTLOOK, "rain");
+
+        assertEquals(TEMPERATURES, registry.merged(ProjectionRegistry.Slot.OUTLOOK));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSectionsTheSlotDoesNotRequest() {
+        new ProjectionRegistry().register(ProjectionRegistry.Slot.CONDITIONS, "hourly", TEMPERATURES);
+    }
+
+    @Test
+    public void conditionsBatchUrlUsesTheProjectionParams() {
+        assertTrue(ForecastParams.BATCH_FIXED_URL_LENGTH
+                > ForecastParams.batchFixedUrlLength(Projection.builder().current(Variable.TEMPERATURE_2M).build()));
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.api_weather.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Reintentos, cobertura, plazo y cortocircuito contra un MockWebServer local.
+ */
+public class ResilienceInterceptorTest {
+    private static final long DEADLINE_MS = 2_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private ResilienceInterceptor interceptor;
+    private OkHttpClient client;
+    private long now;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        OkHttpClient transport = new OkHttpClient.Builder().build();
+        interceptor = new ResilienceInterceptor(transport, DEADLINE_MS, 3, 10, () -> now, new Random(42));
+        client = clientWith(transport, interceptor);
+    }
+
+    private static OkHttpClient clientWith(OkHttpClient transport, ResilienceInterceptor interceptor) {
+        return transport.newBuilder()
+                .dispatcher(new Dispatcher())
+                .eventListenerFactory(interceptor.cancellationListener())
+                .addInterceptor(interceptor)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void retriesTransientFailures() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(502));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        try (Response response = get()) {
+            assertEquals(200, response.code());
+            assertEquals("ok", response.body().string());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void returnsLastFailureAfterMaxAttempts() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+
+        try (Response response = get()) {
+            assertEquals(500, response.code());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void doesNotRetryClientErrorsOrPosts() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        try (Response response = get()) {
+            assertEquals(404, response.code());
+        }
+        Request post = new Request.Builder().url(server.url("/v1/forecast"))
+                .post(RequestBody.create(new byte[0], null)).build();
+        try (Response response = client.newCall(post).execute()) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void hedgesRequestsSlowerThanP95() throws IOException {
+        LatencyTracker latency = interceptor.latencyFor(server.getHostName());
+        for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+            latency.record(100);
+        }
+        server.enqueue(new MockResponse().setBody("slow").setHeadersDelay(DEADLINE_MS, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("fast"));
+
+        long start = System.nanoTime();
+        try (Response response = get()) {
+            assertEquals("fast", response.body().string());
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("hedge should answer well before the slow one, took " + elapsedMs, elapsedMs < 1_000);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void failsWhenTheDeadlineExpires() {
+        server.enqueue(new MockResponse().setBody("late").setHeadersDelay(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        try {
+            get().close();
+            fail("expected the deadline to expire");
+        } catch (IOException e) {
+            assertTrue(e instanceof InterruptedIOException);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("took " + elapsedMs, elapsedMs < DEADLINE_MS + 1_000);
+    }
+
+    @Test
+    public void opensTheCircuitAndProbesAfterTheOpenPeriod() throws IOException {
+        for (int i = 0; i < ResilienceInterceptor.FAILURE_THRESHOLD; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+        server.enqueue(new MockResponse().setBody("back"));
+
+        // 3 intentos de la primera llamada y 2 de la segunda abren el circuito
+        get().close();
+        get().close();
+        assertEquals(CircuitBreaker.State.OPEN, interceptor.breakerFor(server.getHostName()).getState());
+        try {
+            get().close();
+            fail("expected the circuit to be open");
+        } catch (CircuitBreaker.OpenException expected) {
+            // sin tocar el servidor
+        }
+        assertEquals(ResilienceInterceptor.FAILURE_THRESHOLD, server.getRequestCount());
+
+        now += ResilienceInterceptor.OPEN_MS;
+        try (Response response = get()) {
+            assertEquals("back", response.body().string());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, interceptor.breakerFor(server.getHostName()).getState());
+    }
+
+    @Test
+    public void throttlingIsRetriedWithoutOpeningTheCircuit() throws IOException {
+        for (int i = 0; i < 6; i++) {
+            server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "0"));
+        }
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        // 6 respuestas 429, más que FAILURE_THRESHOLD: se reintentan pero no son fallos del host
+        get().close();
+        get().close();
+        assertEquals(6, server.getRequestCount());
+        assertEquals(CircuitBreaker.State.CLOSED, interceptor.breakerFor(server.getHostName()).getState());
+        try (Response response = get()) {
+            assertEquals("ok", response.body().string());
+        }
+    }
+
+    @Test
+    public void responsesFromTheHttpCacheDoNotCountAsLatency() throws IOException {
+        OkHttpClient transport = new OkHttpClient.Builder()
+                .cache(new Cache(folder.getRoot(), 1024 * 1024))
+                .build();
+        interceptor = new ResilienceInterceptor(transport, DEADLINE_MS, 3, 10, () -> now, new Random(42));
+        client = clientWith(transport, interceptor);
+        server.enqueue(new MockResponse().setBody("fresh").setHeader("Cache-Control", "max-age=60"));
+
+        for (int i = 0; i <= LatencyTracker.MIN_SAMPLES; i++) {
+            try (Response response = get()) {
+                assertEquals("fresh", response.body().string());
+            }
+        }
+
+        assertEquals(1, server.getRequestCount());
+        // Una sola muestra, la de la red: con las de la caché ya habría un p95 de ~0 ms
+        LatencyTracker latency = interceptor.latencyFor(server.getHostName());
+        assertEquals(-1, latency.percentile(ResilienceInterceptor.HEDGE_PERCENTILE));
+    }
+
+    @Test
+    public void cancellingWakesACallWaitingForItsAttempt() throws Exception {
+        server.enqueue(new MockResponse().setBody("late").setHeadersDelay(5, TimeUnit.SECONDS));
+
+        Call call = client.newCall(new Request.Builder().url(server.url("/v1/forecast")).build());
+        assertCanceledPromptly(call);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void cancellingWakesACallWaitingToRetry() throws Exception {
+        OkHttpClient transport = new OkHttpClient.Builder().build();
+        // Con esta semilla la primera espera ronda el segundo
+        ResilienceInterceptor slowBackoff = new ResilienceInterceptor(transport, 10_000, 3, 1_500,
+                () -> now, new Random(42));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        Call call = clientWith(transport, slowBackoff)
+                .newCall(new Request.Builder().url(server.url("/v1/forecast")).build());
+        assertCanceledPromptly(call);
+        assertEquals("no hubo reintento", 1, server.getRequestCount());
+    }
+
+    /** Cancela la llamada a los 200 ms y comprueba que termina poco después, no al final de la espera. */
+    private static void assertCanceledPromptly(Call call) throws Exception {
+        ScheduledExecutorService canceller = Executors.newSingleThreadScheduledExecutor();
+        try {
+            long start = System.nanoTime();
+            canceller.schedule(call::cancel, 200, TimeUnit.MILLISECONDS);
+            try {
+                call.execute().close();
+                fail("expected the call to be canceled");
+            } catch (IOException expected) {
+                // cancelada
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue("took " + elapsedMs, elapsedMs < 600);
+        } finally {
+            canceller.shutdownNow();
+        }
+    }
+
+    @Test
+    public void latencyPercentileUsesNearestRank() {
+        LatencyTracker latency = new LatencyTracker(64);
+        assertEquals(-1, latency.percentile(0.95));
+        for (int i = 1; i <= 40; i++) {
+            latency.record(i * 10);
+        }
+        assertEquals(380, latency.percentile(0.95));
+    }
+
+    private Response get() throws IOException {
+        return client.newCall(new Request.Builder().url(server.url("/v1/forecast")).build()).execute();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.api_weather.api;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+/**
+ * Agrupación de peticiones con un Call falso que se completa a mano desde la prueba.
+ */
+public class SingleFlightTest {
+    private final SingleFlight<String> flights = new SingleFlight<>();
+    private final List<FakeCall> created = new ArrayList<>();
+
+    @Test
+    public void concurrentWaitersShareOneExecution() {
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        flights.join("k", this::newCall, first);
+        flights.join("k", this::newCall, second);
+
+        assertEquals(1, created.size());
+        assertEquals(1, flights.inFlightCount());
+        created.get(0).succeed("despejado");
+
+        assertEquals("despejado", first.body);
+        assertEquals("despejado", second.body);
+        assertEquals(0, flights.inFlightCount());
+    }
+
+    @Test
+    public void finishedFlightIsNotReused() {
+        flights.join("k", this::newCall, new Recorder());
+        created.get(0).succeed("a");
+        flights.join("k", this::newCall, new Recorder());
+
+        assertEquals(2, created.size());
+    }
+
+    @Test
+    public void cancellingOneWaiterKeepsTheCallAlive() {
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        SingleFlight<String>.Handle firstHandle = flights.join("k", this::newCall, first);
+        SingleFlight<String>.Handle secondHandle = flights.join("k", this::newCall, second);
+
+        firstHandle.cancel();
+
+        FakeCall call = created.get(0);
+        assertFalse(call.isCanceled());
+        assertFalse(firstHandle.isActive());
+        assertTrue(secondHandle.isActive());
+        call.succeed("nublado");
+        assertNull("quien canceló ya no recibe nada", first.body);
+        assertEquals("nublado", second.body);
+    }
+
+    @Test
+    public void cancellingEveryWaiterCancelsTheCall() {
+        SingleFlight<String>.Handle first = flights.join("k", this::newCall, new Recorder());
+        SingleFlight<String>.Handle second = flights.join("k", this::newCall, new Recorder());
+
+        first.cancel();
+        second.cancel();
+
+        assertTrue(created.get(0).isCanceled());
+        assertEquals(0, flights.inFlightCount());
+        // Una nueva petición con la misma clave no se suma a la cancelada
+        flights.join("k", this::newCall, new Recorder());
+        assertEquals(2, created.size());
+    }
+
+    @Test
+    public void everyWaiterCanReadTheErrorBody() throws IOException {
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        flights.join("k", this::newCall, first);
+        flights.join("k", this::newCall, second);
+
+        created.get(0).fail(400, "{\"reason\":\"Latitude must be in range\"}");
+
+        assertEquals(400, first.code);
+        assertEquals(400, second.code);
+        assertEquals("{\"reason\":\"Latitude must be in range\"}", first.errorBody);
+        assertEquals("{\"reason\":\"Latitude must be in range\"}", second.errorBody);
+    }
+
+    @Test
+    public void failuresReachEveryWaiter() {
+        Recorder first = new Recorder();
+        Recorder second = new Recorder();
+        flights.join("k", this::newCall, first);
+        flights.join("k", this::newCall, second);
+
+        IOException error = new IOException("sin red");
+        created.get(0).callback.onFailure(created.get(0), error);
+
+        assertSame(error, first.failure);
+        assertSame(error, second.failure);
+    }
+
+    private Call<String> newCall() {
+        FakeCall call = new FakeCall();
+        created.add(call);
+        return call;
+    }
+
+    private static class Recorder implements Callback<String> {
+        String body;
+        int code;
+        String errorBody;
+        Throwable failure;
+
+        @Override
+        public void onResponse(Call<String> call, Response<String> response) {
+            code = response.code();
+            if (response.isSuccessful()) {
+                body = response.body();
+                return;
+            }
+            try {
+                errorBody = response.errorBody().string();
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        @Override
+        public void onFailure(Call<String> call, Throwable t) {
+            failure = t;
+        }
+    }
+
+    private static class FakeCall implements Call<String> {
+        Callback<String> callback;
+        private boolean canceled;
+
+        void succeed(String body) {
+            callback.onResponse(this, Response.success(body));
+        }
+
+        void fail(int code, String body) {
+            callback.onResponse(this, Response.error(code,
+                    ResponseBody.create(body, MediaType.get("application/json"))));
+        }
+
+        @Override
+        public Response<String> execute() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void enqueue(Callback<String> callback) {
+            assertNull("una llamada solo se encola una vez", this.callback);
+            this.callback = callback;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return callback != null;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Call<String> clone() {
+            return new FakeCall();
+        }
+
+        @Override
+        public Request request() {
+            return new Request.Builder().url("https://api.open-meteo.com/v1/forecast").build();
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.api_weather.cache;
+
+import com.example.api_weather.model.ForecastSeries.Variable;
+import com.example.api_weather.model.Projection;
+import com.example.api_weather.model.WeatherResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Claves de rejilla y frescura de la caché de pronósticos con un reloj falso.
+ */
+public class ForecastCacheTest {
+    /** Justo al comenzar un intervalo de 15 minutos. */
+    private static final long BUCKET_START = 1_700_000_100_000L / ForecastCache.BUCKET_MS * ForecastCache.BUCKET_MS;
+    private static final Projection CONDITIONS = Projection.builder()
+            .current(Variable.TEMPERATURE_2M, Variable.WEATHER_CODE, Variable.WIND_SPEED_10M)
+            .build();
+    private static final Projection TEMPERATURE = Projection.builder()
+            .current(Variable.TEMPERATURE_2M)
+            .build();
+
+    private long now;
+    private ForecastCache cache;
+
+    @Before
+    public void setUp() {
+        now = BUCKET_START;
+        cache = new ForecastCache(2, () -> now);
+    }
+
+    @Test
+    public void nearbyCoordinatesShareAGridCell() {
+        String key = ForecastCache.key(40.4168, -3.7038, "conditions", "auto", "metric|es");
+        assertEquals("4042,-370|conditions|auto|metric|es", key);
+        assertEquals(key, ForecastCache.key(40.4201, -3.6989, "conditions", "auto", "metric|es"));
+        assertNotEquals(key, ForecastCache.key(40.4268, -3.7038, "conditions", "auto", "metric|es"));
+    }
+
+    @Test
+    public void scopeTimezoneAndUnitsAreSeparateEntries() {
+        String key = ForecastCache.key(40.42, -3.70, "conditions", "auto", "metric|es");
+        assertNotEquals(key, ForecastCache.key(40.42, -3.70, "outlook", "auto", "metric|es"));
+        assertNotEquals(key, ForecastCache.key(40.42, -3.70, "conditions", "Europe/Madrid", "metric|es"));
+        assertNotEquals(key, ForecastCache.key(40.42, -3.70, "conditions", "auto", "imperial|es"));
+    }
+
+    @Test
+    public void entriesAreFreshUntilTheNextQuarterHour() {
+        now = BUCKET_START + TimeUnit.MINUTES.toMillis(14);
+        cache.put("k", new WeatherResponse(), CONDITIONS);
+        CachedForecast entry = cache.get("k", CONDITIONS);
+        assertEquals(BUCKET_START + ForecastCache.BUCKET_MS, entry.getExpiresAt());
+        assertTrue(cache.isFresh(entry));
+
+        // Un minuto después ya hay datos nuevos en Open-Meteo
+        now = BUCKET_START + ForecastCache.BUCKET_MS;
+        assertFalse(cache.isFresh(entry));
+        assertNotNull("obsoleta pero todavía utilizable", cache.get("k", CONDITIONS));
+    }
+
+    @Test
+    public void staleEntriesAreDroppedAfterMaxStale() {
+        cache.put("k", new WeatherResponse(), CONDITIONS);
+        long expiresAt = BUCKET_START + ForecastCache.BUCKET_MS;
+
+        now = expiresAt + ForecastCache.MAX_STALE_MS - 1;
+        assertNotNull(cache.get("k", CONDITIONS));
+        now = expiresAt + ForecastCache.MAX_STALE_MS;
+        assertNull(cache.get("k", CONDITIONS));
+        now = BUCKET_START;
+        assertNull("la entrada se eliminó al superar el máximo", cache.get("k", CONDITIONS));
+    }
+
+    @Test
+    public void entriesServeOnlyProjectionsTheyCover() {
+        cache.put("k", new WeatherResponse(), CONDITIONS);
+        assertNotNull(cache.get("k", TEMPERATURE));
+        assertNotNull(cache.get("k", CONDITIONS));
+        assertNull(cache.get("k", CONDITIONS.union(Projection.builder().current(Variable.UV_INDEX).build())));
+        // Una entrada que no cubre la petición no se descarta: sigue sirviendo a las más pequeñas
+        assertNotNull(cache.get("k", TEMPERATURE));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        cache.put("a", new WeatherResponse(), CONDITIONS);
+        cache.put("b", new WeatherResponse(), CONDITIONS);
+        assertNotNull(cache.get("a", CONDITIONS));
+        cache.put("c", new WeatherResponse(), CONDITIONS);
+
+        assertNotNull(cache.get("a", CONDITIONS));
+        assertNull(cache.get("b", CONDITIONS));
+        assertNotNull(cache.get("c", CONDITIONS));
+    }
+}
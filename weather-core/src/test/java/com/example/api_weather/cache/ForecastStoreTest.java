@@ -0,0 +1,308 @@
+package com.example.api_weather.cache;
+
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.ForecastSeries;
+import com.example.api_weather.model.ForecastSeries.Variable;
+import com.example.api_weather.model.Projection;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Almacén de pronósticos sobre un directorio temporal, con reloj falso y la E/S en el hilo de
+ * la prueba. Las filas diarias usan la marca de tiempo de Open-Meteo: medianoche local.
+ */
+public class ForecastStoreTest {
+    private static final Executor DIRECT = Runnable::run;
+    private static final long DAY_SECONDS = TimeUnit.DAYS.toSeconds(1);
+    /** 2024-10-04 como número de día desde 1970-01-01. */
+    private static final long TODAY = 20000;
+    private static final int CEST = 7200;
+    private static final int CET = 3600;
+    private static final String KEY = "4042,-370|outlook|auto|metric|es";
+    private static final Projection MAX_TEMPERATURE = Projection.builder().daily(Variable.TEMPERATURE_2M_MAX).build();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private long now;
+
+    @Before
+    public void setUp() {
+        directory = new File(folder.getRoot(), "forecast_store");
+        now = localTime(TODAY, 12, CEST);
+    }
+
+    @Test
+    public void lastRecordOfEachDayWinsAcrossRestarts() {
+        ForecastStore store = store();
+        store.merge(KEY, forecast(CEST, TODAY, 7, 20f), null);
+        store.merge(KEY, forecast(CEST, TODAY + 2, 2, 25f), null);
+
+        ForecastStore.SavedSnapshot snapshot = load(store());
+        assertEquals(7, snapshot.getDailyRowCount());
+        assertArrayEquals(new float[]{20, 20, 25, 25, 20, 20, 20}, maxTemperatures(snapshot), 0f);
+        assertTrue(snapshot.coversCurrent(Projection.builder().current(Variable.TEMPERATURE_2M).build()));
+        assertFalse(snapshot.coversCurrent(Projection.builder().current(Variable.UV_INDEX).build()));
+    }
+
+    @Test
+    public void mergeCallbackSeesTheCombinedState() {
+        ForecastStore store = store();
+        store.merge(KEY, forecast(CEST, TODAY, 7, 20f), null);
+        ForecastStore.SavedSnapshot[] merged = new ForecastStore.SavedSnapshot[1];
+        store.merge(KEY, forecast(CEST, TODAY + 6, 1, 30f),
+                snapshot -> merged[0] = (ForecastStore.SavedSnapshot) snapshot);
+
+        assertEquals(7, merged[0].getDailyRowCount());
+        assertEquals(30f, maxTemperatures(merged[0])[6], 0f);
+    }
+
+    @Test
+    public void freshStoreNeedsOnlyCurrentConditions() {
+        ForecastStore store = store();
+        store.merge(KEY, forecast(CEST, TODAY, 7, 20f), null);
+
+        assertNull(load(store).dailyWindowToRefresh(MAX_TEMPERATURE));
+    }
+
+    @Test
+    public void daysFromTodayAreRefreshedAfterAnHour() {
+        ForecastStore store = store();
+        store.merge(KEY, forecast(CEST, TODAY, 7, 20f), null);
+
+        now += ForecastStore.ROW_REFRESH_MS;
+        assertNull(load(store).dailyWindowToRefresh(MAX_TEMPERATURE));
+        now += 1;
+        assertWindow(TODAY, TODAY + 6, load(store).dailyWindowToRefresh(MAX_TEMPERATURE));
+    }
+
+    @Test
+    public void missingDailyVariableWidensTheWindow() {
+        ForecastStore store = store();
+        store.merge(KEY, forecast(CEST, TODAY, 7, 20f), null);
+
+        Projection withRain = MAX_TEMPERATURE.union(
+                Projection.builder().daily(Variable.PRECIPITATION_PROBABILITY_MAX).build());
+        assertWindow(TODAY, TODAY + 6, load(store).dailyWindowToRefresh(withRain));
+    }
+
+    @Test
+    public void crossingMidnightAsksOnlyForTheNewLastDay() {
+        now = localTime(TODAY, 23, CEST) + TimeUnit.MINUTES.toMillis(45);
+        ForecastStore store = store();
+        store.merge(KEY, forecast(CEST, TODAY, 7, 20f), null);
+
+        // 30 minutos después es otro día local: hoy pasa a ser pasado y falta el séptimo día
+        now += TimeUnit.MINUTES.toMillis(30);
+        assertWindow(TODAY + 7, TODAY + 7, load(store).dailyWindowToRefresh(MAX_TEMPERATURE));
+    }
+
+    @Test
+    public void missingPastDaysAreBackfilledButNotBeforeTheFirstDownload() {
+        ForecastStore store = store();
+        store.merge(KEY, forecast(CEST, TODAY, 7, 20f), null);
+
+        // Tres días después: los dos últimos días pasados se rellenarían, pero ya están
+        now = localTime(TODAY + 3, 12, CEST);
+        assertWindow(TODAY + 3, TODAY + 9, load(store).dailyWindowToRefresh(MAX_TEMPERATURE));
+
+        // Un hueco en el pasado reciente sí se pide
+        ForecastStore gap = new ForecastStore(new File(folder.getRoot(), "gap"), () -> now, DIRECT);
+        now = localTime(TODAY, 12, CEST);
+        gap.merge(KEY, forecast(CEST, TODAY, 1, 20f), null);
+        now = localTime(TODAY + 2, 12, CEST);
+        gap.merge(KEY, forecast(CEST, TODAY + 2, 7, 20f), null);
+        assertWindow(TODAY + 1, TODAY + 8, load(gap).dailyWindowToRefresh(MAX_TEMPERATURE));
+    }
+
+    @Test
+    public void daylightSavingChangeKeepsOneRowPerDay() {
+        // Medianoche local ± 1 h sigue siendo el mismo día con cualquiera de los dos desfases
+        long midnight = TODAY * DAY_SECONDS;
+        assertEquals(TODAY, ForecastStore.dayIndex(midnight - CET, CET));
+        assertEquals(TODAY, ForecastStore.dayIndex(midnight - CEST, CET));
+        assertEquals(TODAY, ForecastStore.dayIndex(midnight - CET, CEST));
+        // El instante actual no lleva desplazamiento: las 23:59 locales siguen siendo hoy
+        assertEquals(TODAY, ForecastStore.localDay((midnight + DAY_SECONDS - 1 - CEST) * 1000, CEST));
+        assertEquals(TODAY, ForecastStore.localDay(localTime(TODAY, 0, CEST), CEST));
+        assertEquals("2024-10-04", ForecastStore.formatDay(TODAY));
+
+        now = localTime(TODAY, 12, CEST);
+        ForecastStore store = store();
+        store.merge(KEY, forecast(CEST, TODAY, 7, 20f), null);
+        // Fin del horario de verano: las filas llegan una hora más tarde en UTC
+        now = localTime(TODAY + 1, 12, CET);
+        store.merge(KEY, forecast(CET, TODAY + 1, 7, 21f), null);
+
+        ForecastStore.SavedSnapshot snapshot = load(store());
+        assertEquals(8, snapshot.getDailyRowCount());
+        assertArrayEquals(new float[]{21, 21, 21, 21, 21, 21, 21}, maxTemperatures(snapshot), 0f);
+        assertNull(snapshot.dailyWindowToRefresh(MAX_TEMPERATURE));
+    }
+
+    @Test
+    public void repeatedDownloadsAreCompacted() {
+        ForecastStore store = store();
+        store.merge(KEY, forecast(CEST, TODAY, 7, 0f), null);
+        long singleDownload = logFile().length();
+
+        for (int i = 1; i < 40; i++) {
+            now += TimeUnit.MINUTES.toMillis(1);
+            store.merge(KEY, forecast(CEST, TODAY, 7, i), null);
+        }
+
+        // Sin compactar serían 40 descargas completas
+        assertTrue(logFile().length() < 10 * singleDownload);
+        ForecastStore.SavedSnapshot snapshot = load(store());
+        assertEquals(7, snapshot.getDailyRowCount());
+        assertEquals(39f, maxTemperatures(snapshot)[0], 0f);
+    }
+
+    @Test
+    public void truncatedTailKeepsTheCompleteRecordsAndIsRewritten() throws IOException {
+        ForecastStore store = store();
+        store.merge(KEY, forecast(CEST, TODAY, 7, 20f), null);
+        store.merge(KEY, forecast(CEST, TODAY + 2, 2, 25f), null);
+        File log = logFile();
+        // Muerte a mitad de escribir la última fila
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        ForecastStore.SavedSnapshot snapshot = load(store());
+        assertArrayEquals(new float[]{20, 20, 25, 20, 20, 20, 20}, maxTemperatures(snapshot), 0f);
+
+        // Se reescribió compactado: otra lectura da lo mismo y el archivo ya no tiene repetidos
+        long compacted = log.length();
+        assertArrayEquals(maxTemperatures(snapshot), maxTemperatures(load(store())), 0f);
+        assertEquals(compacted, log.length());
+        assertFalse(new File(log.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void unknownFileIsReplaced() throws IOException {
+        store().merge(KEY, forecast(CEST, TODAY, 7, 20f), null);
+        Files.write(logFile().toPath(), "not a forecast".getBytes());
+
+        ForecastStore store = store();
+        assertNull(load(store));
+        store.merge(KEY, forecast(CEST, TODAY, 7, 22f), null);
+        assertEquals(22f, maxTemperatures(load(store()))[0], 0f);
+    }
+
+    @Test
+    public void compactionDropsHistoryOlderThanNinetyTwoDays() throws IOException {
+        ForecastStore store = store();
+        now = localTime(TODAY - 120, 12, CEST);
+        store.merge(KEY, forecast(CEST, TODAY - 120, 7, 10f), null);
+        now = localTime(TODAY - 10, 12, CEST);
+        store.merge(KEY, forecast(CEST, TODAY - 10, 7, 15f), null);
+        now = localTime(TODAY, 12, CEST);
+        store.merge(KEY, forecast(CEST, TODAY, 7, 20f), null);
+        assertEquals(21, load(store).getDailyRowCount());
+
+        // Un byte suelto al final, como una escritura interrumpida, fuerza la compactación
+        try (FileOutputStream out = new FileOutputStream(logFile(), true)) {
+            out.write(ForecastStore.KEEP_PAST_DAYS);
+        }
+        assertEquals(14, load(store()).getDailyRowCount());
+        assertEquals(14, load(store()).getDailyRowCount());
+    }
+
+    @Test
+    public void loadedLocationsAreBounded() {
+        ForecastStore store = store();
+        for (int i = 0; i < ForecastStore.MAX_LOADED + 4; i++) {
+            store.merge(KEY + i, forecast(CEST, TODAY, 7, i), null);
+        }
+        assertEquals(ForecastStore.MAX_LOADED, store.loadedCount());
+
+        // La más antigua salió de memoria pero se relee de su archivo
+        assertEquals(0f, maxTemperatures(load(store, KEY + 0))[0], 0f);
+        assertEquals(ForecastStore.MAX_LOADED, store.loadedCount());
+    }
+
+    @Test
+    public void lastLocationRoundTrip() {
+        ForecastStore store = store();
+        ForecastStore.LastLocation[] last = new ForecastStore.LastLocation[1];
+        store.loadLastLocation(location -> last[0] = location);
+        assertNull(last[0]);
+
+        store.saveLastLocation(40.42, -3.70, "Madrid", null);
+        store().loadLastLocation(location -> last[0] = location);
+        assertEquals(40.42, last[0].getLatitude(), 0);
+        assertEquals(-3.70, last[0].getLongitude(), 0);
+        assertEquals("Madrid", last[0].getName());
+        assertNull(last[0].getCountryCode());
+    }
+
+    private ForecastStore store() {
+        return new ForecastStore(directory, () -> now, DIRECT);
+    }
+
+    private static ForecastStore.SavedSnapshot load(ForecastStore store) {
+        return load(store, KEY);
+    }
+
+    private static ForecastStore.SavedSnapshot load(ForecastStore store, String key) {
+        ForecastStore.SavedSnapshot[] loaded = new ForecastStore.SavedSnapshot[1];
+        store.load(key, snapshot -> loaded[0] = (ForecastStore.SavedSnapshot) snapshot);
+        return loaded[0];
+    }
+
+    private File logFile() {
+        File[] logs = directory.listFiles((dir, name) -> name.endsWith(".log"));
+        assertNotNull(logs);
+        assertEquals(1, logs.length);
+        return logs[0];
+    }
+
+    /** Instante de la hora local dada del día, en milisegundos. */
+    private static long localTime(long day, int hour, int utcOffsetSeconds) {
+        return (day * DAY_SECONDS + TimeUnit.HOURS.toSeconds(hour) - utcOffsetSeconds) * 1000;
+    }
+
+    /** Pronóstico con current y count días desde firstDay, todos con la misma máxima. */
+    private Forecast forecast(int utcOffsetSeconds, long firstDay, int count, float maxTemperature) {
+        long[] time = new long[count];
+        float[] max = new float[count];
+        for (int i = 0; i < count; i++) {
+            time[i] = (firstDay + i) * DAY_SECONDS - utcOffsetSeconds;
+            max[i] = maxTemperature;
+        }
+        ForecastSeries current = new ForecastSeries.Builder(new long[]{now / 1000})
+                .putFloat(Variable.TEMPERATURE_2M, new float[]{maxTemperature - 5})
+                .build();
+        ForecastSeries daily = new ForecastSeries.Builder(time)
+                .putFloat(Variable.TEMPERATURE_2M_MAX, max)
+                .build();
+        return new Forecast(40.42, -3.70, utcOffsetSeconds, "Europe/Madrid", 657, current, null, daily);
+    }
+
+    private static float[] maxTemperatures(ForecastStore.SavedSnapshot snapshot) {
+        ForecastSeries daily = snapshot.toForecast().getDaily();
+        return Arrays.copyOf(daily.getFloatColumn(Variable.TEMPERATURE_2M_MAX), daily.size());
+    }
+
+    private static void assertWindow(long firstDay, long lastDay, DateWindow window) {
+        assertNotNull(window);
+        assertEquals(ForecastStore.formatDay(firstDay), window.getStartDate());
+        assertEquals(ForecastStore.formatDay(lastDay), window.getEndDate());
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.api_weather.cache;
+
+import com.example.api_weather.model.GeocodingResponse;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Caché de geocodificación sobre un directorio temporal, con reloj falso y escrituras en el
+ * mismo hilo para poder comprobar el archivo justo después de cada operación.
+ */
+public class GeocodingCacheTest {
+    private static final long START = 1_700_000_000_000L;
+    private static final Executor DIRECT = Runnable::run;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private long now;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot();
+        now = START;
+    }
+
+    @Test
+    public void entriesSurviveANewProcess() {
+        cache(32, 256, DIRECT).put("Málaga", "es", location("Málaga", 36.72, -4.42));
+
+        // Otra instancia sobre el mismo directorio, como tras matar el proceso
+        GeocodingResponse.Location restored = cache(32, 256, DIRECT).get("  malaga ", "es");
+        assertNotNull("la primera consulta en frío ya lee el disco", restored);
+        assertEquals("Málaga", restored.getName());
+        assertEquals(36.72, restored.getLatitude(), 1e-9);
+        assertNull(cache(32, 256, DIRECT).get("Málaga", "en"));
+    }
+
+    @Test
+    public void pendingWritesAreVisibleBeforeTheyReachDisk() {
+        List<Runnable> queued = new ArrayList<>();
+        GeocodingCache cache = cache(1, 256, queued::add);
+        cache.put("Oslo", "es", location("Oslo", 59.91, 10.75));
+        cache.put("Lima", "es", location("Lima", -12.05, -77.04));
+
+        // Oslo ya salió del LRU en memoria y el hilo de disco aún no ha escrito nada
+        assertFalse(new File(directory, "geocoding_cache.json").exists());
+        assertEquals("Oslo", cache.get("Oslo", "es").getName());
+
+        runAll(queued);
+        assertEquals("Lima", cache(1, 256, DIRECT).get("Lima", "es").getName());
+    }
+
+    @Test
+    public void lookupsNeverReadTheFileOnTheCallingThread() {
+        GeocodingCache writer = cache(1, 256, DIRECT);
+        writer.put("Oslo", "es", location("Oslo", 59.91, 10.75));
+        now += 1000;
+        writer.put("Lima", "es", location("Lima", -12.05, -77.04));
+
+        List<Runnable> queued = new ArrayList<>();
+        GeocodingCache cache = cache(1, 256, queued::add);
+        // El hilo de disco aún no ha leído el archivo: fallo sin E/S
+        assertNull(cache.get("Lima", "es"));
+        runAll(queued);
+
+        // Lo más reciente ya está en memoria; lo demás se pide al hilo de disco
+        assertEquals("Lima", cache.get("Lima", "es").getName());
+        queued.clear();
+        assertNull(cache.get("Oslo", "es"));
+        assertNull(cache.get("Oslo", "es"));
+        assertEquals("una sola lectura por clave", 1, queued.size());
+        runAll(queued);
+        assertEquals("Oslo", cache.get("Oslo", "es").getName());
+
+        // Lo que no está en el archivo es un fallo recordado: ni lectura ni tarea de disco
+        queued.clear();
+        assertNull(cache.get("Dakar", "es"));
+        assertNull(cache.getStale("Dakar", "es"));
+        assertTrue(queued.isEmpty());
+    }
+
+    @Test
+    public void diskTierEvictsTheLeastRecentlyUsedEntry() {
+        GeocodingCache cache = cache(1, 2, DIRECT);
+        cache.put("Oslo", "es", location("Oslo", 59.91, 10.75));
+        now += 1000;
+        cache.put("Lima", "es", location("Lima", -12.05, -77.04));
+        now += 1000;
+        // Consultar Oslo desde disco lo convierte en la entrada usada más recientemente
+        assertNotNull(cache.get("Oslo", "es"));
+        now += 1000;
+        cache.put("Dakar", "es", location("Dakar", 14.69, -17.44));
+
+        GeocodingCache restored = cache(1, 2, DIRECT);
+        assertNotNull(restored.get("Oslo", "es"));
+        assertNotNull(restored.get("Dakar", "es"));
+        assertNull(restored.get("Lima", "es"));
+    }
+
+    @Test
+    public void entriesExpireAfterThirtyDays() {
+        GeocodingCache cache = cache(32, 256, DIRECT);
+        cache.put("Oslo", "es", location("Oslo", 59.91, 10.75));
+
+        now = START + TimeUnit.DAYS.toMillis(30);
+        assertNotNull(cache.get("Oslo", "es"));
+        assertNotNull(cache(32, 256, DIRECT).get("Oslo", "es"));
+
+        now += 1;
+        assertNull(cache.get("Oslo", "es"));
+        assertNull(cache(32, 256, DIRECT).get("Oslo", "es"));
+        // Caducada pero conservada como coordenadas probables
+        assertEquals("Oslo", cache.getStale("Oslo", "es").getName());
+        assertEquals("Oslo", cache(32, 256, DIRECT).getStale("Oslo", "es").getName());
+        assertNull(cache.getStale("Lima", "es"));
+    }
+
+    @Test
+    public void corruptFileIsDiscarded() throws Exception {
+        Files.write(new File(directory, "geocoding_cache.json").toPath(), "[{\"key\":".getBytes());
+
+        GeocodingCache cache = cache(32, 256, DIRECT);
+        assertNull(cache.get("Oslo", "es"));
+        cache.put("Oslo", "es", location("Oslo", 59.91, 10.75));
+        assertNotNull(cache(32, 256, DIRECT).get("Oslo", "es"));
+    }
+
+    private static void runAll(List<Runnable> queued) {
+        for (Runnable task : new ArrayList<>(queued)) {
+            task.run();
+        }
+        queued.clear();
+    }
+
+    private GeocodingCache cache(int memoryMaxEntries, int diskMaxEntries, Executor executor) {
+        return new GeocodingCache(directory, memoryMaxEntries, diskMaxEntries, () -> now, executor);
+    }
+
+    private static GeocodingResponse.Location location(String name, double lat, double lon) {
+        GeocodingResponse.Location location = new GeocodingResponse.Location();
+        location.setName(name);
+        location.setLatitude(lat);
+        location.setLongitude(lon);
+        return location;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.api_weather.core;
+
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.ForecastSeries;
+import com.example.api_weather.model.ForecastSeries.Variable;
+import com.example.api_weather.model.UnitProfile;
+import com.example.api_weather.model.WeatherResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Contrato de hilos de ForecastPipeline: un ejecutor de un solo hilo hace de hilo principal
+ * y se comprueba en qué hilo corre cada paso.
+ */
+public class ForecastPipelineTest {
+    private ExecutorService mainThread;
+    private Thread uiThread;
+    private ForecastPipeline pipeline;
+    private final Map<ForecastPipeline.Stage, List<Thread>> stageThreads = new ConcurrentHashMap<>();
+
+    @Before
+    public void setUp() throws Exception {
+        mainThread = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "ui"));
+        uiThread = mainThread.submit(Thread::currentThread).get();
+        pipeline = ForecastPipeline.create();
+        pipeline.setStageObserver(stage -> stageThreads
+                .computeIfAbsent(stage, key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(Thread.currentThread()));
+    }
+
+    @After
+    public void tearDown() {
+        pipeline.shutdown();
+        mainThread.shutdownNow();
+    }
+
+    @Test
+    public void stagesRunOffTheCallerThreadAndResultsReachIt() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        WeatherResponse[] published = new WeatherResponse[1];
+        Thread[] publishThread = new Thread[1];
+
+        // Se envía desde el hilo de UI y se recibe en él, como hace WeatherViewModel
+        mainThread.execute(() -> pipeline.process(() -> forecast(31.0f, 70, 3.0f), "Sevilla", "ES",
+                UnitProfile.metric("es")).thenAcceptAsync(response -> {
+                    publishThread[0] = Thread.currentThread();
+                    published[0] = response;
+                    done.countDown();
+                }, mainThread));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertSame(uiThread, publishThread[0]);
+        for (ForecastPipeline.Stage stage : ForecastPipeline.Stage.values()) {
+            List<Thread> threads = stageThreads.get(stage);
+            assertNotNull(stage + " did not run", threads);
+            for (Thread thread : threads) {
+                assertNotSame(stage + " ran on the UI thread", uiThread, thread);
+            }
+        }
+        assertEquals("Sevilla", published[0].getName());
+        assertEquals(31.0, published[0].getMain().getTemp(), 1e-6);
+        assertTrue(published[0].getMain().getFeelsLike() > 31.0);
+    }
+
+    @Test
+    public void resultsCompleteInSubmissionOrder() throws Exception {
+        int count = 20;
+        CountDownLatch done = new CountDownLatch(count);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < count; i++) {
+            pipeline.process(() -> forecast(20, 50, 1), "city" + i, "ES", UnitProfile.metric("es"))
+                    .thenAcceptAsync(response -> {
+                        order.add(response.getName());
+                        done.countDown();
+                    }, mainThread);
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < count; i++) {
+            assertEquals("city" + i, order.get(i));
+        }
+    }
+
+    @Test
+    public void failuresAndRejectionsCompleteExceptionally() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1));
+        ForecastPipeline bounded = new ForecastPipeline(worker);
+
+        // Ocupa el hilo y la única plaza de la cola; la tercera se rechaza sin bloquear
+        CompletableFuture<String> failing = bounded.submit(() -> {
+            release.await();
+            throw new IllegalStateException("materialize failed");
+        });
+        CompletableFuture<String> queued = bounded.submit(() -> "queued");
+        CompletableFuture<String> rejected = bounded.submit(() -> "rejected");
+        assertTrue(rejected.isCompletedExceptionally());
+        release.countDown();
+
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        assertCause(IllegalStateException.class, failing);
+        assertCause(RejectedExecutionException.class, rejected);
+        bounded.shutdown();
+    }
+
+    private static void assertCause(Class<? extends Throwable> expected, CompletableFuture<?> future)
+            throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("should fail with " + expected.getSimpleName());
+        } catch (ExecutionException e) {
+            assertTrue(String.valueOf(e.getCause()), expected.isInstance(e.getCause()));
+        }
+    }
+
+    private static Forecast forecast(float temperature, int humidity, float windSpeed) {
+        ForecastSeries current = new ForecastSeries.Builder(new long[]{1_700_000_000L})
+                .putFloat(Variable.TEMPERATURE_2M, new float[]{temperature})
+                .putShort(Variable.RELATIVE_HUMIDITY_2M, new short[]{(short) humidity})
+                .putFloat(Variable.WIND_SPEED_10M, new float[]{windSpeed})
+                .putShort(Variable.WEATHER_CODE, new short[]{0})
+                .build();
+        return new Forecast(37.39, -5.98, 7200, "Europe/Madrid", 7, current, null, null);
+    }
+}
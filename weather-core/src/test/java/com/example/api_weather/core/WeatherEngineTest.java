@@ -0,0 +1,172 @@
+package com.example.api_weather.core;
+
+import com.example.api_weather.api.ForecastParams;
+import com.example.api_weather.api.OpenMeteo;
+import com.example.api_weather.api.SingleFlight;
+import com.example.api_weather.cache.ForecastCache;
+import com.example.api_weather.cache.ForecastStorage;
+import com.example.api_weather.cache.LocationCache;
+import com.example.api_weather.model.GeocodingResponse;
+import com.example.api_weather.model.UnitProfile;
+import com.example.api_weather.model.WeatherResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+/**
+ * WeatherEngine sin Android contra un MockWebServer local: caché en memoria, sin almacén en
+ * disco, como en un servicio de consultas en bloque.
+ */
+public class WeatherEngineTest {
+    private static final UnitProfile UNITS = UnitProfile.metric("es");
+
+    private MockWebServer server;
+    private WeatherEngine engine;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        OkHttpClient client = new OkHttpClient();
+        String baseUrl = server.url("/").toString();
+        engine = new WeatherEngine(OpenMeteo.weatherApi(client, baseUrl), OpenMeteo.geocodingApi(client, baseUrl),
+                new SingleFlight<>(), new SingleFlight<>(), new ForecastCache(16), ForecastStorage.NONE,
+                new MemoryLocations(),
+                ForecastPipeline.create());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        engine.shutdown();
+        server.shutdown();
+    }
+
+    @Test
+    public void conditionsAreFetchedOnceThenServedFromCache() throws Exception {
+        server.enqueue(new MockResponse().setBody(forecastJson(21.5f)));
+
+        WeatherResponse fetched = get(engine.conditions(37.39, -5.98, "Sevilla", "ES", UNITS,
+                ForecastParams.CONDITIONS, preview -> fail("nothing to preview")));
+        assertEquals("Sevilla", fetched.getName());
+        assertEquals(21.5, fetched.getMain().getTemp(), 1e-6);
+
+        CompletableFuture<WeatherResponse> cached = engine.conditions(37.39, -5.98, "Sevilla", "ES", UNITS,
+                ForecastParams.CONDITIONS, preview -> fail("fresh entries are not previews"));
+        assertTrue(cached.isDone());
+        assertSame(fetched.getForecast(), cached.get().getForecast());
+        assertEquals("Sevilla", cached.get().getName());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void citiesInTheSameCellDoNotRenameEachOther() throws Exception {
+        server.enqueue(new MockResponse().setBody(forecastJson(21.5f)));
+        WeatherResponse sevilla = get(engine.conditions(37.389, -5.984, "Sevilla", "ES", UNITS,
+                ForecastParams.CONDITIONS, preview -> { }));
+
+        // Triana cae en la misma celda de 0,01°: comparte pronóstico, no nombre
+        WeatherResponse triana = get(engine.conditions(37.386, -5.982, "Triana", "ES", UNITS,
+                ForecastParams.CONDITIONS, preview -> { }));
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals("Triana", triana.getName());
+        assertEquals("Sevilla", sevilla.getName());
+        assertEquals("Sevilla", get(engine.conditions(37.389, -5.984, "Sevilla", "ES", UNITS,
+                ForecastParams.CONDITIONS, preview -> { })).getName());
+        // Sin nombre (GPS) no hereda el de quien llenó la celda
+        WeatherResponse unnamed = get(engine.conditions(37.389, -5.984, null, null, UNITS,
+                ForecastParams.CONDITIONS, preview -> { }));
+        assertEquals(WeatherResponseMapper.DEFAULT_NAME, unnamed.getName());
+        assertNull(unnamed.getCountry());
+    }
+
+    @Test
+    public void errorResponsesFailWithApiException() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(400)
+                .setBody("{\"error\":true,\"reason\":\"Latitude must be in range of -90 to 90°.\"}"));
+
+        try {
+            get(engine.conditions(95, 0, null, null, UNITS, ForecastParams.CONDITIONS, preview -> { }));
+            fail("should fail");
+        } catch (ExecutionException e) {
+            ApiException error = (ApiException) WeatherEngine.unwrap(e.getCause());
+            assertEquals(400, error.getCode());
+            assertTrue(error.getBody(), error.getBody().contains("Latitude must be in range"));
+        }
+    }
+
+    @Test
+    public void batchResultsFollowInputOrder() throws Exception {
+        server.enqueue(new MockResponse().setBody("[" + forecastJson(10f) + "," + forecastJson(20f) + ","
+                + forecastJson(30f) + "]"));
+        List<GeocodingResponse.Location> locations = Arrays.asList(
+                location("Oslo", 59.91, 10.75), location("Madrid", 40.42, -3.70), location("Dakar", 14.69, -17.44));
+
+        List<CompletableFuture<WeatherResponse>> results =
+                engine.conditionsBatch(locations, UNITS, ForecastParams.CONDITIONS);
+
+        assertEquals(3, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            WeatherResponse response = get(results.get(i));
+            assertEquals(locations.get(i).getName(), response.getName());
+            assertEquals(10 * (i + 1), response.getMain().getTemp(), 1e-6);
+        }
+        assertEquals(1, server.getRequestCount());
+        // Cada ubicación queda en la caché con la misma clave que una consulta individual
+        assertTrue(engine.conditions(40.42, -3.70, "Madrid", "ES", UNITS, ForecastParams.CONDITIONS,
+                preview -> { }).isDone());
+    }
+
+    private static <T> T get(CompletableFuture<T> future) throws Exception {
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+    private static GeocodingResponse.Location location(String name, double lat, double lon) {
+        GeocodingResponse.Location location = new GeocodingResponse.Location();
+        location.setName(name);
+        location.setLatitude(lat);
+        location.setLongitude(lon);
+        return location;
+    }
+
+    private static String forecastJson(float temperature) {
+        return "{\"latitude\":0,\"longitude\":0,\"utc_offset_seconds\":0,\"timezone\":\"GMT\","
+                + "\"current\":{\"time\":1700000000,\"interval\":900,\"temperature_2m\":" + temperature + ","
+                + "\"relative_humidity_2m\":50,\"wind_speed_10m\":3.0,\"weather_code\":0}}";
+    }
+
+    private static class MemoryLocations implements LocationCache {
+        private final Map<String, GeocodingResponse.Location> locations = new HashMap<>();
+
+        @Override
+        public synchronized GeocodingResponse.Location get(String cityName, String language) {
+            return locations.get(language + "|" + cityName);
+        }
+
+        @Override
+        public GeocodingResponse.Location getStale(String cityName, String language) {
+            return get(cityName, language);
+        }
+
+        @Override
+        public synchronized void put(String cityName, String language, GeocodingResponse.Location location) {
+            locations.put(language + "|" + cityName, location);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.api_weather.model;
+
+import com.example.api_weather.Allocations;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * DerivedMetrics frente a los métodos escalares que usaba WeatherViewModel, copiados aquí
+ * tal cual (LegacyScalar): mismos resultados y sin asignaciones por muestra. Los tiempos los
+ * mide DerivedMetricsBenchmark en :benchmarks.
+ */
+public class DerivedMetricsTest {
+    private static final int SAMPLES = 1_000_000;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private static float[] temperature;
+    private static short[] humidity;
+    private static float[] windSpeed;
+    private static float[] windSpeedKmh;
+    private static float[] uvIndex;
+
+    @BeforeClass
+    public static void generateSamples() {
+        Random random = new Random(42);
+        temperature = new float[SAMPLES];
+        humidity = new short[SAMPLES];
+        windSpeed = new float[SAMPLES];
+        windSpeedKmh = new float[SAMPLES];
+        uvIndex = new float[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            temperature[i] = Math.round((random.nextFloat() * 65f - 25f) * 10f) / 10f;
+            humidity[i] = (short) random.nextInt(101);
+            windSpeed[i] = Math.round(random.nextFloat() * 200f) / 10f;
+            windSpeedKmh[i] = windSpeed[i] * 3.6f;
+            uvIndex[i] = Math.round(random.nextFloat() * 110f) / 10f;
+        }
+    }
+
+    @Test
+    public void apparentTemperature_matchesScalar() {
+        float[] out = new float[SAMPLES];
+        DerivedMetrics.apparentTemperature(temperature, humidity, windSpeed, uvIndex, out, SAMPLES);
+        int differing = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            double expected = LegacyScalar.calculateFeelsLike(temperature[i], humidity[i], windSpeed[i], uvIndex[i]);
+            double difference = Math.abs(expected - out[i]);
+            // Solo puede cambiar el redondeo a la décima en valores justo en el límite
+            assertTrue("sample " + i + ": " + expected + " vs " + out[i], difference <= 0.1 + 1e-4);
+            if (difference > 1e-4) {
+                differing++;
+            }
+        }
+        assertTrue(differing + " samples rounded differently", differing < SAMPLES / 10_000);
+    }
+
+    @Test
+    public void heatIndexAndWindChill_matchScalar() {
+        float[] heat = new float[SAMPLES];
+        float[] chill = new float[SAMPLES];
+        DerivedMetrics.heatIndex(temperature, humidity, heat, SAMPLES);
+        DerivedMetrics.windChill(temperature, windSpeedKmh, chill, SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            assertEquals(LegacyScalar.calculateHeatIndex(temperature[i], humidity[i]), heat[i], 1e-3);
+            assertEquals(LegacyScalar.calculateWindChill(temperature[i], windSpeedKmh[i]), chill[i], 1e-3);
+        }
+    }
+
+    @Test
+    public void pow016_isAccurate() {
+        for (double v = 0.05; v < 250; v += 0.037) {
+            assertEquals(Math.pow(v, 0.16), DerivedMetrics.pow016(v), Math.pow(v, 0.16) * 1e-5);
+        }
+    }
+
+    @Test
+    public void dewPoint_knownValues() {
+        float[] out = new float[3];
+        DerivedMetrics.dewPoint(new float[]{20f, 30f, 10f}, new short[]{50, 80, 100}, out, 3);
+        assertEquals(9.3, out[0], 0.1);
+        assertEquals(26.2, out[1], 0.1);
+        assertEquals(10.0, out[2], 0.05);
+    }
+
+    @Test
+    public void apparentTemperature_inFahrenheitAndMph() {
+        int n = 10_000;
+        float[] fahrenheit = new float[n];
+        float[] mph = new float[n];
+        for (int i = 0; i < n; i++) {
+            fahrenheit[i] = (float) (temperature[i] * 1.8 + 32.0);
+            mph[i] = (float) (windSpeed[i] * 3.6 / 1.609344);
+        }
+        float[] celsiusOut = new float[n];
+        float[] fahrenheitOut = new float[n];
+        DerivedMetrics.apparentTemperature(temperature, humidity, windSpeed, uvIndex, celsiusOut, n);
+        DerivedMetrics.apparentTemperature(fahrenheit, humidity, mph, uvIndex, fahrenheitOut, n, true, 1.609344);
+        for (int i = 0; i < n; i++) {
+            // Redondeos a una décima en escalas distintas
+            assertEquals("sample " + i, celsiusOut[i] * 1.8 + 32.0, fahrenheitOut[i], 0.3);
+        }
+    }
+
+    @Test
+    public void missingInputsProduceNaN() {
+        float[] out = new float[2];
+        DerivedMetrics.apparentTemperature(new float[]{Float.NaN, 20f},
+                new short[]{50, ForecastSeries.MISSING_SHORT}, new float[]{1f, 1f}, null, out, 2);
+        assertTrue(Float.isNaN(out[0]));
+        assertTrue(Float.isNaN(out[1]));
+    }
+
+    @Test
+    public void columnarPasses_doNotAllocatePerSample() throws Exception {
+        float[] out = new float[SAMPLES];
+        long apparent = Allocations.perOperation(WARMUP_ROUNDS, MEASURED_ROUNDS, () -> {
+            DerivedMetrics.apparentTemperature(temperature, humidity, windSpeed, uvIndex, out, SAMPLES);
+            return Float.floatToIntBits(out[SAMPLES - 1]);
+        });
+        long chill = Allocations.perOperation(WARMUP_ROUNDS, MEASURED_ROUNDS, () -> {
+            DerivedMetrics.windChill(temperature, windSpeedKmh, out, SAMPLES);
+            return Float.floatToIntBits(out[SAMPLES - 1]);
+        });
+
+        assertTrue("apparent temperature allocated " + apparent + " B per pass", apparent < 1024);
+        assertTrue("wind chill allocated " + chill + " B per pass", chill < 1024);
+    }
+
+    /** Métodos escalares anteriores de WeatherViewModel, como referencia. */
+    static class LegacyScalar {
+        static double calculateFeelsLike(double temp, int humidity, double windSpeed, double uvIndex) {
+            double feelsLike = temp;
+            double windSpeedKmh = windSpeed * 3.6;
+            if (temp > 27.0 && humidity > 40) {
+                feelsLike = calculateHeatIndex(temp, humidity);
+            } else if (temp < 10.0 && windSpeedKmh > 4.8) {
+                feelsLike = calculateWindChill(temp, windSpeedKmh);
+            } else {
+                if (windSpeedKmh > 5.0) {
+                    double windEffect = Math.min(windSpeedKmh * 0.1, 3.0);
+                    feelsLike -= windEffect;
+                }
+                if (temp > 20.0 && humidity > 60) {
+                    double humidityEffect = (humidity - 60) * 0.05;
+                    feelsLike += Math.min(humidityEffect, 2.0);
+                }
+                if (temp > 20.0 && humidity < 40) {
+                    double humidityEffect = (40 - humidity) * 0.03;
+                    feelsLike -= Math.min(humidityEffect, 1.5);
+                }
+            }
+            if (uvIndex > 5.0 && temp > 20.0) {
+                double uvEffect = (uvIndex - 5.0) * 0.2;
+                feelsLike += Math.min(uvEffect, 1.5);
+            }
+            return Math.round(feelsLike * 10.0) / 10.0;
+        }
+
+        static double calculateHeatIndex(double temp, int humidity) {
+            double tempF = (temp * 9.0 / 5.0) + 32.0;
+            double hi = -42.379 +
+                        2.04901523 * tempF +
+                        10.14333127 * humidity -
+                        0.22475541 * tempF * humidity -
+                        6.83783e-3 * tempF * tempF -
+                        5.481717e-2 * humidity * humidity +
+                        1.22874e-3 * tempF * tempF * humidity +
+                        8.5282e-4 * tempF * humidity * humidity -
+                        1.99e-6 * tempF * tempF * humidity * humidity;
+            double hiC = (hi - 32.0) * 5.0 / 9.0;
+            return Math.max(hiC, temp);
+        }
+
+        static double calculateWindChill(double temp, double windSpeedKmh) {
+            if (windSpeedKmh < 4.8) {
+                return temp;
+            }
+            double wc = 13.12 +
+                        0.6215 * temp -
+                        11.37 * Math.pow(windSpeedKmh, 0.16) +
+                        0.3965 * temp * Math.pow(windSpeedKmh, 0.16);
+            return Math.min(wc, temp);
+        }
+    }
+}
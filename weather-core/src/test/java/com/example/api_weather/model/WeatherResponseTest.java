@@ -0,0 +1,122 @@
+package com.example.api_weather.model;
+
+import com.example.api_weather.Allocations;
+import com.example.api_weather.core.WeatherResponseMapper;
+import com.example.api_weather.model.ForecastSeries.Variable;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * WeatherResponse perezoso: los objetos del formato anterior y la sensación térmica solo se
+ * construyen al leerlos, una vez, y una actualización que pinta la tarjeta asigna menos que
+ * materializarlo todo como hacía la conversión anterior.
+ */
+public class WeatherResponseTest {
+    private static final Forecast FORECAST = forecast();
+    private static final UnitProfile METRIC = UnitProfile.metric("es");
+
+    @Test
+    public void subObjectsAreBuiltOnFirstAccessAndMemoized() {
+        WeatherResponse response = WeatherResponseMapper.toWeatherResponse(FORECAST, "Sevilla", "ES", METRIC);
+
+        Main main = response.getMain();
+        assertSame(main, response.getMain());
+        assertSame(response.getSys(), response.getSys());
+        assertSame(response.getWeather(), response.getWeather());
+        assertEquals(31.0, main.getTemp(), 1e-6);
+        assertEquals(24.0, main.getTempMin(), 1e-6);
+        assertEquals(1013, main.getPressure());
+        assertEquals(response.getFeelsLike(), main.getFeelsLike(), 1e-6);
+        assertTrue(response.getFeelsLike() > 31.0);
+        assertEquals(37.39, response.getCoord().getLat(), 1e-9);
+        assertEquals(2, response.getWeather().get(0).getId());
+        assertEquals("02d", response.getWeather().get(0).getIcon());
+        assertEquals(3.0, response.getWind().getSpeed(), 1e-6);
+        assertEquals(0, response.getClouds().getAll());
+        assertEquals(1_700_000_000L, response.getDt());
+        assertEquals(7200, response.getTimezone());
+        assertEquals(200, response.getCod());
+    }
+
+    @Test
+    public void countryStaysConsistentBeforeAndAfterBuildingSys() {
+        WeatherResponse response = WeatherResponseMapper.toWeatherResponse(FORECAST, "Sevilla", "ES", METRIC);
+        response.setCountry("PT");
+        assertEquals("PT", response.getSys().getCountry());
+
+        response.setCountry("FR");
+        assertEquals("FR", response.getCountry());
+        assertEquals("FR", response.getSys().getCountry());
+    }
+
+    @Test
+    public void withPlaceCopiesWithoutTouchingTheOriginal() {
+        WeatherResponse response = WeatherResponseMapper.toWeatherResponse(FORECAST, "Sevilla", "ES", METRIC);
+        response.getSys();
+
+        WeatherResponse renamed = response.withPlace("Triana", "ES");
+
+        assertEquals("Sevilla", response.getName());
+        assertEquals("Triana", renamed.getName());
+        assertEquals("ES", renamed.getSys().getCountry());
+        assertSame(response.getForecast(), renamed.getForecast());
+        assertSame(METRIC, renamed.getUnits());
+        assertEquals(response.getFeelsLike(), renamed.getFeelsLike(), 1e-6);
+    }
+
+    @Test
+    public void feelsLikeFollowsTheUnitsOfTheResponse() {
+        WeatherResponse response = WeatherResponseMapper.toWeatherResponse(FORECAST, null, null, METRIC);
+        double celsius = response.getFeelsLike();
+
+        response.setUnits(UnitProfile.imperial("en"));
+
+        // Las mismas columnas leídas como °F y mph: otro régimen, otro resultado
+        assertNotEquals(celsius, response.getFeelsLike(), 1e-6);
+        assertEquals("Ubicación", response.getName());
+    }
+
+    @Test
+    public void displayingAnUpdateAllocatesLessThanMaterializingEverything() throws Exception {
+        long displayed = Allocations.perOperation(20_000, 50_000, WeatherResponseTest::displayed);
+        long materialized = Allocations.perOperation(20_000, 50_000, WeatherResponseTest::materialized);
+        assertTrue("displayed " + displayed + " B vs materialized " + materialized + " B",
+                displayed * 2 < materialized);
+    }
+
+    /** Lo que lee MainActivity.displayWeatherData. */
+    private static int displayed() {
+        WeatherResponse response = WeatherResponseMapper.toWeatherResponse(FORECAST, "Sevilla", "ES", METRIC);
+        double sum = response.getTemperature() + response.getFeelsLike() + response.getTemperatureMin()
+                + response.getTemperatureMax() + response.getHumidity() + response.getPressure()
+                + response.getWindSpeed() + response.getVisibility() + response.getWeatherCode()
+                + (response.isDay() ? 1 : 0);
+        return (int) sum + response.getName().length() + response.getCountry().length();
+    }
+
+    /** Todo lo que construía la conversión anterior en cada actualización. */
+    private static int materialized() {
+        WeatherResponse response = WeatherResponseMapper.toWeatherResponse(FORECAST, "Sevilla", "ES", METRIC);
+        return (int) (response.getCoord().getLat() + response.getMain().getFeelsLike()
+                + response.getWind().getSpeed()) + response.getWeather().size()
+                + response.getClouds().getAll() + response.getSys().getCountry().length();
+    }
+
+    private static Forecast forecast() {
+        ForecastSeries current = new ForecastSeries.Builder(new long[]{1_700_000_000L})
+                .putFloat(Variable.TEMPERATURE_2M, new float[]{31.0f})
+                .putShort(Variable.RELATIVE_HUMIDITY_2M, new short[]{70})
+                .putFloat(Variable.WIND_SPEED_10M, new float[]{3.0f})
+                .putFloat(Variable.PRESSURE_MSL, new float[]{1013.2f})
+                .putShort(Variable.WEATHER_CODE, new short[]{2})
+                .putShort(Variable.IS_DAY, new short[]{1})
+                .build();
+        ForecastSeries daily = new ForecastSeries.Builder(new long[]{1_699_999_200L})
+                .putFloat(Variable.TEMPERATURE_2M_MAX, new float[]{33.0f})
+                .putFloat(Variable.TEMPERATURE_2M_MIN, new float[]{24.0f})
+                .build();
+        return new Forecast(37.39, -5.98, 7200, "Europe/Madrid", 7, current, null, daily);
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.api_weather.prefetch;
+
+import com.example.api_weather.api.WeatherApi;
+import com.example.api_weather.model.Forecast;
+import com.example.api_weather.model.GeocodingResponse;
+import com.example.api_weather.model.UnitProfile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+/**
+ * Planificación de la precarga con reloj y WeatherApi falsos: sin Android ni red.
+ */
+public class PrefetchSchedulerTest {
+    private static final long START = 1_700_000_000_000L;
+
+    private final List<GeocodingResponse.Location> locations = new ArrayList<>();
+    private final List<String> delivered = new ArrayList<>();
+    private FakeWeatherApi api;
+    private FakeConditions conditions;
+    private long now;
+    private PrefetchScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        now = START;
+        api = new FakeWeatherApi();
+        conditions = new FakeConditions();
+        scheduler = new PrefetchScheduler(api, UnitProfile.metric("es"), () -> locations,
+                (location, forecast) -> delivered.add(location.getName()),
+                conditions, () -> now);
+    }
+
+    @Test
+    public void refreshesAllLocationsInFewBatches() {
+        for (int i = 0; i < 60; i++) {
+            locations.add(location("city" + i, 40 + i * 0.1, -3 - i * 0.1));
+        }
+
+        assertEquals(PrefetchScheduler.Result.REFRESHED, scheduler.runIfDue());
+
+        assertEquals(60, delivered.size());
+        assertEquals("city0", delivered.get(0));
+        assertEquals("city59", delivered.get(59));
+        assertTrue("expected batching, got " + api.batchCalls + " requests", api.batchCalls < 10);
+        assertEquals(START + PrefetchScheduler.INTERVAL_MS, scheduler.getNextRunAt());
+    }
+
+    @Test
+    public void doesNotRunBeforeTheInterval() {
+        locations.add(location("Madrid", 40.42, -3.70));
+        scheduler.runIfDue();
+
+        now += PrefetchScheduler.INTERVAL_MS - 1;
+        assertEquals(PrefetchScheduler.Result.NOT_DUE, scheduler.runIfDue());
+        assertEquals(1, api.batchCalls);
+
+        now += 1;
+        assertEquals(PrefetchScheduler.Result.REFRESHED, scheduler.runIfDue());
+        assertEquals(2, api.batchCalls);
+    }
+
+    @Test
+    public void respectsNetworkAndBatteryConstraints() {
+        locations.add(location("Madrid", 40.42, -3.70));
+
+        conditions.unmetered = false;
+        assertEquals(PrefetchScheduler.Result.CONSTRAINED, scheduler.runIfDue());
+        assertEquals(0, api.batchCalls);
+        assertEquals(PrefetchScheduler.CONSTRAINED_RETRY_MS, scheduler.delayUntilNextRun());
+
+        now += PrefetchScheduler.CONSTRAINED_RETRY_MS;
+        conditions.unmetered = true;
+        conditions.batteryLow = true;
+        assertEquals(PrefetchScheduler.Result.CONSTRAINED, scheduler.runIfDue());
+        assertEquals(0, api.batchCalls);
+
+        // Con batería baja pero cargando sí se precarga
+        now += PrefetchScheduler.CONSTRAINED_RETRY_MS;
+        conditions.charging = true;
+        assertEquals(PrefetchScheduler.Result.REFRESHED, scheduler.runIfDue());
+        assertEquals(1, api.batchCalls);
+    }
+
+    @Test
+    public void backsOffExponentiallyAndResetsOnSuccess() {
+        locations.add(location("Madrid", 40.42, -3.70));
+        long[] expected = {
+                PrefetchScheduler.INITIAL_BACKOFF_MS,
+                PrefetchScheduler.INITIAL_BACKOFF_MS * 2,
+                PrefetchScheduler.INITIAL_BACKOFF_MS * 4,
+                PrefetchScheduler.INITIAL_BACKOFF_MS * 8
+        };
+        for (int i = 0; i < expected.length; i++) {
+            api.failures.add(i % 2 == 0 ? FakeWeatherApi.IO_ERROR : FakeWeatherApi.HTTP_ERROR);
+            assertEquals(PrefetchScheduler.Result.FAILED, scheduler.runIfDue());
+            assertEquals(expected[i], scheduler.delayUntilNextRun());
+            assertEquals(PrefetchScheduler.Result.NOT_DUE, scheduler.runIfDue());
+            now += expected[i];
+        }
+        assertEquals(4, scheduler.getConsecutiveFailures());
+
+        assertEquals(PrefetchScheduler.Result.REFRESHED, scheduler.runIfDue());
+        assertEquals(0, scheduler.getConsecutiveFailures());
+        assertEquals(PrefetchScheduler.INTERVAL_MS, scheduler.delayUntilNextRun());
+    }
+
+    @Test
+    public void backoffIsCapped() {
+        assertEquals(PrefetchScheduler.MAX_BACKOFF_MS, PrefetchScheduler.backoffMs(50));
+    }
+
+    @Test
+    public void restoredStateSurvivesProcessDeath() {
+        locations.add(location("Madrid", 40.42, -3.70));
+        scheduler.restore(START + 60_000, 3);
+
+        assertEquals(PrefetchScheduler.Result.NOT_DUE, scheduler.runIfDue());
+        now = START + 60_000;
+        api.failures.add(FakeWeatherApi.IO_ERROR);
+        assertEquals(PrefetchScheduler.Result.FAILED, scheduler.runIfDue());
+        assertEquals(PrefetchScheduler.backoffMs(4), scheduler.delayUntilNextRun());
+    }
+
+    @Test
+    public void skipsRequestsWithoutSavedLocations() {
+        assertEquals(PrefetchScheduler.Result.NO_LOCATIONS, scheduler.runIfDue());
+        assertEquals(0, api.batchCalls);
+    }
+
+    private static GeocodingResponse.Location location(String name, double lat, double lon) {
+        GeocodingResponse.Location location = new GeocodingResponse.Location();
+        location.setName(name);
+        location.setLatitude(lat);
+        location.setLongitude(lon);
+        return location;
+    }
+
+    private static class FakeConditions implements DeviceConditions {
+        boolean unmetered = true;
+        boolean batteryLow;
+        boolean charging;
+
+        @Override
+        public boolean isUnmetered() {
+            return unmetered;
+        }
+
+        @Override
+        public boolean isBatteryLow() {
+            return batteryLow;
+        }
+
+        @Override
+        public boolean isCharging() {
+            return charging;
+        }
+    }
+
+    /** Responde cada lote con un pronóstico vacío por coordenada, o con el fallo encolado. */
+    private static class FakeWeatherApi implements WeatherApi {
+        static final int IO_ERROR = 1;
+        static final int HTTP_ERROR = 2;
+
+        final Deque<Integer> failures = new ArrayDeque<>();
+        int batchCalls;
+
+        @Override
+        public Call<Forecast> getCurrentWeather(double latitude, double longitude, String current,
+                                                String daily, String timezone, String timeFormat,
+                                                Map<String, String> units) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Call<Forecast> getForecastRange(double latitude, double longitude, String current,
+                                               String daily, String timezone, String timeFormat,
+                                               String startDate, String endDate, Map<String, String> units) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Call<Forecast> getOutlook(double latitude, double longitude, String hourly, String daily,
+                                         String timezone, String timeFormat, int forecastDays,
+                                         Map<String, String> units) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Call<List<Forecast>> getCurrentWeatherBatch(String latitudes, String longitudes, String current,
+                                                           String daily, String timezone, String timeFormat,
+                                                           Map<String, String> units) {
+            batchCalls++;
+            Integer failure = failures.poll();
+            if (failure != null && failure == IO_ERROR) {
+                return new FakeCall<>(null, new IOException("timeout"));
+            }
+            if (failure != null) {
+                return new FakeCall<>(Response.error(503,
+                        ResponseBody.create("busy", MediaType.get("text/plain"))), null);
+            }
+            List<Forecast> forecasts = new ArrayList<>();
+            String[] lats = latitudes.split(",");
+            String[] lons = longitudes.split(",");
+            for (int i = 0; i < lats.length; i++) {
+                forecasts.add(new Forecast(Double.parseDouble(lats[i]), Double.parseDouble(lons[i]),
+                        0, "GMT", 0, null, null, null));
+            }
+            return new FakeCall<>(Response.success(forecasts), null);
+        }
+    }
+
+    private static class FakeCall<T> implements Call<T> {
+        private final Response<T> response;
+        private final IOException error;
+        private boolean executed;
+
+        FakeCall(Response<T> response, IOException error) {
+            this.response = response;
+            this.error = error;
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            executed = true;
+            if (error != null) {
+                throw error;
+            }
+            return response;
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+
+        @Override
+        public Call<T> clone() {
+            return new FakeCall<>(response, error);
+        }
+
+        @Override
+        public Request request() {
+            return new Request.Builder().url("https://api.open-meteo.com/v1/forecast").build();
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+    }
+}